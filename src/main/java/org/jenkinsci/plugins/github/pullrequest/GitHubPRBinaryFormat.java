@@ -0,0 +1,240 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of {@link GitHubPRRepository} runtime state, see {@link GitHubPRRuntimeFormat#BINARY}.
+ * Numbers are varints, dates are epoch millis, repeated strings (refs, logins, labels) are written once
+ * and then referenced by index in string table built while writing.
+ * <p>
+ * File: magic, version varint, repository. Every model class writes and reads its own fields,
+ * new fields go to the end of record with version bump.
+ */
+public final class GitHubPRBinaryFormat {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static final String FILE = GitHubPRRepository.class.getName() + ".runtime.bin";
+    public static final int VERSION = 1;
+    private static final int MAGIC = 0x47485052; // "GHPR"
+
+    private GitHubPRBinaryFormat() {
+    }
+
+    /**
+     * Replaces file content, file is never left half written.
+     */
+    public static void write(@Nonnull GitHubPRRepository repository, @Nonnull File file) throws IOException {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(tmp)) {
+            write(repository, new BufferedOutputStream(stream));
+            stream.getChannel().force(false);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void write(@Nonnull GitHubPRRepository repository, @Nonnull OutputStream stream)
+            throws IOException {
+        Output out = new Output(stream);
+        out.data.writeInt(MAGIC);
+        out.writeVarInt(VERSION);
+        repository.writeBinary(out);
+        out.data.flush();
+    }
+
+    @Nonnull
+    public static GitHubPRRepository read(@Nonnull File file) throws IOException {
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            return read(stream);
+        }
+    }
+
+    @Nonnull
+    public static GitHubPRRepository read(@Nonnull InputStream stream) throws IOException {
+        Input in = new Input(stream);
+        if (in.data.readInt() != MAGIC) {
+            throw new IOException("Not a binary runtime state");
+        }
+        int version = in.readVarInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported binary runtime state version " + version);
+        }
+        in.version = version;
+        return GitHubPRRepository.readBinary(in);
+    }
+
+    /**
+     * Writes primitives of binary format.
+     */
+    public static class Output {
+        private final DataOutputStream data;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private Output(OutputStream stream) {
+            this.data = new DataOutputStream(stream);
+        }
+
+        public void writeVarInt(int value) throws IOException {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        public void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                data.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            data.writeByte((int) value);
+        }
+
+        public void writeBoolean(@CheckForNull Boolean value) throws IOException {
+            data.writeByte(value == null ? 0 : value ? 2 : 1);
+        }
+
+        /**
+         * Epoch millis, zigzag encoded, 0 is null
+         */
+        public void writeDate(@CheckForNull Date date) throws IOException {
+            if (date == null) {
+                writeVarLong(0);
+            } else {
+                long time = date.getTime();
+                writeVarLong(((time << 1) ^ (time >> 63)) + 1);
+            }
+        }
+
+        /**
+         * Length + 1 and UTF-8 bytes, 0 is null
+         */
+        public void writeString(@CheckForNull String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+            } else {
+                byte[] bytes = value.getBytes(UTF_8);
+                writeVarInt(bytes.length + 1);
+                data.write(bytes);
+            }
+        }
+
+        /**
+         * String that repeats in state: 0 is null, 1 is new string that follows inline,
+         * index + 2 is string written before.
+         */
+        public void writeSharedString(@CheckForNull String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index + 2);
+            } else {
+                strings.put(value, strings.size());
+                writeVarInt(1);
+                writeString(value);
+            }
+        }
+    }
+
+    /**
+     * Reads primitives of binary format.
+     */
+    public static class Input {
+        private final DataInputStream data;
+        private final List<String> strings = new ArrayList<>();
+        private int version;
+
+        private Input(InputStream stream) {
+            this.data = new DataInputStream(stream);
+        }
+
+        /**
+         * Version of file being read
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        public int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value > 0xFFFFFFFFL) {
+                throw new IOException("Bad varint " + value);
+            }
+            return (int) value;
+        }
+
+        public long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = data.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Bad varlong");
+        }
+
+        @CheckForNull
+        public Boolean readBoolean() throws IOException {
+            int value = data.readUnsignedByte();
+            return value == 0 ? null : value == 2;
+        }
+
+        @CheckForNull
+        public Date readDate() throws IOException {
+            long value = readVarLong();
+            if (value == 0) {
+                return null;
+            }
+            value--;
+            return new Date((value >>> 1) ^ -(value & 1));
+        }
+
+        @CheckForNull
+        public String readString() throws IOException {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length - 1];
+            data.readFully(bytes);
+            return new String(bytes, UTF_8);
+        }
+
+        @CheckForNull
+        public String readSharedString() throws IOException {
+            int tag = readVarInt();
+            if (tag == 0) {
+                return null;
+            }
+            if (tag == 1) {
+                String value = readString();
+                strings.add(value);
+                return value;
+            }
+            int index = tag - 2;
+            if (index >= strings.size()) {
+                throw new IOException("Bad string table index " + index);
+            }
+            return strings.get(index);
+        }
+    }
+}
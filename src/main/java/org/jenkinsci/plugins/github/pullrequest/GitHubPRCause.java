@@ -52,6 +52,15 @@ public class GitHubPRCause extends Cause {
         this(new GitHubPRPullRequest(remotePr), remotePr.getUser(), skip, reason);
     }
 
+    /**
+     * Cause for PR checked by trigger, reuses remote data already fetched for this check.
+     */
+    public GitHubPRCause(GitHubPRSnapshot snapshot,
+                         String reason,
+                         boolean skip) throws IOException {
+        this(snapshot.getPullRequest(), snapshot.getUser(), skip, reason);
+    }
+
     public GitHubPRCause(GitHubPRPullRequest pr,
                          GHUser triggerSender,
                          boolean skip,
@@ -0,0 +1,61 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import net.sf.json.JSONObject;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.Date;
+
+/**
+ * Issue comment data that trigger needs, read from issue comments list response.
+ * Author is kept as login, so {@link org.kohsuke.github.GHUser} is fetched only for comments that matter.
+ */
+public class GitHubPRComment {
+    private final long id;
+    private final String body;
+    @CheckForNull
+    private final String authorLogin;
+    private final Date createdAt;
+
+    public GitHubPRComment(long id, String body, @CheckForNull String authorLogin, @Nonnull Date createdAt) {
+        this.id = id;
+        this.body = body;
+        this.authorLogin = authorLogin;
+        this.createdAt = new Date(createdAt.getTime());
+    }
+
+    /**
+     * @param json comment object of issue comments list
+     */
+    @Nonnull
+    public static GitHubPRComment fromJson(@Nonnull JSONObject json) {
+        JSONObject user = json.optJSONObject("user");
+        Date createdAt = GitHubPRRestClient.parseDate(json.optString("created_at"));
+        return new GitHubPRComment(json.getLong("id"),
+                json.optString("body", ""),
+                user == null || user.isNullObject() ? null : user.optString("login", null),
+                createdAt == null ? new Date(0) : createdAt);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    @CheckForNull
+    public String getAuthorLogin() {
+        return authorLogin;
+    }
+
+    public Date getCreatedAt() {
+        return new Date(createdAt.getTime());
+    }
+
+    @Override
+    public String toString() {
+        return "GitHubPRComment{id=" + id + ", author=" + authorLogin + ", createdAt=" + createdAt + '}';
+    }
+}
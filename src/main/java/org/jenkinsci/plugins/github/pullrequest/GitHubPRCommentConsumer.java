@@ -0,0 +1,11 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives new PR comments from {@link GitHubPRCommentPipeline}, one by one in creation order.
+ * Consumer lives for one check of one PR, so it may keep state.
+ */
+public interface GitHubPRCommentConsumer {
+    void accept(@Nonnull GitHubPRComment comment);
+}
@@ -0,0 +1,82 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.Date;
+
+/**
+ * Last PR comment seen by job. Only comments after cursor are fetched on next check.
+ * Comment ids grow, so id decides what is new; time is used for "since" request parameter
+ * and for cursors saved by older versions that have no id.
+ */
+public final class GitHubPRCommentCursor {
+    /**
+     * No comments seen, every comment is new
+     */
+    public static final GitHubPRCommentCursor EMPTY = new GitHubPRCommentCursor(null, null);
+
+    @CheckForNull
+    private final Long id;
+    @CheckForNull
+    private final Date createdAt;
+
+    public GitHubPRCommentCursor(@CheckForNull Long id, @CheckForNull Date createdAt) {
+        this.id = id;
+        this.createdAt = createdAt == null ? null : new Date(createdAt.getTime());
+    }
+
+    public boolean isEmpty() {
+        return id == null && createdAt == null;
+    }
+
+    /**
+     * @return true when comment was created after cursor
+     */
+    public boolean isBefore(@Nonnull GitHubPRComment comment) {
+        if (id != null) {
+            return comment.getId() > id;
+        }
+        return createdAt == null || createdAt.before(comment.getCreatedAt());
+    }
+
+    /**
+     * @return cursor moved to comment if it is newer
+     */
+    @Nonnull
+    public GitHubPRCommentCursor advance(@Nonnull GitHubPRComment comment) {
+        return isBefore(comment) ? new GitHubPRCommentCursor(comment.getId(), comment.getCreatedAt()) : this;
+    }
+
+    @CheckForNull
+    public Long getId() {
+        return id;
+    }
+
+    @CheckForNull
+    public Date getCreatedAt() {
+        return createdAt == null ? null : new Date(createdAt.getTime());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        GitHubPRCommentCursor that = (GitHubPRCommentCursor) o;
+
+        if (id != null ? !id.equals(that.id) : that.id != null) return false;
+        return createdAt != null ? createdAt.equals(that.createdAt) : that.createdAt == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id != null ? id.hashCode() : 0;
+        result = 31 * result + (createdAt != null ? createdAt.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "GitHubPRCommentCursor{id=" + id + ", createdAt=" + createdAt + '}';
+    }
+}
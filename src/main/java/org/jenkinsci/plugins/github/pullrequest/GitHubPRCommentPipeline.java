@@ -0,0 +1,108 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Walks comments created after job cursor once per PR check and feeds every comment to registered consumers
+ * (trigger phrase, whitelist commands, last comment). Consumers are registered before {@link #process()}
+ * and read by their owners after it, so new consumer costs no GitHub requests.
+ */
+public class GitHubPRCommentPipeline {
+    private final GitHubPRSnapshot snapshot;
+    @CheckForNull
+    private final GitHubPRPullRequest localPR;
+    private final Map<Object, GitHubPRCommentConsumer> consumers = new LinkedHashMap<>();
+    private final LastComment lastComment;
+
+    /**
+     * @param localPR PR state from last run, null when PR is new
+     */
+    public GitHubPRCommentPipeline(@Nonnull GitHubPRSnapshot snapshot, @CheckForNull GitHubPRPullRequest localPR) {
+        this.snapshot = snapshot;
+        this.localPR = localPR;
+        this.lastComment = new LastComment(getCursor());
+        consumers.put(LastComment.class, lastComment);
+    }
+
+    @Nonnull
+    public GitHubPRSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @CheckForNull
+    public GitHubPRPullRequest getLocalPR() {
+        return localPR;
+    }
+
+    /**
+     * Comments after this cursor are walked
+     */
+    @Nonnull
+    public GitHubPRCommentCursor getCursor() {
+        return localPR == null ? GitHubPRCommentCursor.EMPTY : localPR.getCommentCursor();
+    }
+
+    /**
+     * @param owner who reads consumer after processing, one consumer per owner
+     */
+    public void register(@Nonnull Object owner, @Nonnull GitHubPRCommentConsumer consumer) {
+        consumers.put(owner, consumer);
+    }
+
+    /**
+     * @return consumer registered by owner, null when owner didn't register consumer of this type
+     */
+    @CheckForNull
+    public <T extends GitHubPRCommentConsumer> T getConsumer(@Nonnull Object owner, @Nonnull Class<T> type) {
+        GitHubPRCommentConsumer consumer = consumers.get(owner);
+        return type.isInstance(consumer) ? type.cast(consumer) : null;
+    }
+
+    /**
+     * @return true when someone besides last comment tracking waits for comments
+     */
+    public boolean hasConsumers() {
+        return consumers.size() > 1;
+    }
+
+    /**
+     * Fetches new comments (once for all consumers) and passes them to consumers.
+     */
+    public void process() throws IOException {
+        for (GitHubPRComment comment : snapshot.getCommentsAfter(getCursor())) {
+            for (GitHubPRCommentConsumer consumer : consumers.values()) {
+                consumer.accept(comment);
+            }
+        }
+        snapshot.setLastCommentCursor(lastComment.getCursor());
+    }
+
+    /**
+     * Cursor to save with new PR state
+     */
+    @Nonnull
+    public GitHubPRCommentCursor getLastCommentCursor() {
+        return lastComment.getCursor();
+    }
+
+    private static class LastComment implements GitHubPRCommentConsumer {
+        private GitHubPRCommentCursor cursor;
+
+        private LastComment(GitHubPRCommentCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void accept(@Nonnull GitHubPRComment comment) {
+            cursor = cursor.advance(comment);
+        }
+
+        public GitHubPRCommentCursor getCursor() {
+            return cursor;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import jenkins.util.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses bursts of hooks for the same job and PR into one check.
+ * First hook schedules check after coalescing window, hooks that come before check starts are absorbed by it.
+ * Hooks that come after check started schedule next check, so no change is missed.
+ */
+public class GitHubPRHookCoalescer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRHookCoalescer.class);
+
+    private final GitHubPRStripedQueue queue;
+    private final ConcurrentMap<String, Boolean> pending = new ConcurrentHashMap<>();
+    private volatile long window;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong absorbed = new AtomicLong();
+
+    /**
+     * @param queue  where checks are executed
+     * @param window ms to wait for more hooks of the same PR, 0 to check immediately
+     */
+    public GitHubPRHookCoalescer(@Nonnull GitHubPRStripedQueue queue, long window) {
+        this.queue = queue;
+        this.window = window;
+    }
+
+    /**
+     * Schedules check of PR unless it is already waiting.
+     */
+    public void submit(@Nonnull final String jobName, int prNumber, @Nonnull final Runnable check) {
+        submit(jobName, "#" + prNumber, check);
+    }
+
+    /**
+     * Schedules check of job subject unless it is already waiting.
+     *
+     * @param subject what is checked, i.e. "#1" for PR or "@master" for base branch
+     */
+    public void submit(@Nonnull final String jobName, @Nonnull String subject, @Nonnull final Runnable check) {
+        received.incrementAndGet();
+
+        final String key = jobName + subject;
+        if (pending.putIfAbsent(key, Boolean.TRUE) != null) {
+            absorbed.incrementAndGet();
+            LOGGER.debug("Hook for {} absorbed by pending check", key);
+            return;
+        }
+
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                // hooks from now on need new check
+                pending.remove(key);
+                check.run();
+            }
+        };
+
+        long delay = window;
+        if (delay <= 0) {
+            queue.execute(jobName, task);
+        } else {
+            Timer.get().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    queue.execute(jobName, task);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void setWindow(long window) {
+        this.window = window;
+    }
+
+    public long getWindow() {
+        return window;
+    }
+
+    /**
+     * Hooks submitted since start
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * Hooks that didn't cause own check
+     */
+    public long getAbsorbed() {
+        return absorbed.get();
+    }
+
+    /**
+     * Checks that wait for window end or queue
+     */
+    public int getPending() {
+        return pending.size();
+    }
+}
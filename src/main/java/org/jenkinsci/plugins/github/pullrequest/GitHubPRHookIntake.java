@@ -0,0 +1,383 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.kohsuke.github.GHEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded buffer between hook endpoint and hook dispatch, so request threads only enqueue raw hook and return.
+ * Buffer is lock free: producers and workers never block each other.
+ * Workers pool is bounded, number of busy workers grows with buffer content.
+ * Workers take received hooks in two steps: first they read PR of every received hook
+ * (only for {@link GitHubPRHookOverflowPolicy#COALESCE}), then they dispatch hooks one by one,
+ * so hook of PR that still waits for dispatch is replaced by later hook of the same PR.
+ * When buffer is full the oldest hook is dropped, see {@link GitHubPRHookOverflowPolicy}. With coalescing
+ * received hooks are sorted first in submitter thread, so hooks of the same PR free space before anything is dropped.
+ * On {@link #close()} hooks that were not dispatched yet are passed to {@link Handler#keep(GHEvent, String)},
+ * so they survive restart.
+ */
+public class GitHubPRHookIntake {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRHookIntake.class);
+
+    /**
+     * Hooks as they came from request threads
+     */
+    private final Queue<Hook> received = new ConcurrentLinkedQueue<>();
+    /**
+     * Hooks with known PR that wait for dispatch
+     */
+    private final Queue<Item> buffer = new ConcurrentLinkedQueue<>();
+    /**
+     * Waiting hooks by key, filled only for {@link GitHubPRHookOverflowPolicy#COALESCE}
+     */
+    private final ConcurrentMap<String, Item> waiting = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final ThreadPoolExecutor executor;
+    private final Runnable worker = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                Hook hook;
+                while (!closed && (hook = next()) != null) {
+                    dispatch(hook);
+                }
+            } finally {
+                workers.decrementAndGet();
+                signal();
+            }
+        }
+    };
+
+    private volatile int capacity;
+    private volatile GitHubPRHookOverflowPolicy policy;
+    private volatile boolean closed;
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private volatile int maxDepth;
+
+    /**
+     * @param capacity max number of waiting hooks
+     * @param threads  max number of hooks dispatched at the same time
+     */
+    public GitHubPRHookIntake(int capacity, int threads, @Nonnull GitHubPRHookOverflowPolicy policy) {
+        this.capacity = capacity;
+        this.policy = policy;
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "GitHubPRTrigger.intake"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Puts hook to buffer and returns immediately. Payload is not read in caller thread
+     * unless buffer overflows with {@link GitHubPRHookOverflowPolicy#COALESCE}.
+     *
+     * @param handler what reads and dispatches hook
+     */
+    public void submit(@Nonnull GHEvent event, @Nonnull String payload, @Nonnull Handler handler) {
+        receivedCount.incrementAndGet();
+        if (closed) {
+            keep(new Hook(event, payload, handler));
+            return;
+        }
+        received.add(new Hook(event, payload, handler));
+
+        int current = depth.incrementAndGet();
+        if (current > capacity && isCoalescing()) {
+            Hook hook;
+            while ((hook = received.poll()) != null) {
+                sort(hook);
+            }
+            current = depth.get();
+        }
+        while (current > capacity) {
+            Hook oldest = poll();
+            if (oldest == null) {
+                oldest = received.poll();
+                if (oldest == null) {
+                    break;
+                }
+                depth.decrementAndGet();
+            }
+            dropped.incrementAndGet();
+            LOGGER.debug("Hook buffer is full, dropped {}", oldest);
+            current = depth.get();
+        }
+        if (current > maxDepth) {
+            maxDepth = current;
+        }
+        signal();
+        if (closed) {
+            drain(); // closed after check above, close() may have missed this hook
+        }
+    }
+
+    public boolean isCoalescing() {
+        return policy == GitHubPRHookOverflowPolicy.COALESCE;
+    }
+
+    /**
+     * Moves received hooks to dispatch buffer and takes the oldest hook for dispatch.
+     */
+    @CheckForNull
+    private Hook next() {
+        Hook hook;
+        while ((hook = received.poll()) != null) {
+            sort(hook);
+        }
+        return poll();
+    }
+
+    /**
+     * Replaces waiting hook of the same PR or puts hook to the end of dispatch buffer.
+     */
+    private void sort(Hook hook) {
+        String key = null;
+        if (isCoalescing()) {
+            try {
+                key = hook.handler.getKey(hook.event, hook.payload);
+            } catch (Throwable t) {
+                LOGGER.debug("Can't read PR of {}, it will not be coalesced", hook, t);
+            }
+        }
+
+        if (key == null) {
+            buffer.add(new Item(null, hook));
+            return;
+        }
+
+        Item item = waiting.get(key);
+        // fails when item was already taken from buffer, then hook goes as new one
+        if (item != null && item.replace(hook)) {
+            depth.decrementAndGet();
+            coalesced.incrementAndGet();
+            LOGGER.debug("{} replaced waiting hook of the same PR", hook);
+            return;
+        }
+        item = new Item(key, hook);
+        waiting.put(key, item);
+        buffer.add(item);
+    }
+
+    /**
+     * Takes the oldest hook of dispatch buffer. Hook is taken out of its item at once, so late hook of the same PR
+     * can't replace it any more and is dispatched as new one.
+     */
+    @CheckForNull
+    private Hook poll() {
+        Item item;
+        while ((item = buffer.poll()) != null) {
+            if (item.key != null) {
+                waiting.remove(item.key, item);
+            }
+            Hook hook = item.hook.getAndSet(null);
+            if (hook != null) {
+                depth.decrementAndGet();
+                return hook;
+            }
+        }
+        return null;
+    }
+
+    private void dispatch(Hook hook) {
+        dispatched.incrementAndGet();
+        try {
+            hook.handler.handle(hook.event, hook.payload);
+        } catch (Throwable t) {
+            LOGGER.error("Can't dispatch {}", hook, t);
+        }
+    }
+
+    private void keep(Hook hook) {
+        try {
+            hook.handler.keep(hook.event, hook.payload);
+        } catch (Throwable t) {
+            LOGGER.error("Can't keep {}, it is lost", hook, t);
+        }
+    }
+
+    /**
+     * Starts worker when there are waiting hooks and free threads.
+     */
+    private void signal() {
+        while (!closed && (!received.isEmpty() || !buffer.isEmpty())) {
+            int busy = workers.get();
+            if (busy >= executor.getMaximumPoolSize()) {
+                return;
+            }
+            if (workers.compareAndSet(busy, busy + 1)) {
+                try {
+                    executor.execute(worker);
+                } catch (RejectedExecutionException e) {
+                    workers.decrementAndGet(); // closed meanwhile, hooks are kept by close()
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops dispatch and keeps hooks that wait in buffer in caller thread.
+     * Hooks being dispatched finish in workers, later hooks are kept at once.
+     *
+     * @return number of kept hooks
+     */
+    public int close() {
+        closed = true;
+        executor.shutdown();
+
+        int kept = drain();
+        LOGGER.info("Hook intake closed, {} not dispatched hooks kept", kept);
+        return kept;
+    }
+
+    private int drain() {
+        int kept = 0;
+        Hook hook;
+        while ((hook = next()) != null) {
+            keep(hook);
+            kept++;
+        }
+        return kept;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setPolicy(@Nonnull GitHubPRHookOverflowPolicy policy) {
+        this.policy = policy;
+    }
+
+    public void setThreads(int threads) {
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public GitHubPRHookOverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Hooks waiting for dispatch
+     */
+    public int getDepth() {
+        return Math.max(0, depth.get());
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getReceived() {
+        return receivedCount.get();
+    }
+
+    public long getDispatched() {
+        return dispatched.get();
+    }
+
+    /**
+     * Hooks lost because buffer was full
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Hooks that replaced waiting hook of the same PR
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * Processes hook out of request thread.
+     */
+    public interface Handler {
+        /**
+         * PR of hook (i.e. "owner/repo#1"), hooks with the same key replace each other while they wait.
+         *
+         * @return null when hook must not be replaced by later one
+         */
+        @CheckForNull
+        String getKey(GHEvent event, String payload) throws IOException;
+
+        void handle(GHEvent event, String payload);
+
+        /**
+         * Records hook that will not be dispatched before shutdown, so it can be checked after restart.
+         */
+        void keep(GHEvent event, String payload) throws IOException;
+    }
+
+    private static class Hook {
+        private final GHEvent event;
+        private final String payload;
+        private final Handler handler;
+
+        private Hook(GHEvent event, String payload, Handler handler) {
+            this.event = event;
+            this.payload = payload;
+            this.handler = handler;
+        }
+
+        @Override
+        public String toString() {
+            return event + " hook";
+        }
+    }
+
+    private static class Item {
+        @CheckForNull
+        private final String key;
+        /**
+         * null when taken from buffer, so late hook can't replace it
+         */
+        private final AtomicReference<Hook> hook;
+
+        private Item(@CheckForNull String key, Hook hook) {
+            this.key = key;
+            this.hook = new AtomicReference<>(hook);
+        }
+
+        private boolean replace(Hook newHook) {
+            Hook current = hook.get();
+            return current != null && hook.compareAndSet(current, newHook);
+        }
+    }
+}
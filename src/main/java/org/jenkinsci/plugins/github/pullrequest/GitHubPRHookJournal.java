@@ -0,0 +1,496 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.Extension;
+import hudson.model.AbstractProject;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.model.Jenkins;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRTriggerMode.HEAVY_HOOKS;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRTriggerMode.HEAVY_HOOKS_CRON;
+
+/**
+ * Append-only journal of accepted hook checks, so checks queued in memory survive Jenkins restart.
+ * Intake only puts record to memory buffer, writer thread appends buffered records in batches
+ * and syncs file once per batch. Not finished checks are replayed when jobs are loaded.
+ * File is truncated when all checks are finished and rewritten with not finished ones when it grows.
+ * After {@link #close()} records are written in caller thread, so checks finishing during shutdown are kept.
+ * <p>
+ * Records are lines: "A seq receivedAt event number job" for accepted check,
+ * "D seq number job" for finished check that covers all records of job and PR up to seq.
+ */
+public class GitHubPRHookJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRHookJournal.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static final String FILE_NAME = "github-pullrequest-hooks.journal";
+    /**
+     * How long records wait in memory for batch, ms
+     */
+    private static final long BATCH_DELAY = 20;
+    /**
+     * File size when it is rewritten with only not finished checks
+     */
+    private static final long COMPACT_SIZE = 1024 * 1024;
+
+    private static final String ACCEPTED = "A";
+    private static final String DONE = "D";
+    private static final String SEPARATOR = "\t";
+
+    private final File file;
+    private final ScheduledThreadPoolExecutor writer;
+    private final Queue<String> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong seq = new AtomicLong();
+    private volatile boolean closed;
+    /**
+     * Not finished checks by job and PR
+     */
+    // guarded by itself
+    private final Map<String, Entry> open = new HashMap<>();
+
+    // guarded by this
+    @CheckForNull
+    private FileChannel channel;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private volatile long lastSyncNanos;
+
+    public GitHubPRHookJournal(@Nonnull File file) {
+        this.file = file;
+        writer = new ScheduledThreadPoolExecutor(1,
+                new NamingThreadFactory(new DaemonThreadFactory(), "GitHubPRTrigger.journal"));
+        // close() flushes everything, delayed flush would only find empty buffer
+        writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        try {
+            load();
+            compact();
+        } catch (IOException e) {
+            LOGGER.error("Can't read hook journal {}, not finished hook checks are lost", file, e);
+        }
+    }
+
+    /**
+     * Records accepted hook check. Doesn't wait for disk.
+     *
+     * @return sequence number of record
+     */
+    public long accept(@Nonnull String jobName, int number, @Nonnull String event) {
+        long s = seq.incrementAndGet();
+        long receivedAt = System.currentTimeMillis();
+
+        String key = key(jobName, number);
+        synchronized (open) {
+            Entry entry = open.get(key);
+            if (entry == null) {
+                open.put(key, new Entry(jobName, number, event, receivedAt, s));
+            } else {
+                entry.seq = s;
+            }
+        }
+
+        append(ACCEPTED + SEPARATOR + s + SEPARATOR + receivedAt + SEPARATOR + event
+                + SEPARATOR + number + SEPARATOR + jobName);
+        return s;
+    }
+
+    /**
+     * Records finished check that covers all accepted records of job and PR up to given sequence number.
+     */
+    public void done(@Nonnull String jobName, int number, long upTo) {
+        String key = key(jobName, number);
+        synchronized (open) {
+            Entry entry = open.get(key);
+            if (entry == null || entry.seq > upTo) {
+                return; // nothing to finish or newer hook waits for own check
+            }
+            open.remove(key);
+        }
+
+        append(DONE + SEPARATOR + upTo + SEPARATOR + number + SEPARATOR + jobName);
+    }
+
+    /**
+     * Sequence number of last accepted record
+     */
+    public long getLastSeq() {
+        return seq.get();
+    }
+
+    /**
+     * Queues checks that were not finished before restart.
+     * Checks of jobs that don't exist or don't use persisted hooks anymore are dropped.
+     */
+    public void replay() {
+        Jenkins jenkins = Jenkins.getInstance();
+        if (jenkins == null) {
+            return;
+        }
+
+        int replayed = 0;
+        for (Entry entry : getOpenEntries()) {
+            AbstractProject<?, ?> job = jenkins.getItemByFullName(entry.getJobName(), AbstractProject.class);
+            GitHubPRTrigger trigger = job == null ? null : job.getTrigger(GitHubPRTrigger.class);
+            if (trigger == null || !(trigger.getTriggerMode() == HEAVY_HOOKS
+                    || trigger.getTriggerMode() == HEAVY_HOOKS_CRON)) {
+                LOGGER.debug("Dropping journaled hook check of {}, job has no hook trigger", entry);
+                done(entry.getJobName(), entry.getNumber(), entry.getSeq());
+                continue;
+            }
+
+            LOGGER.debug("Replaying hook check {}", entry);
+            trigger.replayRun(job, entry.getNumber());
+            replayed++;
+        }
+        LOGGER.info("Replayed {} hook checks not finished before restart", replayed);
+    }
+
+    @Nonnull
+    public List<Entry> getOpenEntries() {
+        synchronized (open) {
+            List<Entry> entries = new ArrayList<>(open.size());
+            for (Entry entry : open.values()) {
+                entries.add(entry.copy());
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Writes buffered records and stops writer. Records appended later are written at once in caller thread.
+     */
+    public void close() {
+        closed = true;
+        writer.shutdown();
+        synchronized (this) {
+            flush();
+            closeChannel();
+        }
+    }
+
+    private void append(String line) {
+        buffer.add(line);
+        if (closed) {
+            writeNow();
+            return;
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                writer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, BATCH_DELAY, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // closed after check above
+                writeNow();
+            }
+        }
+    }
+
+    /**
+     * Writes buffered records in caller thread, when writer is stopped.
+     */
+    private synchronized void writeNow() {
+        flush();
+        closeChannel();
+    }
+
+    /**
+     * Writes all buffered records with one sync.
+     */
+    private synchronized void flush() {
+        flushScheduled.set(false);
+
+        StringBuilder batch = new StringBuilder();
+        int count = 0;
+        String line;
+        while ((line = buffer.poll()) != null) {
+            batch.append(line).append('\n');
+            count++;
+        }
+
+        try {
+            if (count > 0) {
+                long start = System.nanoTime();
+                ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(UTF_8));
+                FileChannel fileChannel = getChannel();
+                while (bytes.hasRemaining()) {
+                    fileChannel.write(bytes);
+                }
+                fileChannel.force(false);
+                lastSyncNanos = System.nanoTime() - start;
+                batches.incrementAndGet();
+                records.addAndGet(count);
+            }
+
+            if (channel != null && channel.size() > 0) {
+                boolean finished;
+                synchronized (open) {
+                    finished = open.isEmpty();
+                }
+                if (finished) {
+                    // records in buffer are written after truncate, so nothing is lost
+                    channel.truncate(0);
+                    channel.force(false);
+                } else if (channel.size() > COMPACT_SIZE) {
+                    compact();
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Can't write hook journal {}", file, e);
+            closeChannel();
+        }
+    }
+
+    private FileChannel getChannel() throws FileNotFoundException {
+        if (channel == null) {
+            channel = new FileOutputStream(file, true).getChannel();
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.debug("Can't close hook journal {}", file, e);
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Reads not finished checks and sequence number from file.
+     */
+    private void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+
+        long maxSeq = 0;
+        int corrupted = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    maxSeq = Math.max(maxSeq, loadRecord(line));
+                } catch (RuntimeException e) {
+                    corrupted++; // i.e. last line torn by crash
+                }
+            }
+        }
+
+        seq.set(maxSeq);
+        synchronized (open) {
+            LOGGER.info("Loaded hook journal {}, {} not finished checks, {} corrupted records",
+                    file, open.size(), corrupted);
+        }
+    }
+
+    private long loadRecord(String line) {
+        String[] parts = line.split(SEPARATOR);
+        long s = Long.parseLong(parts[1]);
+        if (ACCEPTED.equals(parts[0]) && parts.length == 6) {
+            String jobName = parts[5];
+            int number = Integer.parseInt(parts[4]);
+            synchronized (open) {
+                Entry entry = open.get(key(jobName, number));
+                if (entry == null) {
+                    open.put(key(jobName, number), new Entry(jobName, number, parts[3], Long.parseLong(parts[2]), s));
+                } else {
+                    entry.seq = Math.max(entry.seq, s);
+                }
+            }
+        } else if (DONE.equals(parts[0]) && parts.length == 4) {
+            String key = key(parts[3], Integer.parseInt(parts[2]));
+            synchronized (open) {
+                Entry entry = open.get(key);
+                if (entry != null && entry.seq <= s) {
+                    open.remove(key);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown record " + line);
+        }
+        return s;
+    }
+
+    /**
+     * Replaces file with records of not finished checks.
+     */
+    private synchronized void compact() throws IOException {
+        List<Entry> entries = getOpenEntries();
+
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            StringBuilder content = new StringBuilder();
+            for (Entry entry : entries) {
+                content.append(ACCEPTED).append(SEPARATOR).append(entry.getSeq())
+                        .append(SEPARATOR).append(entry.getReceivedAt())
+                        .append(SEPARATOR).append(entry.getEvent())
+                        .append(SEPARATOR).append(entry.getNumber())
+                        .append(SEPARATOR).append(entry.getJobName()).append('\n');
+            }
+            out.write(content.toString().getBytes(UTF_8));
+            out.getChannel().force(false);
+        }
+
+        closeChannel();
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        compactions.incrementAndGet();
+        LOGGER.debug("Compacted hook journal {} to {} records", file, entries.size());
+    }
+
+    private static String key(String jobName, int number) {
+        return jobName + "#" + number;
+    }
+
+    /**
+     * Not finished checks
+     */
+    public int getOpen() {
+        synchronized (open) {
+            return open.size();
+        }
+    }
+
+    /**
+     * Records waiting for write
+     */
+    public int getBuffered() {
+        return buffer.size();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getRecords() {
+        return records.get();
+    }
+
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    /**
+     * Duration of last batch write with sync, microseconds
+     */
+    public long getLastSyncMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(lastSyncNanos);
+    }
+
+    /**
+     * Accepted hook check of one job and PR. Later hooks of the same job and PR only move sequence number.
+     */
+    public static class Entry {
+        private final String jobName;
+        private final int number;
+        private final String event;
+        private final long receivedAt;
+        // guarded by journal
+        private long seq;
+
+        private Entry(String jobName, int number, String event, long receivedAt, long seq) {
+            this.jobName = jobName;
+            this.number = number;
+            this.event = event;
+            this.receivedAt = receivedAt;
+            this.seq = seq;
+        }
+
+        private Entry copy() {
+            return new Entry(jobName, number, event, receivedAt, seq);
+        }
+
+        public String getJobName() {
+            return jobName;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public String getEvent() {
+            return event;
+        }
+
+        /**
+         * Receipt time of first not finished hook, ms
+         */
+        public long getReceivedAt() {
+            return receivedAt;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "jobName='" + jobName + '\'' +
+                    ", number=" + number +
+                    ", event='" + event + '\'' +
+                    ", receivedAt=" + receivedAt +
+                    ", seq=" + seq +
+                    '}';
+        }
+    }
+
+    /**
+     * Replays journal when jobs are loaded. It is closed on shutdown by {@link GitHubPRTrigger.Lifecycle}.
+     */
+    @Extension
+    public static class Lifecycle extends ItemListener {
+        @Override
+        public void onLoaded() {
+            final GitHubPRTrigger.DescriptorImpl descriptor = GitHubPRTrigger.DescriptorImpl.get();
+            if (descriptor == null) {
+                return;
+            }
+            ACL.impersonate(ACL.SYSTEM, new Runnable() {
+                @Override
+                public void run() {
+                    descriptor.getHookJournal().replay();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+/**
+ * What {@link GitHubPRHookIntake} does with hooks when dispatch doesn't keep up
+ */
+public enum GitHubPRHookOverflowPolicy {
+    DROP_OLDEST("Drop the oldest waiting hook when buffer is full"),
+    COALESCE("Keep only the latest waiting hook of every PR, drop the oldest when buffer is still full");
+
+    private final String description;
+
+    GitHubPRHookOverflowPolicy(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
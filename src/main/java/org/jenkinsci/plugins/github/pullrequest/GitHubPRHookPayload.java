@@ -0,0 +1,387 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jenkinsci.plugins.github.pullrequest.webhook.PullRequestInfoExtractor;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHUser;
+import org.kohsuke.github.GitHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Hook payload for {@link GitHubPRTriggerMode#LIGHT_HOOKS} mode.
+ * Events are decided from payload data, PR is fetched from GitHub only when payload lacks data
+ * that event needs (i.e. labels of pull_request hook, head of issue_comment hook).
+ * Fetched PR is shared by all events and jobs that process the same hook.
+ * Payload is streamed like in {@link PullRequestInfoExtractor}, only fields that events need are kept.
+ */
+public class GitHubPRHookPayload {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRHookPayload.class);
+
+    /**
+     * Objects that are read, other objects are skipped
+     */
+    private static final Set<String> OBJECTS = new HashSet<>(asList(
+            "repository", "sender", "label", "comment", "comment.user",
+            "pull_request", "pull_request.user", "pull_request.base", "pull_request.head",
+            "pull_request.head.user", "pull_request.head.repo", "pull_request.head.repo.owner",
+            "issue", "issue.user", "issue.pull_request"
+    ));
+    /**
+     * Values that are kept, by path in payload
+     */
+    private static final Set<String> VALUES = new HashSet<>(asList(
+            "action", "number", "repository.full_name", "sender.login", "label.name", "comment.body", "comment.user.login",
+            "pull_request.state", "pull_request.body", "pull_request.title", "pull_request.html_url",
+            "pull_request.mergeable", "pull_request.user.login", "pull_request.base.ref",
+            "pull_request.head.sha", "pull_request.head.ref", "pull_request.head.user.login",
+            "pull_request.head.repo.owner.login",
+            "issue.number", "issue.state", "issue.body", "issue.user.login"
+    ));
+    /**
+     * Label lists, names of labels are kept
+     */
+    private static final Set<String> LABELS = new HashSet<>(asList("pull_request.labels", "issue.labels"));
+
+    private final GHEvent event;
+    private final String action;
+    private final String repoFullName;
+    private final int number;
+    /**
+     * Path of "pull_request" object of pull_request hook, null for issue_comment hook
+     */
+    @CheckForNull
+    private final String pullRequest;
+    /**
+     * Path of "issue" object of issue_comment hook, null for pull_request hook
+     */
+    @CheckForNull
+    private final String issue;
+    /**
+     * Kept values by path, null values are not kept
+     */
+    private final Map<String, String> values = new HashMap<>();
+    /**
+     * Paths of read not null objects
+     */
+    private final Set<String> objects = new HashSet<>();
+    private final Map<String, Set<String>> labels = new HashMap<>();
+
+    // guarded by this
+    private GitHubPRSnapshot snapshot;
+    private final Map<String, GHUser> users = new HashMap<>();
+
+    public GitHubPRHookPayload(@Nonnull GHEvent event, @Nonnull String payload) throws IOException {
+        this.event = event;
+
+        try (JsonParser parser = PullRequestInfoExtractor.getJsonFactory().createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Payload of " + event + " is not JSON object");
+            }
+            readObject(parser, "");
+        }
+
+        action = values.get("action");
+        repoFullName = values.get("repository.full_name");
+        pullRequest = objects.contains("pull_request") ? "pull_request." : null;
+        issue = event == GHEvent.ISSUE_COMMENT && objects.contains("issue") ? "issue." : null;
+
+        String numberValue = issue != null ? values.get("issue.number") : values.get("number");
+        if (repoFullName == null || numberValue == null) {
+            throw new IOException("Payload of " + event + " has no repository name or number");
+        }
+        try {
+            number = Integer.parseInt(numberValue);
+        } catch (NumberFormatException e) {
+            throw new IOException("Payload of " + event + " has bad number " + numberValue, e);
+        }
+    }
+
+    /**
+     * Reads kept fields of current object and moves parser to the end of object.
+     */
+    private void readObject(JsonParser parser, String prefix) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = prefix + parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT && OBJECTS.contains(path)) {
+                objects.add(path);
+                readObject(parser, path + ".");
+            } else if (value == JsonToken.START_ARRAY && LABELS.contains(path)) {
+                labels.put(path, readLabels(parser));
+            } else if (value.isScalarValue() && value != JsonToken.VALUE_NULL && VALUES.contains(path)) {
+                values.put(path, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Reads names of labels array and moves parser to the end of array.
+     */
+    private static Set<String> readLabels(JsonParser parser) throws IOException {
+        Set<String> names = new HashSet<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("name".equals(field) && value == JsonToken.VALUE_STRING) {
+                    names.add(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    public GHEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Hook action, i.e. "opened", "synchronize", "labeled", "created"
+     */
+    public String getAction() {
+        return action;
+    }
+
+    public boolean isPullRequestAction(String... actions) {
+        if (event != GHEvent.PULL_REQUEST) {
+            return false;
+        }
+        for (String a : actions) {
+            if (a.equals(action)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getRepoFullName() {
+        return repoFullName;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * issue_comment hooks are sent for plain issues too
+     */
+    public boolean isAboutPullRequest() {
+        return issue == null ? pullRequest != null : objects.contains(issue + "pull_request");
+    }
+
+    public boolean isClosed() {
+        return "closed".equals(get(pullRequest != null ? pullRequest : issue, "state"));
+    }
+
+    /**
+     * PR description
+     */
+    @CheckForNull
+    public String getBody() {
+        return get(pullRequest != null ? pullRequest : issue, "body");
+    }
+
+    /**
+     * Label that was added or removed by "labeled"/"unlabeled" action
+     */
+    @CheckForNull
+    public String getLabel() {
+        return values.get("label.name");
+    }
+
+    /**
+     * Labels set on PR, null when payload doesn't contain them.
+     */
+    @CheckForNull
+    public Set<String> getPayloadLabels() {
+        String object = issue != null ? issue : pullRequest;
+        return object == null ? null : labels.get(object + "labels");
+    }
+
+    /**
+     * Labels from payload or fetched from GitHub when payload doesn't contain them.
+     */
+    @Nonnull
+    public Set<String> getLabels(@Nonnull GitHub gitHub) throws IOException {
+        Set<String> labels = getPayloadLabels();
+        return labels != null ? labels : getSnapshot(gitHub).getLabels();
+    }
+
+    /**
+     * Mergeable from payload or fetched from GitHub when GitHub didn't calculate it for payload.
+     */
+    @CheckForNull
+    public Boolean getMergeable(@Nonnull GitHub gitHub) throws IOException {
+        Boolean mergeable = getPayloadMergeable();
+        return mergeable != null ? mergeable : getSnapshot(gitHub).getMergeable();
+    }
+
+    /**
+     * @return null when payload has no mergeable or GitHub didn't calculate it yet
+     */
+    @CheckForNull
+    private Boolean getPayloadMergeable() {
+        String mergeable = get(pullRequest, "mergeable");
+        return "true".equals(mergeable) || "false".equals(mergeable) ? Boolean.valueOf(mergeable) : null;
+    }
+
+    @CheckForNull
+    public String getBaseRef() {
+        return get(pullRequest, "base.ref");
+    }
+
+    @CheckForNull
+    public String getCommentBody() {
+        return values.get("comment.body");
+    }
+
+    @CheckForNull
+    public String getCommentAuthor() {
+        return values.get("comment.user.login");
+    }
+
+    @CheckForNull
+    public String getAuthor() {
+        return get(pullRequest != null ? pullRequest : issue, "user.login");
+    }
+
+    /**
+     * User that sent hook, i.e. who pushed or labeled PR
+     */
+    @CheckForNull
+    public String getSender() {
+        return values.get("sender.login");
+    }
+
+    /**
+     * User fetched from GitHub, every login is fetched at most once per hook.
+     *
+     * @return null when login is unknown or user can't be fetched
+     */
+    @CheckForNull
+    private synchronized GHUser getUser(@Nonnull GitHub gitHub, @CheckForNull String login) {
+        if (login == null) {
+            return null;
+        }
+        if (!users.containsKey(login)) {
+            GHUser user = null;
+            try {
+                user = gitHub.getUser(login);
+            } catch (IOException e) {
+                LOGGER.warn("Can't get GitHub user {}: {}", login, e.getMessage());
+            }
+            users.put(login, user);
+        }
+        return users.get(login);
+    }
+
+    /**
+     * PR fetched from GitHub, done at most once per hook.
+     */
+    @Nonnull
+    public synchronized GitHubPRSnapshot getSnapshot(@Nonnull GitHub gitHub) throws IOException {
+        if (snapshot == null) {
+            LOGGER.debug("Fetching PR #{} of {}, hook payload is not enough", number, repoFullName);
+            GHPullRequest remotePR = gitHub.getRepository(repoFullName).getPullRequest(number);
+            snapshot = new GitHubPRSnapshot(remotePR);
+        }
+        return snapshot;
+    }
+
+    public synchronized boolean isFetched() {
+        return snapshot != null;
+    }
+
+    /**
+     * Cause from payload data when hook contains PR, otherwise from fetched PR.
+     * pull_request hook doesn't contain labels, they are fetched. Mergeable that GitHub didn't calculate
+     * for payload is fetched too, so build checks out merge ref like in other modes.
+     * Sender and PR author are fetched only for causes that are built, skip causes don't need them.
+     */
+    @Nonnull
+    public GitHubPRCause createCause(@Nonnull GitHub gitHub, String reason, boolean skip) throws IOException {
+        if (pullRequest == null) {
+            return new GitHubPRCause(getSnapshot(gitHub), reason, skip);
+        }
+
+        String sourceRepoOwner = objects.contains(pullRequest + "head.repo")
+                ? get(pullRequest, "head.repo.owner.login")
+                : get(pullRequest, "head.user.login");
+        String htmlUrl = get(pullRequest, "html_url");
+        if (htmlUrl == null) {
+            throw new IOException("Payload of PR #" + number + " has no html_url");
+        }
+        Set<String> labels = getLabels(gitHub);
+
+        Boolean mergeable = getPayloadMergeable();
+        if (mergeable == null && !skip) {
+            try {
+                mergeable = getSnapshot(gitHub).getMergeable();
+            } catch (IOException e) {
+                LOGGER.warn("Can't get mergeable status of PR #{}: {}", number, e.getMessage());
+            }
+        }
+        GHUser sender = skip ? null : getUser(gitHub, getSender());
+        String authorEmail = skip ? "" : getEmail(getUser(gitHub, getAuthor()));
+
+        return new GitHubPRCause(get(pullRequest, "head.sha"), number, mergeable != null && mergeable,
+                getBaseRef(), get(pullRequest, "head.ref"), authorEmail, get(pullRequest, "title"),
+                new URL(htmlUrl), sourceRepoOwner, labels,
+                sender, skip, reason, "", "");
+    }
+
+    private static String getEmail(@CheckForNull GHUser user) {
+        if (user == null) {
+            return "";
+        }
+        try {
+            String email = user.getEmail();
+            return email == null ? "" : email;
+        } catch (IOException e) {
+            LOGGER.warn("Can't get GitHub user email: {}", e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * @param object path of object with trailing dot, null when payload has no such object
+     */
+    @CheckForNull
+    private String get(@CheckForNull String object, String field) {
+        return object == null ? null : values.get(object + field);
+    }
+
+    @Override
+    public String toString() {
+        return "GitHubPRHookPayload{" +
+                "event=" + event +
+                ", action='" + action + '\'' +
+                ", repoFullName='" + repoFullName + '\'' +
+                ", number=" + number +
+                '}';
+    }
+}
@@ -0,0 +1,223 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.AbstractProject;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import jenkins.model.Jenkins;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of jobs with {@link GitHubPRTrigger} by repository name (case insensitive),
+ * so hook dispatch doesn't iterate all Jenkins items.
+ * Kept current by item events, job config saves and trigger start/stop.
+ */
+@Extension
+public class GitHubPRJobIndex extends ItemListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRJobIndex.class);
+
+    // guarded by this
+    private final Map<String, Set<AbstractProject<?, ?>>> jobsByRepo = new HashMap<>();
+    private final Map<AbstractProject<?, ?>, String> repoByJob = new HashMap<>();
+    private boolean built = false;
+    /**
+     * Serializes rebuilds, so callers wait for complete index instead of seeing a partial one
+     */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * @return index or null when Jenkins is not running
+     */
+    @CheckForNull
+    public static GitHubPRJobIndex get() {
+        Jenkins jenkins = Jenkins.getInstance();
+        return jenkins == null ? null : ItemListener.all().get(GitHubPRJobIndex.class);
+    }
+
+    /**
+     * Jobs that have trigger for repository.
+     */
+    @Nonnull
+    public Set<AbstractProject<?, ?>> getJobs(@Nonnull String repoFullName) {
+        ensureBuilt();
+        synchronized (this) {
+            Set<AbstractProject<?, ?>> jobs = jobsByRepo.get(key(repoFullName));
+            return jobs == null
+                    ? Collections.<AbstractProject<?, ?>>emptySet()
+                    : new HashSet<>(jobs);
+        }
+    }
+
+    /**
+     * Puts job under repository of its trigger or removes job when it has no trigger.
+     */
+    public void update(@Nonnull AbstractProject<?, ?> job) {
+        String repo = null;
+        GitHubPRTrigger trigger = job.getTrigger(GitHubPRTrigger.class);
+        if (trigger != null && trigger.getTriggerMode() != null) {
+            try {
+                repo = trigger.getRepoFullName(job);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Can't get repository of {}: {}", job.getFullName(), e.getMessage());
+            }
+        }
+
+        synchronized (this) {
+            removeJob(job);
+            if (repo != null) {
+                String key = key(repo);
+                Set<AbstractProject<?, ?>> jobs = jobsByRepo.get(key);
+                if (jobs == null) {
+                    jobs = new HashSet<>();
+                    jobsByRepo.put(key, jobs);
+                }
+                jobs.add(job);
+                repoByJob.put(job, key);
+            }
+        }
+    }
+
+    public synchronized void remove(@Nonnull AbstractProject<?, ?> job) {
+        removeJob(job);
+    }
+
+    @Override
+    public void onLoaded() {
+        rebuild(true);
+    }
+
+    @Override
+    public void onCreated(Item item) {
+        if (item instanceof AbstractProject) {
+            update((AbstractProject<?, ?>) item);
+        }
+    }
+
+    @Override
+    public void onCopied(Item src, Item item) {
+        onCreated(item);
+    }
+
+    @Override
+    public void onUpdated(Item item) {
+        onCreated(item);
+    }
+
+    /**
+     * Deleted folder gets event only for itself, so its jobs are found by name.
+     */
+    @Override
+    public void onDeleted(Item item) {
+        if (item instanceof AbstractProject) {
+            remove((AbstractProject<?, ?>) item);
+        } else if (item instanceof ItemGroup) {
+            removeUnder(item.getFullName() + "/");
+        }
+    }
+
+    private void ensureBuilt() {
+        synchronized (this) {
+            if (built) {
+                return;
+            }
+        }
+        rebuild(false);
+    }
+
+    /**
+     * Index is marked built only after all jobs are indexed, failed rebuild is repeated by next lookup.
+     *
+     * @param force rebuild even when index was built by other thread in between
+     */
+    private void rebuild(boolean force) {
+        final Jenkins jenkins = Jenkins.getInstance();
+        if (jenkins == null) {
+            return;
+        }
+
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                if (built && !force) {
+                    return;
+                }
+                jobsByRepo.clear();
+                repoByJob.clear();
+                built = false;
+            }
+
+            ACL.impersonate(ACL.SYSTEM, new Runnable() {
+                @Override
+                public void run() {
+                    List<AbstractProject> jobs = jenkins.getAllItems(AbstractProject.class);
+                    for (AbstractProject<?, ?> job : jobs) {
+                        update(job);
+                    }
+                }
+            });
+            synchronized (this) {
+                built = true;
+                LOGGER.debug("Indexed {} jobs with GitHub PR trigger", repoByJob.size());
+            }
+        }
+    }
+
+    private synchronized void removeUnder(String prefix) {
+        for (AbstractProject<?, ?> job : new ArrayList<>(repoByJob.keySet())) {
+            if (job.getFullName().startsWith(prefix)) {
+                removeJob(job);
+            }
+        }
+    }
+
+    // guarded by this
+    private void removeJob(AbstractProject<?, ?> job) {
+        String key = repoByJob.remove(job);
+        if (key == null) {
+            return;
+        }
+        Set<AbstractProject<?, ?>> jobs = jobsByRepo.get(key);
+        if (jobs != null) {
+            jobs.remove(job);
+            if (jobs.isEmpty()) {
+                jobsByRepo.remove(key);
+            }
+        }
+    }
+
+    private static String key(String repoFullName) {
+        return repoFullName.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Job configuration may be changed without item events, i.e. trigger added with API.
+     */
+    @Extension
+    public static class JobSaveListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof AbstractProject) {
+                GitHubPRJobIndex index = get();
+                if (index != null) {
+                    index.update((AbstractProject<?, ?>) o);
+                }
+            }
+        }
+    }
+}
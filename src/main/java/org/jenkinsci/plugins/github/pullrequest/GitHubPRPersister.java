@@ -0,0 +1,277 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind saves of repository state and jobs, so checks don't wait for disk.
+ * Repeated saves of the same object are coalesced into one write, that happens not later than
+ * delay after the first not written save. Everything pending is written on Jenkins shutdown.
+ * <p>
+ * Objects must tolerate being saved from other thread, i.e. have synchronized save().
+ */
+public class GitHubPRPersister {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRPersister.class);
+
+    /**
+     * Not written saves by object, saveables here don't override equals
+     */
+    private final ConcurrentMap<Saveable, Long> pending = new ConcurrentHashMap<>();
+    /**
+     * Reasons of failed writes not reported to caller yet
+     */
+    private final ConcurrentMap<Saveable, String> failures = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor writer;
+
+    private volatile long delay;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastWriteNanos;
+    private volatile long maxWaitMillis;
+
+    /**
+     * @param delay max time between save request and write, ms. 0 writes in caller thread
+     */
+    public GitHubPRPersister(long delay) {
+        this.delay = delay;
+        writer = new ScheduledThreadPoolExecutor(1,
+                new NamingThreadFactory(new DaemonThreadFactory(), "GitHubPRTrigger.persister"));
+        // close() writes everything, delayed writes would be duplicates
+        writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Requests save of object. Returns immediately unless delay is 0.
+     */
+    public void save(@Nonnull final Saveable saveable) {
+        requested.incrementAndGet();
+        if (delay <= 0 || writer.isShutdown()) {
+            pending.remove(saveable);
+            write(saveable, System.currentTimeMillis());
+            return;
+        }
+
+        if (pending.putIfAbsent(saveable, System.currentTimeMillis()) != null) {
+            coalesced.incrementAndGet();
+            return;
+        }
+        writer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                flush(saveable);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes object now in caller thread, its pending save is written by this call too.
+     * For callers that must know that state reached disk.
+     *
+     * @throws IOException when save failed
+     */
+    public void saveNow(@Nonnull Saveable saveable) throws IOException {
+        requested.incrementAndGet();
+        Long since = pending.remove(saveable);
+        long start = System.nanoTime();
+        try {
+            saveable.save();
+            written.incrementAndGet();
+            failures.remove(saveable);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            throw e;
+        } finally {
+            recordWrite(start, since == null ? System.currentTimeMillis() : since);
+        }
+    }
+
+    /**
+     * Reason of the last failed background write of object, cleared by this call.
+     *
+     * @return null when writes didn't fail since last call
+     */
+    @CheckForNull
+    public String takeFailure(@Nonnull Saveable saveable) {
+        return failures.remove(saveable);
+    }
+
+    /**
+     * Writes pending save of object now, if any.
+     */
+    public void flush(@Nonnull Saveable saveable) {
+        // removed before write, so save requested during write schedules new one
+        Long since = pending.remove(saveable);
+        if (since != null) {
+            write(saveable, since);
+        }
+    }
+
+    /**
+     * Writes all pending saves in caller thread.
+     */
+    public void flush() {
+        for (Saveable saveable : new ArrayList<>(pending.keySet())) {
+            flush(saveable);
+        }
+    }
+
+    /**
+     * Drops pending saves of job and its repository state, i.e. when job was deleted.
+     */
+    public void cancel(@Nonnull Item item) {
+        for (Iterator<Saveable> iterator = pending.keySet().iterator(); iterator.hasNext(); ) {
+            Saveable saveable = iterator.next();
+            if (isOf(saveable, item)) {
+                iterator.remove();
+            }
+        }
+        for (Iterator<Saveable> iterator = failures.keySet().iterator(); iterator.hasNext(); ) {
+            if (isOf(iterator.next(), item)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean isOf(Saveable saveable, Item item) {
+        return saveable == item
+                || saveable instanceof GitHubPRRepository && ((GitHubPRRepository) saveable).getProject() == item;
+    }
+
+    /**
+     * Writes all pending saves and stops writer, later saves are written in caller thread.
+     */
+    public void close() {
+        try {
+            writer.submit(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.error("Can't write pending saves", e);
+        }
+        writer.shutdown();
+        flush(); // saved during shutdown
+    }
+
+    private void write(Saveable saveable, long since) {
+        long start = System.nanoTime();
+        try {
+            saveable.save();
+            written.incrementAndGet();
+            failures.remove(saveable);
+        } catch (Throwable t) {
+            failed.incrementAndGet();
+            failures.put(saveable, String.valueOf(t.getMessage()));
+            LOGGER.error("Can't save {}", saveable, t);
+        }
+        recordWrite(start, since);
+    }
+
+    private void recordWrite(long start, long since) {
+        lastWriteNanos = System.nanoTime() - start;
+        long wait = System.currentTimeMillis() - since;
+        if (wait > maxWaitMillis) {
+            maxWaitMillis = wait;
+        }
+    }
+
+    public void setDelay(long delay) {
+        this.delay = delay;
+    }
+
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * Objects waiting for write
+     */
+    public int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Wait of the oldest pending save, ms
+     */
+    public long getOldestPendingAge() {
+        long now = System.currentTimeMillis();
+        long oldest = 0;
+        for (Long since : pending.values()) {
+            oldest = Math.max(oldest, now - since);
+        }
+        return oldest;
+    }
+
+    public long getRequested() {
+        return requested.get();
+    }
+
+    /**
+     * Save requests merged into pending save of the same object
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Duration of last write, microseconds
+     */
+    public long getLastWriteMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(lastWriteNanos);
+    }
+
+    /**
+     * Max time between save request and write, ms
+     */
+    public long getMaxWait() {
+        return maxWaitMillis;
+    }
+
+    /**
+     * Drops saves of deleted jobs. Pending saves are written on shutdown by {@link GitHubPRTrigger.Lifecycle}.
+     */
+    @Extension
+    public static class Lifecycle extends ItemListener {
+        @Override
+        public void onDeleted(Item item) {
+            GitHubPRTrigger.DescriptorImpl descriptor = GitHubPRTrigger.DescriptorImpl.get();
+            if (descriptor != null) {
+                descriptor.getPersister().cancel(item);
+            }
+        }
+    }
+}
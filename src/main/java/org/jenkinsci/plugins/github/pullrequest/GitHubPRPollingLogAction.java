@@ -9,6 +9,7 @@ import org.apache.commons.jelly.XMLOutput;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Date;
 
 /**
  * Link for project page, shows triggered polling log
@@ -54,6 +55,19 @@ public class GitHubPRPollingLogAction implements Action {
                 Charset.defaultCharset(),true,this).writeHtmlTo(0,out.asWriter());
     }
 
+    /**
+     * @return planned time of next check when trigger works in adaptive mode, otherwise null
+     */
+    public Date getNextPoll() {
+        GitHubPRTrigger trigger = project.getTrigger(GitHubPRTrigger.class);
+        if (trigger == null || trigger.getTriggerMode() != GitHubPRTriggerMode.CRON_ADAPTIVE) {
+            return null;
+        }
+
+        GitHubPRRepository localRepository = project.getAction(GitHubPRRepository.class);
+        return localRepository == null ? null : localRepository.getPollingState().getNextPoll();
+    }
+
     public File getLogFile() {
         return new File(project.getRootDir(),"github-pullrequest-polling.log");
     }
@@ -0,0 +1,20 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+/**
+ * How trigger check is treated by {@link GitHubPRRateLimitScheduler} when GitHub rate limit is low
+ */
+public enum GitHubPRPollingPriority {
+    HIGH("High: check while rate limit allows"),
+    NORMAL("Normal: check less often when rate limit is low"),
+    LOW("Low: skip checks when rate limit is low");
+
+    private final String description;
+
+    GitHubPRPollingPriority(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
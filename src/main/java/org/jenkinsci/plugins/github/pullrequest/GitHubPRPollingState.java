@@ -0,0 +1,391 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository level polling information, stored with {@link GitHubPRRepository}.
+ * Lets trigger ask GitHub only for changes since last successful check.
+ */
+public class GitHubPRPollingState {
+    /**
+     * Adaptive polling interval right after change
+     */
+    public static final long MIN_ADAPTIVE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    /**
+     * Adaptive polling interval ceiling for idle repositories
+     */
+    public static final long MAX_ADAPTIVE_INTERVAL = TimeUnit.HOURS.toMillis(2);
+    /**
+     * Idle checks that double {@link #MIN_ADAPTIVE_INTERVAL} up to {@link #MAX_ADAPTIVE_INTERVAL},
+     * more idle checks don't change interval
+     */
+    public static final int MAX_BACKOFF_STEPS =
+            Long.SIZE - Long.numberOfLeadingZeros(MAX_ADAPTIVE_INTERVAL / MIN_ADAPTIVE_INTERVAL);
+
+    /**
+     * Validators of open PRs list response from last successful check
+     */
+    @CheckForNull
+    private String pullsETag;
+    @CheckForNull
+    private String pullsLastModified;
+    /**
+     * Validators of repository issue events response from last successful check
+     */
+    @CheckForNull
+    private String eventsETag;
+    @CheckForNull
+    private String eventsLastModified;
+    /**
+     * Latest PR update time seen on remote, incremental check asks only for newer changes
+     */
+    @CheckForNull
+    private Date updatedCursor;
+    /**
+     * Time of last check that listed all open PRs
+     */
+    @CheckForNull
+    private Date lastFullCheck;
+    /**
+     * Checks in a row that found no changes
+     */
+    private int idleChecks;
+    @CheckForNull
+    private Date lastChange;
+    /**
+     * Seconds from X-Poll-Interval header of last response
+     */
+    private int pollInterval;
+    @CheckForNull
+    private Date nextPoll;
+    /**
+     * Open PRs already checked by hooks, PR number -> what hook saw.
+     * Reconciliation cron skips them until remote has newer changes.
+     */
+    @CheckForNull
+    private Map<Integer, HookMark> hookMarks;
+    /**
+     * Whether state that saves GitHub requests changed since last save.
+     * Adaptive schedule (next poll, idle checks) changes on every check, it doesn't mark state changed:
+     * it is saved with other changes and after restart repository is just checked earlier.
+     */
+    private transient volatile boolean changed;
+
+    @CheckForNull
+    public synchronized String getPullsETag() {
+        return pullsETag;
+    }
+
+    @CheckForNull
+    public synchronized String getPullsLastModified() {
+        return pullsLastModified;
+    }
+
+    public synchronized void setPulls(@CheckForNull String eTag, @CheckForNull String lastModified) {
+        changed |= !equal(pullsETag, eTag) || !equal(pullsLastModified, lastModified);
+        this.pullsETag = eTag;
+        this.pullsLastModified = lastModified;
+    }
+
+    @CheckForNull
+    public synchronized String getEventsETag() {
+        return eventsETag;
+    }
+
+    @CheckForNull
+    public synchronized String getEventsLastModified() {
+        return eventsLastModified;
+    }
+
+    public synchronized void setEvents(@CheckForNull String eTag, @CheckForNull String lastModified) {
+        changed |= !equal(eventsETag, eTag) || !equal(eventsLastModified, lastModified);
+        this.eventsETag = eTag;
+        this.eventsLastModified = lastModified;
+    }
+
+    @CheckForNull
+    public synchronized Date getUpdatedCursor() {
+        return updatedCursor == null ? null : new Date(updatedCursor.getTime());
+    }
+
+    /**
+     * Moves cursor forward, older dates are ignored.
+     */
+    public synchronized void updateCursor(@CheckForNull Date updatedAt) {
+        if (updatedAt != null && (updatedCursor == null || updatedCursor.before(updatedAt))) {
+            updatedCursor = new Date(updatedAt.getTime());
+            changed = true;
+        }
+    }
+
+    @CheckForNull
+    public synchronized Date getLastFullCheck() {
+        return lastFullCheck == null ? null : new Date(lastFullCheck.getTime());
+    }
+
+    public synchronized void setLastFullCheck(@CheckForNull Date lastFullCheck) {
+        changed |= !equal(this.lastFullCheck, lastFullCheck);
+        this.lastFullCheck = lastFullCheck == null ? null : new Date(lastFullCheck.getTime());
+    }
+
+    public synchronized int getIdleChecks() {
+        return idleChecks;
+    }
+
+    @CheckForNull
+    public synchronized Date getLastChange() {
+        return lastChange == null ? null : new Date(lastChange.getTime());
+    }
+
+    public synchronized int getPollInterval() {
+        return pollInterval;
+    }
+
+    public synchronized void setPollInterval(int pollInterval) {
+        int interval = Math.max(0, pollInterval);
+        changed |= this.pollInterval != interval;
+        this.pollInterval = interval;
+    }
+
+    /**
+     * @return time of next check in adaptive mode, null when not scheduled yet
+     */
+    @CheckForNull
+    public synchronized Date getNextPoll() {
+        return nextPoll == null ? null : new Date(nextPoll.getTime());
+    }
+
+    /**
+     * Plans next check in adaptive mode.
+     * Repository with changes is checked again after minimal interval,
+     * every idle check doubles interval up to {@link #MAX_ADAPTIVE_INTERVAL}.
+     * GitHub X-Poll-Interval is never undercut.
+     *
+     * @param changed whether check found any changes
+     * @param now     check time, ms
+     */
+    public synchronized void scheduleNextPoll(boolean changed, long now) {
+        if (changed) {
+            idleChecks = 0;
+            lastChange = new Date(now);
+        } else if (idleChecks < MAX_BACKOFF_STEPS) {
+            idleChecks++;
+        }
+
+        long interval = MIN_ADAPTIVE_INTERVAL;
+        for (int i = 0; i < idleChecks && interval < MAX_ADAPTIVE_INTERVAL; i++) {
+            interval *= 2;
+        }
+        interval = Math.min(interval, MAX_ADAPTIVE_INTERVAL);
+        interval = Math.max(interval, TimeUnit.SECONDS.toMillis(pollInterval));
+
+        nextPoll = new Date(now + interval);
+    }
+
+    public synchronized boolean isPollDue(long now) {
+        return nextPoll == null || nextPoll.getTime() <= now;
+    }
+
+    /**
+     * Remembers that hook checked PR in given state.
+     */
+    public synchronized void markHooked(int number, @Nonnull String headSha, @Nonnull Date updatedAt) {
+        if (hookMarks == null) {
+            hookMarks = new HashMap<>();
+        }
+        HookMark mark = new HookMark(headSha, updatedAt);
+        changed |= !mark.equals(hookMarks.put(number, mark));
+    }
+
+    public synchronized void forgetHooked(int number) {
+        if (hookMarks != null) {
+            changed |= hookMarks.remove(number) != null;
+        }
+    }
+
+    /**
+     * @return true when hook already checked PR with the same head and remote has no newer updates
+     */
+    public synchronized boolean isHooked(int number, String headSha, @CheckForNull Date updatedAt) {
+        HookMark mark = hookMarks == null ? null : hookMarks.get(number);
+        return mark != null && updatedAt != null
+                && mark.getHeadSha().equals(headSha)
+                && !updatedAt.after(mark.getUpdatedAt());
+    }
+
+    public synchronized int getHookedCount() {
+        return hookMarks == null ? 0 : hookMarks.size();
+    }
+
+    /**
+     * Forget validators and cursors, so next check will do full remote state comparison.
+     */
+    public synchronized void reset() {
+        setPulls(null, null);
+        setEvents(null, null);
+        updatedCursor = null;
+        lastFullCheck = null;
+        idleChecks = 0;
+        lastChange = null;
+        pollInterval = 0;
+        nextPoll = null;
+        hookMarks = null;
+        changed = true;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Called when state was saved.
+     */
+    public synchronized void setSaved() {
+        changed = false;
+    }
+
+    /**
+     * Clears changed flag, change made concurrently is either reported here or keeps flag set.
+     *
+     * @return whether state changed since last call
+     */
+    public synchronized boolean takeChanged() {
+        boolean wasChanged = changed;
+        changed = false;
+        return wasChanged;
+    }
+
+    /**
+     * Consistent copy for writing, check may change this state while copy is saved.
+     */
+    @Nonnull
+    public synchronized GitHubPRPollingState copy() {
+        GitHubPRPollingState copy = new GitHubPRPollingState();
+        copy.pullsETag = pullsETag;
+        copy.pullsLastModified = pullsLastModified;
+        copy.eventsETag = eventsETag;
+        copy.eventsLastModified = eventsLastModified;
+        copy.updatedCursor = getUpdatedCursor();
+        copy.lastFullCheck = getLastFullCheck();
+        copy.idleChecks = idleChecks;
+        copy.lastChange = getLastChange();
+        copy.pollInterval = pollInterval;
+        copy.nextPoll = getNextPoll();
+        // marks are immutable
+        copy.hookMarks = hookMarks == null ? null : new HashMap<>(hookMarks);
+        return copy;
+    }
+
+    public synchronized void writeBinary(GitHubPRBinaryFormat.Output out) throws IOException {
+        out.writeString(pullsETag);
+        out.writeString(pullsLastModified);
+        out.writeString(eventsETag);
+        out.writeString(eventsLastModified);
+        out.writeDate(updatedCursor);
+        out.writeDate(lastFullCheck);
+        out.writeVarInt(idleChecks);
+        out.writeDate(lastChange);
+        out.writeVarInt(pollInterval);
+        out.writeDate(nextPoll);
+        if (hookMarks == null) {
+            out.writeVarInt(0);
+        } else {
+            out.writeVarInt(hookMarks.size() + 1);
+            for (Map.Entry<Integer, HookMark> entry : hookMarks.entrySet()) {
+                out.writeVarInt(entry.getKey());
+                out.writeString(entry.getValue().headSha);
+                out.writeDate(entry.getValue().updatedAt);
+            }
+        }
+    }
+
+    public static GitHubPRPollingState readBinary(GitHubPRBinaryFormat.Input in) throws IOException {
+        GitHubPRPollingState state = new GitHubPRPollingState();
+        state.pullsETag = in.readString();
+        state.pullsLastModified = in.readString();
+        state.eventsETag = in.readString();
+        state.eventsLastModified = in.readString();
+        state.updatedCursor = in.readDate();
+        state.lastFullCheck = in.readDate();
+        state.idleChecks = in.readVarInt();
+        state.lastChange = in.readDate();
+        state.pollInterval = in.readVarInt();
+        state.nextPoll = in.readDate();
+        int hooked = in.readVarInt();
+        if (hooked > 0) {
+            state.hookMarks = new HashMap<>();
+            for (int i = 1; i < hooked; i++) {
+                int number = in.readVarInt();
+                String headSha = in.readString();
+                Date updatedAt = in.readDate();
+                if (headSha == null || updatedAt == null) {
+                    throw new IOException("Bad hook mark of PR #" + number);
+                }
+                state.hookMarks.put(number, new HookMark(headSha, updatedAt));
+            }
+        }
+        return state;
+    }
+
+    private static boolean equal(@CheckForNull Object a, @CheckForNull Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    @Override
+    public String toString() {
+        return "GitHubPRPollingState{" +
+                "pullsETag='" + pullsETag + '\'' +
+                ", pullsLastModified='" + pullsLastModified + '\'' +
+                ", eventsETag='" + eventsETag + '\'' +
+                ", eventsLastModified='" + eventsLastModified + '\'' +
+                ", updatedCursor=" + updatedCursor +
+                ", lastFullCheck=" + lastFullCheck +
+                ", idleChecks=" + idleChecks +
+                ", lastChange=" + lastChange +
+                ", pollInterval=" + pollInterval +
+                ", nextPoll=" + nextPoll +
+                ", hooked=" + getHookedCount() +
+                '}';
+    }
+
+    /**
+     * PR state that hook saw.
+     */
+    public static class HookMark {
+        private final String headSha;
+        private final Date updatedAt;
+
+        public HookMark(@Nonnull String headSha, @Nonnull Date updatedAt) {
+            this.headSha = headSha;
+            this.updatedAt = new Date(updatedAt.getTime());
+        }
+
+        public String getHeadSha() {
+            return headSha;
+        }
+
+        public Date getUpdatedAt() {
+            return new Date(updatedAt.getTime());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            HookMark that = (HookMark) o;
+            return headSha.equals(that.headSha) && updatedAt.equals(that.updatedAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * headSha.hashCode() + updatedAt.hashCode();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+/**
+ * How cron check gets remote PRs
+ */
+public enum GitHubPRPollingStrategy {
+    FULL("List all open pull requests on every check"),
+    INCREMENTAL("List only pull requests updated since last check, full list once a day");
+
+    private final String description;
+
+    GitHubPRPollingStrategy(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -1,15 +1,12 @@
 package org.jenkinsci.plugins.github.pullrequest;
 
 import hudson.Functions;
-import org.kohsuke.github.GHIssueComment;
-import org.kohsuke.github.GHLabel;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.github.GHRepository;
 
 import javax.annotation.CheckForNull;
 import java.io.IOException;
 import java.net.URL;
-import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
@@ -38,37 +35,52 @@ public class GitHubPRPullRequest {
     private Set<String> labels;
     @CheckForNull
     private Date lastCommentCreatedAt;
+    /**
+     * Id of last comment, null for state saved by older versions
+     */
+    @CheckForNull
+    private Long lastCommentId;
     private String sourceRepoOwner;
 
     /**
      * Save only what we need for next comparison
      */
     public GitHubPRPullRequest(GHPullRequest pr) throws IOException {
-        userLogin = pr.getUser().getLogin();
-        number = pr.getNumber();
+        this(new GitHubPRSnapshot(pr), null);
+    }
+
+    /**
+     * Save only what we need for next comparison, remote data is taken from check snapshot.
+     *
+     * @param previousCursor comment cursor of previous state, only comments after it are fetched
+     */
+    public GitHubPRPullRequest(GitHubPRSnapshot snapshot, @CheckForNull GitHubPRCommentCursor previousCursor)
+            throws IOException {
+        GHPullRequest pr = snapshot.getRemotePR();
+
+        userLogin = snapshot.getUser().getLogin();
+        number = snapshot.getNumber();
         prUpdatedAt = pr.getUpdatedAt();
         issueUpdatedAt = pr.getIssueUpdatedAt();
-        headSha = pr.getHead().getSha();
-        headRef = pr.getHead().getRef();
+        headSha = snapshot.getHeadSha();
+        headRef = snapshot.getHeadRef();
         title = pr.getTitle();
-        baseRef = pr.getBase().getRef();
+        baseRef = snapshot.getBaseRef();
         htmlUrl = pr.getHtmlUrl();
 
         try {
-            Date maxDate = new Date(0);
-            for (GHIssueComment comment : pr.getComments()) {
-                if (comment.getCreatedAt().compareTo(maxDate) > 0) {
-                    maxDate = comment.getCreatedAt();
-                }
-            }
-            lastCommentCreatedAt = maxDate.getTime() == 0 ? null : new Date(maxDate.getTime());
+            GitHubPRCommentCursor cursor = snapshot.getLastCommentCursor(previousCursor);
+            lastCommentCreatedAt = cursor.getCreatedAt();
+            lastCommentId = cursor.getId();
         } catch (IOException e) {
             LOGGER.warn("Can't get comments for PR: {}", e.getMessage());
-            lastCommentCreatedAt = null;
+            // keep previous cursor, so comments are not lost
+            lastCommentCreatedAt = previousCursor == null ? null : previousCursor.getCreatedAt();
+            lastCommentId = previousCursor == null ? null : previousCursor.getId();
         }
 
         try {
-            userEmail = pr.getUser().getEmail();
+            userEmail = snapshot.getUser().getEmail();
         } catch (Exception e) {
             LOGGER.warn("Can't get GitHub user email: {}", e.getMessage());
             userEmail = "";
@@ -77,21 +89,104 @@ public class GitHubPRPullRequest {
         GHRepository remoteRepo = pr.getRepository();
 
         try {
-            updateLabels(remoteRepo.getIssue(number).getLabels());
+            labels = new HashSet<>(snapshot.getLabels());
         } catch (IOException e) {
             LOGGER.warn("Can't retrieve label list: {}", e.getMessage());
         }
 
-        // see https://github.com/kohsuke/github-api/issues/111
+        mergeable = fetchMergeable(snapshot);
+        sourceRepoOwner = remoteRepo.getOwnerName();
+
+//        LOGGER.log(Level.INFO, "Created {0}", toString());
+    }
+
+    /**
+     * Copy of state built from shared snapshot, so jobs don't share one instance.
+     * Mergeable is read again, it changes with base branch without PR update.
+     */
+    GitHubPRPullRequest(GitHubPRPullRequest other, GitHubPRSnapshot snapshot) {
+        this(other.number, other.issueUpdatedAt);
+        title = other.title;
+        prUpdatedAt = other.prUpdatedAt;
+        headSha = other.headSha;
+        headRef = other.headRef;
+        baseRef = other.baseRef;
+        userEmail = other.userEmail;
+        userLogin = other.userLogin;
+        htmlUrl = other.htmlUrl;
+        labels = other.labels == null ? null : new HashSet<>(other.labels);
+        lastCommentCreatedAt = other.lastCommentCreatedAt;
+        lastCommentId = other.lastCommentId;
+        sourceRepoOwner = other.sourceRepoOwner;
+        mergeable = fetchMergeable(snapshot);
+    }
+
+    private static Boolean fetchMergeable(GitHubPRSnapshot snapshot) {
         try {
-            mergeable = pr.getMergeable();
+            return snapshot.getMergeable();
         } catch (IOException e) {
             LOGGER.warn("Can't get mergeable status: {}", e.getMessage());
-            mergeable = false;
+            return false;
         }
-        sourceRepoOwner = remoteRepo.getOwnerName();
+    }
 
-//        LOGGER.log(Level.INFO, "Created {0}", toString());
+    /**
+     * For {@link #readBinary(GitHubPRBinaryFormat.Input)}
+     */
+    private GitHubPRPullRequest(int number, Date issueUpdatedAt) {
+        this.number = number;
+        this.issueUpdatedAt = issueUpdatedAt;
+    }
+
+    public void writeBinary(GitHubPRBinaryFormat.Output out) throws IOException {
+        out.writeVarInt(number);
+        out.writeDate(issueUpdatedAt);
+        out.writeString(title);
+        out.writeDate(prUpdatedAt);
+        out.writeString(headSha);
+        out.writeSharedString(headRef);
+        out.writeBoolean(mergeable);
+        out.writeSharedString(baseRef);
+        out.writeSharedString(userEmail);
+        out.writeSharedString(userLogin);
+        out.writeString(htmlUrl == null ? null : htmlUrl.toExternalForm());
+        if (labels == null) {
+            out.writeVarInt(0);
+        } else {
+            out.writeVarInt(labels.size() + 1);
+            for (String label : labels) {
+                out.writeSharedString(label);
+            }
+        }
+        out.writeDate(lastCommentCreatedAt);
+        out.writeVarLong(lastCommentId == null ? 0 : lastCommentId + 1);
+        out.writeSharedString(sourceRepoOwner);
+    }
+
+    public static GitHubPRPullRequest readBinary(GitHubPRBinaryFormat.Input in) throws IOException {
+        GitHubPRPullRequest pull = new GitHubPRPullRequest(in.readVarInt(), in.readDate());
+        pull.title = in.readString();
+        pull.prUpdatedAt = in.readDate();
+        pull.headSha = in.readString();
+        pull.headRef = in.readSharedString();
+        pull.mergeable = in.readBoolean();
+        pull.baseRef = in.readSharedString();
+        pull.userEmail = in.readSharedString();
+        pull.userLogin = in.readSharedString();
+        String url = in.readString();
+        pull.htmlUrl = url == null ? null : new URL(url);
+        int labels = in.readVarInt();
+        if (labels > 0) {
+            pull.labels = new HashSet<>();
+            for (int i = 1; i < labels; i++) {
+                pull.labels.add(in.readSharedString());
+            }
+        }
+        pull.lastCommentCreatedAt = in.readDate();
+        long lastCommentId = in.readVarLong();
+        pull.lastCommentId = lastCommentId == 0 ? null : lastCommentId - 1;
+        pull.sourceRepoOwner = in.readSharedString();
+        return pull;
     }
 
     public int getNumber() {
@@ -131,6 +226,18 @@ public class GitHubPRPullRequest {
         return lastCommentCreatedAt;
     }
 
+    @CheckForNull
+    public Long getLastCommentId() {
+        return lastCommentId;
+    }
+
+    /**
+     * Last seen comment, next check fetches only comments after it.
+     */
+    public GitHubPRCommentCursor getCommentCursor() {
+        return new GitHubPRCommentCursor(lastCommentId, lastCommentCreatedAt);
+    }
+
     /**
      * URL to the Github Pull Request.
      */
@@ -154,13 +261,6 @@ public class GitHubPRPullRequest {
         return sourceRepoOwner;
     }
 
-    private void updateLabels(Collection<GHLabel> labels) {
-        this.labels = new HashSet<>();
-        for (GHLabel label : labels) {
-            this.labels.add(label.getName());
-        }
-    }
-
     public String getIconFileName() {
         return Functions.getResourcePath() + "/plugin/github-pullrequest/git-pull-request.svg";
     }
@@ -181,6 +281,7 @@ public class GitHubPRPullRequest {
                 ", htmlUrl=" + htmlUrl +
                 ", labels=" + labels +
                 ", lastCommentCreatedAt=" + lastCommentCreatedAt +
+                ", lastCommentId=" + lastCommentId +
                 ", sourceRepoOwner=" + sourceRepoOwner +
                 '}';
     }
@@ -201,6 +302,8 @@ public class GitHubPRPullRequest {
         if (labels != null ? !labels.equals(that.labels) : that.labels != null) return false;
         if (lastCommentCreatedAt != null ? !lastCommentCreatedAt.equals(that.lastCommentCreatedAt) : that.lastCommentCreatedAt != null)
             return false;
+        if (lastCommentId != null ? !lastCommentId.equals(that.lastCommentId) : that.lastCommentId != null)
+            return false;
         if (mergeable != null ? !mergeable.equals(that.mergeable) : that.mergeable != null) return false;
         if (prUpdatedAt != null ? !prUpdatedAt.equals(that.prUpdatedAt) : that.prUpdatedAt != null) return false;
         if (title != null ? !title.equals(that.title) : that.title != null) return false;
@@ -227,6 +330,7 @@ public class GitHubPRPullRequest {
         result = 31 * result + (htmlUrl != null ? htmlUrl.hashCode() : 0);
         result = 31 * result + (labels != null ? labels.hashCode() : 0);
         result = 31 * result + (lastCommentCreatedAt != null ? lastCommentCreatedAt.hashCode() : 0);
+        result = 31 * result + (lastCommentId != null ? lastCommentId.hashCode() : 0);
         result = 31 * result + (sourceRepoOwner != null ? sourceRepoOwner.hashCode() : 0);
         return result;
     }
@@ -0,0 +1,63 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.Extension;
+import hudson.model.ManagementLink;
+
+/**
+ * "Manage Jenkins" page with GitHub rate limit budget and forecast burn of every job
+ * and state of hook queues and write-behind saves.
+ */
+@Extension
+public class GitHubPRRateLimitLink extends ManagementLink {
+    @Override
+    public String getIconFileName() {
+        return "monitor.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "GitHub PR Trigger Status";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Remaining GitHub API budget, forecast burn rate and hook queues of GitHub pull request triggers";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "github-pr-rate-limit";
+    }
+
+    public GitHubPRRateLimitScheduler getScheduler() {
+        return GitHubPRTrigger.DescriptorImpl.get().getRateLimitScheduler();
+    }
+
+    public GitHubPRRateLimitTracker getRateLimitTracker() {
+        return GitHubPRTrigger.DescriptorImpl.get().getRateLimitTracker();
+    }
+
+    public GitHubPRStripedQueue getHookQueue() {
+        return GitHubPRTrigger.DescriptorImpl.get().getHookQueue();
+    }
+
+    public GitHubPRHookCoalescer getHookCoalescer() {
+        return GitHubPRTrigger.DescriptorImpl.get().getHookCoalescer();
+    }
+
+    public GitHubPRHookCoalescer getPushCoalescer() {
+        return GitHubPRTrigger.DescriptorImpl.get().getPushCoalescer();
+    }
+
+    public GitHubPRHookIntake getHookIntake() {
+        return GitHubPRTrigger.DescriptorImpl.get().getHookIntake();
+    }
+
+    public GitHubPRHookJournal getHookJournal() {
+        return GitHubPRTrigger.DescriptorImpl.get().getHookJournal();
+    }
+
+    public GitHubPRPersister getPersister() {
+        return GitHubPRTrigger.DescriptorImpl.get().getPersister();
+    }
+}
@@ -0,0 +1,307 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares GitHub rate limit of one connection between all triggers.
+ * Remembers how many requests every job spends per check and how often it checks,
+ * and when forecast burn until rate limit reset is bigger than remaining budget,
+ * spreads checks over reset window: low priority jobs are deferred, normal priority jobs are checked less often.
+ */
+public class GitHubPRRateLimitScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRRateLimitScheduler.class);
+
+    /**
+     * Weight of last value in moving averages
+     */
+    private static final double ALPHA = 0.3;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final ConcurrentMap<String, JobStats> jobs = new ConcurrentHashMap<>();
+    private final GitHubPRRateLimitTracker tracker;
+
+    /**
+     * @param tracker source of current rate limit
+     */
+    public GitHubPRRateLimitScheduler(@Nonnull GitHubPRRateLimitTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * Remembers cost of finished check.
+     *
+     * @param consumed requests spent by check
+     */
+    public void recordCheck(@Nonnull String jobName, @Nonnull GitHubPRPollingPriority priority, int consumed) {
+        getStats(jobName).record(priority, Math.max(0, consumed), System.currentTimeMillis());
+    }
+
+    /**
+     * Decides whether periodic check of job can run now.
+     *
+     * @return null when check is allowed, otherwise reason of deferring
+     */
+    @CheckForNull
+    public String deferReason(@Nonnull String jobName, @Nonnull GitHubPRPollingPriority priority) {
+        JobStats stats = getStats(jobName);
+        GitHubPRRateLimitTracker.State rateLimit = tracker.getState();
+        if (rateLimit == null || isExpired(rateLimit)) {
+            return null; // nothing known yet or window was reset since last response
+        }
+        int budget = rateLimit.getRemaining();
+        long untilReset = Math.max(rateLimit.getResetMillis() - now(), 1);
+
+        double cost = stats.getAvgCost();
+        if (budget <= cost) {
+            return deferred(stats, "only " + budget + " requests left until " + new Date(now() + untilReset));
+        }
+
+        double pressure = getForecastBurn(untilReset) / budget;
+        if (pressure <= 1) {
+            return null;
+        }
+
+        switch (priority) {
+            case HIGH:
+                return null;
+            case LOW:
+                return deferred(stats, String.format("forecast burn is %.1f times higher than remaining %d requests",
+                        pressure, budget));
+            default:
+                // run less often, so all normal jobs fit into reset window
+                long sinceLast = now() - stats.getLastCheck();
+                long interval = (long) (stats.getAvgInterval() * pressure);
+                if (stats.getLastCheck() != 0 && sinceLast < interval) {
+                    return deferred(stats, String.format("rate limit is low, next check after %ds",
+                            TimeUnit.MILLISECONDS.toSeconds(interval - sinceLast)));
+                }
+                return null;
+        }
+    }
+
+    /**
+     * Requests that all known jobs will spend in period with their current check frequency.
+     */
+    public double getForecastBurn(long period) {
+        double burn = 0;
+        for (JobStats stats : jobs.values()) {
+            burn += stats.getBurnRate() * period;
+        }
+        return burn;
+    }
+
+    public int getLimit() {
+        GitHubPRRateLimitTracker.State rateLimit = tracker.getState();
+        return rateLimit == null ? 0 : rateLimit.getLimit();
+    }
+
+    public int getRemaining() {
+        GitHubPRRateLimitTracker.State rateLimit = tracker.getState();
+        return rateLimit == null ? 0 : rateLimit.getRemaining();
+    }
+
+    @CheckForNull
+    public Date getReset() {
+        GitHubPRRateLimitTracker.State rateLimit = tracker.getState();
+        return rateLimit == null ? null : rateLimit.getReset();
+    }
+
+    /**
+     * Requests per hour that can be spent until reset.
+     */
+    public long getAvailablePerHour() {
+        GitHubPRRateLimitTracker.State rateLimit = tracker.getState();
+        if (rateLimit == null) {
+            return 0;
+        }
+        if (isExpired(rateLimit)) {
+            return Math.max(rateLimit.getLimit(), 0); // full window ahead
+        }
+        long untilReset = Math.max(rateLimit.getResetMillis() - now(), 1);
+        return rateLimit.getRemaining() * HOUR / untilReset;
+    }
+
+    public long getForecastPerHour() {
+        return Math.round(getForecastBurn(HOUR));
+    }
+
+    /**
+     * Jobs sorted by forecast burn, the most expensive first.
+     */
+    @Nonnull
+    public List<JobStats> getJobs() {
+        List<JobStats> list = new ArrayList<>(jobs.values());
+        Collections.sort(list, new Comparator<JobStats>() {
+            @Override
+            public int compare(JobStats o1, JobStats o2) {
+                return Double.compare(o2.getBurnRate(), o1.getBurnRate());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Stop forecasting for removed or renamed job, or for all jobs of removed or renamed folder.
+     */
+    public void forget(@Nonnull String itemName) {
+        jobs.remove(itemName);
+        String prefix = itemName + "/";
+        for (Iterator<String> iterator = jobs.keySet().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String deferred(JobStats stats, String reason) {
+        stats.deferred();
+        LOGGER.debug("Deferring check of {}: {}", stats.getJobName(), reason);
+        return reason;
+    }
+
+    private JobStats getStats(String jobName) {
+        JobStats stats = jobs.get(jobName);
+        if (stats == null) {
+            JobStats newStats = new JobStats(jobName);
+            stats = jobs.putIfAbsent(jobName, newStats);
+            if (stats == null) {
+                stats = newStats;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Remaining requests are stale when reset time passed, GitHub already restored the full limit.
+     */
+    private static boolean isExpired(GitHubPRRateLimitTracker.State rateLimit) {
+        return rateLimit.getResetMillis() <= now();
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Check history of one job.
+     */
+    public static class JobStats {
+        private final String jobName;
+
+        // guarded by this
+        private GitHubPRPollingPriority priority = GitHubPRPollingPriority.NORMAL;
+        private double avgCost;
+        private double avgInterval;
+        private long lastCheck;
+        private long checks;
+        private long deferred;
+
+        JobStats(String jobName) {
+            this.jobName = jobName;
+        }
+
+        private synchronized void record(GitHubPRPollingPriority priority, int consumed, long time) {
+            this.priority = priority;
+            if (checks == 0) {
+                avgCost = consumed;
+            } else {
+                avgCost = ALPHA * consumed + (1 - ALPHA) * avgCost;
+            }
+
+            if (lastCheck != 0) {
+                long interval = time - lastCheck;
+                avgInterval = avgInterval == 0 ? interval : ALPHA * interval + (1 - ALPHA) * avgInterval;
+            }
+            lastCheck = time;
+            checks++;
+        }
+
+        private synchronized void deferred() {
+            deferred++;
+        }
+
+        public String getJobName() {
+            return jobName;
+        }
+
+        public synchronized GitHubPRPollingPriority getPriority() {
+            return priority;
+        }
+
+        /**
+         * Average requests per check
+         */
+        public synchronized double getAvgCost() {
+            return avgCost;
+        }
+
+        /**
+         * Average ms between checks, 0 when unknown
+         */
+        public synchronized double getAvgInterval() {
+            return avgInterval;
+        }
+
+        /**
+         * Requests per ms
+         */
+        public synchronized double getBurnRate() {
+            return avgInterval == 0 ? 0 : avgCost / avgInterval;
+        }
+
+        public long getForecastPerHour() {
+            return Math.round(getBurnRate() * HOUR);
+        }
+
+        public synchronized long getLastCheck() {
+            return lastCheck;
+        }
+
+        public synchronized long getChecks() {
+            return checks;
+        }
+
+        public synchronized long getDeferred() {
+            return deferred;
+        }
+    }
+
+    /**
+     * Stats of deleted or renamed jobs would inflate forecast burn forever.
+     */
+    @Extension
+    public static class Lifecycle extends ItemListener {
+        @Override
+        public void onDeleted(Item item) {
+            forget(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            forget(oldFullName);
+        }
+
+        private static void forget(String itemName) {
+            GitHubPRTrigger.DescriptorImpl descriptor = GitHubPRTrigger.DescriptorImpl.get();
+            if (descriptor != null) {
+                descriptor.getRateLimitScheduler().forget(itemName);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rate limit of GitHub connection read from headers of every response,
+ * so nobody needs extra {@link org.kohsuke.github.GitHub#getRateLimit()} requests.
+ * Lock-free, responses are recorded from any number of threads.
+ * Requests are also counted per check by {@link RequestCounter} of sending thread, because the global
+ * state changes by requests of all jobs that check at the same time.
+ */
+public class GitHubPRRateLimitTracker implements Interceptor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRRateLimitTracker.class);
+
+    private final AtomicReference<State> state = new AtomicReference<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final ThreadLocal<RequestCounter> counters = new ThreadLocal<>();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        requests.incrementAndGet();
+        RequestCounter counter = counters.get();
+        // conditional requests answered with 304 don't count against rate limit
+        if (counter != null && response.code() != HttpURLConnection.HTTP_NOT_MODIFIED) {
+            counter.increment();
+        }
+        record(response.header("X-RateLimit-Limit"), response.header("X-RateLimit-Remaining"),
+                response.header("X-RateLimit-Reset"));
+        return response;
+    }
+
+    /**
+     * @param limit     X-RateLimit-Limit header
+     * @param remaining X-RateLimit-Remaining header
+     * @param reset     X-RateLimit-Reset header, epoch seconds
+     */
+    public void record(@CheckForNull String limit, @CheckForNull String remaining, @CheckForNull String reset) {
+        if (remaining == null || reset == null) {
+            return; // i.e. enterprise without rate limit
+        }
+
+        State newState;
+        try {
+            newState = new State(limit == null ? -1 : Integer.parseInt(limit), Integer.parseInt(remaining),
+                    TimeUnit.SECONDS.toMillis(Long.parseLong(reset)));
+        } catch (NumberFormatException e) {
+            LOGGER.debug("Can't parse rate limit headers: {}, {}, {}", limit, remaining, reset);
+            return;
+        }
+
+        // responses may come out of order, keep the most recent state of the latest window
+        while (true) {
+            State current = state.get();
+            if (current != null && !newState.isNewerThan(current)) {
+                return;
+            }
+            if (state.compareAndSet(current, newState)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return last known rate limit, null when no responses with rate limit yet
+     */
+    @CheckForNull
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Requests that went to network, including ones answered with 304
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Requests sent by current thread are counted by counter until {@link #stopCounting()}.
+     * Requests are sent in caller thread, so they are counted for check that sent them.
+     */
+    public void startCounting(@Nonnull RequestCounter counter) {
+        counters.set(counter);
+    }
+
+    public void stopCounting() {
+        counters.remove();
+    }
+
+    /**
+     * Wraps task that does part of check in other thread, so its requests are counted for the same check.
+     */
+    @Nonnull
+    public <V> Callable<V> counting(@Nonnull final RequestCounter counter, @Nonnull final Callable<V> task) {
+        return new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                RequestCounter previous = counters.get();
+                counters.set(counter);
+                try {
+                    return task.call();
+                } finally {
+                    if (previous == null) {
+                        counters.remove();
+                    } else {
+                        counters.set(previous);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Forget rate limit, i.e. when token changed.
+     */
+    public void reset() {
+        state.set(null);
+    }
+
+    /**
+     * Rate limited requests sent by one check from any threads.
+     */
+    public static class RequestCounter {
+        private final AtomicInteger count = new AtomicInteger();
+
+        private void increment() {
+            count.incrementAndGet();
+        }
+
+        public int getCount() {
+            return count.get();
+        }
+    }
+
+    /**
+     * Immutable rate limit values.
+     */
+    public static class State {
+        private final int limit;
+        private final int remaining;
+        private final long reset;
+
+        public State(int limit, int remaining, long reset) {
+            this.limit = limit;
+            this.remaining = remaining;
+            this.reset = reset;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getRemaining() {
+            return remaining;
+        }
+
+        @Nonnull
+        public Date getReset() {
+            return new Date(reset);
+        }
+
+        public long getResetMillis() {
+            return reset;
+        }
+
+        /**
+         * Requests spent between earlier state and this one.
+         * When window was reset in between only requests of current window are known.
+         */
+        public int consumedSince(@CheckForNull State before) {
+            if (before == null) {
+                return 0;
+            }
+            if (before.reset != reset) {
+                return Math.max(0, limit - remaining);
+            }
+            return Math.max(0, before.remaining - remaining);
+        }
+
+        private boolean isNewerThan(State other) {
+            return reset > other.reset || reset == other.reset && remaining <= other.remaining;
+        }
+
+        @Override
+        public String toString() {
+            return "GHRateLimit{remaining=" + remaining + ", limit=" + limit + ", resetDate=" + getReset() + '}';
+        }
+    }
+}
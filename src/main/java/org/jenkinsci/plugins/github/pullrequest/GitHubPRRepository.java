@@ -11,11 +11,15 @@ import jenkins.model.Jenkins;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.interceptor.RequirePOST;
 
+import javax.annotation.CheckForNull;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +42,19 @@ public class GitHubPRRepository implements Action, Saveable {
     private final String githubUrl;
 
     private Map<Integer, GitHubPRPullRequest> pulls;
+    private GitHubPRPollingState pollingState;
+    /**
+     * Whether pulls differ from saved file
+     */
+    private transient volatile boolean changed;
+    /**
+     * PRs changed since last save, written to {@link GitHubPRRepositoryJournal} in journal mode
+     */
+    private transient Set<Integer> changedNumbers;
+    /**
+     * Whether runtime file must be rewritten, i.e. it doesn't exist yet or pulls were cleared
+     */
+    private transient boolean fullSaveRequired;
 
     /**
      * Object that represent GitHub repository to work with
@@ -49,12 +66,57 @@ public class GitHubPRRepository implements Action, Saveable {
         this.pulls = pulls;
         this.fullName = fullName;
         this.githubUrl = githubUrl;
+        this.changed = true; // not saved yet
+        this.fullSaveRequired = true;
     }
 
+    /**
+     * Use {@link #putPull(GitHubPRPullRequest)} and {@link #removePull(int)} for changes,
+     * so repository knows that it should be saved.
+     */
     public Map<Integer, GitHubPRPullRequest> getPulls() {
         return pulls;
     }
 
+    /**
+     * Stores PR state, repository is marked changed only when state differs from stored.
+     */
+    public synchronized void putPull(GitHubPRPullRequest pull) {
+        GitHubPRPullRequest previous = pulls.put(pull.getNumber(), pull);
+        if (!pull.equals(previous)) {
+            changed = true;
+            getChangedNumbers().add(pull.getNumber());
+        }
+    }
+
+    public synchronized void removePull(int number) {
+        if (pulls.remove(number) != null) {
+            changed = true;
+            getChangedNumbers().add(number);
+        }
+    }
+
+    private Set<Integer> getChangedNumbers() {
+        if (changedNumbers == null) { // transient, not restored by XStream
+            changedNumbers = new HashSet<>();
+        }
+        return changedNumbers;
+    }
+
+    /**
+     * @return true when state differs from saved file
+     */
+    public boolean isChanged() {
+        return changed || getPollingState().isChanged();
+    }
+
+    public synchronized GitHubPRPollingState getPollingState() {
+        if (pollingState == null) { // state saved by older versions
+            pollingState = new GitHubPRPollingState();
+        }
+        return pollingState;
+    }
+
     /**
      * Searches for all builds performed in the runs of current job.
      *
@@ -102,13 +164,150 @@ public class GitHubPRRepository implements Action, Saveable {
         return githubUrl;
     }
 
+    /**
+     * Writes state only when it changed since last save, most checks find nothing new.
+     * In journal mode only changed PRs are appended to {@link GitHubPRRepositoryJournal},
+     * runtime file is rewritten when journal grows bigger than it.
+     * Runtime file is written in globally configured {@link GitHubPRRuntimeFormat}.
+     * {@link SaveableListener}s are notified only when XML runtime file was written.
+     * Copy of state is written, so checks that change polling state without repository lock don't break write.
+     */
     public synchronized void save() throws IOException {
         if (BulkChange.contains(this)) {
             return;
         }
+        if (!isChanged()) {
+            LOGGER.trace("Repository state of {} not changed, skipping save", fullName);
+            return;
+        }
+
+        // checks change polling state without repository lock, change made after copy keeps its flag
+        GitHubPRPollingState pollingState = getPollingState();
+        boolean pollingChanged;
+        GitHubPRPollingState pollingCopy;
+        synchronized (pollingState) {
+            pollingChanged = pollingState.takeChanged();
+            pollingCopy = pollingState.copy();
+        }
+        changed = false;
+        GitHubPRRepository copy = copyForSave(pollingCopy);
+        File written;
+        try {
+            GitHubPRTrigger.DescriptorImpl descriptor = getTriggerDescriptor();
+            GitHubPRRuntimeFormat format = descriptor == null
+                    ? GitHubPRRuntimeFormat.XML
+                    : descriptor.getRuntimeFormat();
+            File snapshot = getStateFile(format);
+            GitHubPRRepositoryJournal journal = getJournal();
+            if (descriptor != null && descriptor.isJournalRuntimeState() && !fullSaveRequired && snapshot.exists()
+                    && !journal.isCompactionDue(snapshot.length())) {
+                journal.append(copy.pulls, getChangedNumbers(), pollingChanged ? copy.pollingState : null);
+                written = journal.getFile();
+            } else {
+                // journal records are in runtime file now, existing state is migrated here too
+                writeSnapshot(copy, format, journal);
+                fullSaveRequired = false;
+                written = snapshot;
+            }
+            getChangedNumbers().clear();
+        } catch (IOException | RuntimeException e) {
+            // try again on next save, what was written is unknown
+            changed = true;
+            fullSaveRequired = true;
+            throw e;
+        }
+        // listeners read saved file as XML, journal and binary state are not
+        if (written.equals(configFile.getFile())) {
+            SaveableListener.fireOnChange(this, configFile);
+        }
+    }
+
+    /**
+     * Applies changes saved to journal after last runtime file write.
+     */
+    public synchronized void loadJournal() throws IOException {
+        GitHubPRRepositoryJournal journal = getJournal();
+        if (journal.exists()) {
+            GitHubPRPollingState journaled = journal.replay(pulls);
+            if (journaled != null) {
+                pollingState = journaled;
+            }
+        }
+    }
+
+    /**
+     * State taken under repository lock, PR states are not changed after put.
+     */
+    private synchronized GitHubPRRepository copyForSave(GitHubPRPollingState pollingCopy) {
+        GitHubPRRepository copy = new GitHubPRRepository(fullName, githubUrl, new HashMap<>(pulls));
+        copy.pollingState = pollingCopy;
+        return copy;
+    }
+
+    /**
+     * Writes whole state in given format, replaces runtime file with it and deletes journal.
+     * Removes state file of other format, so only one is read on load.
+     */
+    private void writeSnapshot(GitHubPRRepository copy, GitHubPRRuntimeFormat format,
+                               GitHubPRRepositoryJournal journal) throws IOException {
+        File snapshot = getStateFile(format);
+        File compacted = GitHubPRRepositoryJournal.getCompactedFile(snapshot);
+        // both writes are atomic, compacted file is either complete or absent
+        if (format == GitHubPRRuntimeFormat.BINARY) {
+            GitHubPRBinaryFormat.write(copy, compacted);
+        } else {
+            new XmlFile(compacted).write(copy);
+        }
+        journal.compact(compacted, snapshot);
+
+        for (GitHubPRRuntimeFormat other : GitHubPRRuntimeFormat.values()) {
+            File file = getStateFile(other);
+            if (other != format && file.exists() && !file.delete()) {
+                LOGGER.warn("Can't delete outdated state file {}", file);
+            }
+        }
+    }
+
+    private File getStateFile(GitHubPRRuntimeFormat format) {
+        return new File(configFile.getFile().getParentFile(), format.getFileName());
+    }
+
+    private GitHubPRRepositoryJournal getJournal() {
+        return GitHubPRRepositoryJournal.forRuntimeFile(configFile.getFile());
+    }
+
+    @CheckForNull
+    private static GitHubPRTrigger.DescriptorImpl getTriggerDescriptor() {
+        Jenkins instance = Jenkins.getInstance();
+        return instance == null ? null : instance.getDescriptorByType(GitHubPRTrigger.DescriptorImpl.class);
+    }
+
+    public synchronized void writeBinary(GitHubPRBinaryFormat.Output out) throws IOException {
+        out.writeString(fullName);
+        out.writeString(githubUrl);
+        out.writeVarInt(pulls.size());
+        for (GitHubPRPullRequest pull : pulls.values()) {
+            pull.writeBinary(out);
+        }
+        getPollingState().writeBinary(out);
+    }
 
-        configFile.write(this);
-        SaveableListener.fireOnChange(this, configFile);
+    public static GitHubPRRepository readBinary(GitHubPRBinaryFormat.Input in) throws IOException {
+        String fullName = in.readString();
+        String githubUrl = in.readString();
+        int size = in.readVarInt();
+        Map<Integer, GitHubPRPullRequest> pulls = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            GitHubPRPullRequest pull = GitHubPRPullRequest.readBinary(in);
+            pulls.put(pull.getNumber(), pull);
+        }
+
+        GitHubPRRepository repository = new GitHubPRRepository(fullName, githubUrl, pulls);
+        repository.pollingState = GitHubPRPollingState.readBinary(in);
+        // the same as read from XML
+        repository.changed = false;
+        repository.fullSaveRequired = false;
+        return repository;
     }
 
     @RequirePOST
@@ -117,7 +316,12 @@ public class GitHubPRRepository implements Action, Saveable {
         try {
             Jenkins instance = GitHubPRTrigger.DescriptorImpl.getJenkinsInstance();
             if (instance.hasPermission(Item.DELETE)) {
-                pulls = new HashMap<>();
+                synchronized (this) {
+                    pulls = new HashMap<>();
+                    changed = true;
+                    fullSaveRequired = true;
+                }
+                getPollingState().reset();
                 save();
                 result = FormValidation.ok("Pulls deleted");
             } else {
@@ -204,6 +408,14 @@ public class GitHubPRRepository implements Action, Saveable {
         return build.getProject().scheduleBuild(0, new Cause.UserIdCause(), actions.toArray(new Action[actions.size()]));
     }
 
+    public AbstractProject<?, ?> getProject() {
+        return project;
+    }
+
+    public XmlFile getConfigFile() {
+        return configFile;
+    }
+
     public void setProject(AbstractProject<?, ?> project) {
         this.project = project;
     }
@@ -5,7 +5,9 @@ import hudson.Extension;
 import hudson.XmlFile;
 import hudson.model.AbstractProject;
 import hudson.model.Action;
+import hudson.model.Item;
 import hudson.model.TransientProjectActionFactory;
+import hudson.model.listeners.ItemListener;
 
 import javax.annotation.Nonnull;
 import java.io.File;
@@ -13,16 +15,26 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Provides {@link GitHubPRRepository} action. Repository state is read from disk once per job and then
+ * the same live instance is returned on every transient actions recalculation (job load, config save),
+ * so UI and trigger runs share it and disk is touched only on save.
+ *
  * @author Kanstantsin Shautsou
  */
 @Extension
 public class GitHubPRRepositoryFactory extends TransientProjectActionFactory {
     private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRRepositoryFactory.class);
 
+    /**
+     * Loaded repositories by job full name, guarded by itself
+     */
+    private static final Map<String, GitHubPRRepository> REPOSITORIES = new HashMap<>();
+
     @Override
     public Collection<? extends Action> createFor(AbstractProject project) {
         try {
@@ -34,11 +46,28 @@ public class GitHubPRRepositoryFactory extends TransientProjectActionFactory {
             return Collections.emptyList();
         }
 
+        invalidate(project);
         return Collections.emptyList();
     }
 
     @Nonnull
     private static GitHubPRRepository forProject(AbstractProject<?, ?> job) {
+        synchronized (REPOSITORIES) {
+            GitHubPRRepository cached = REPOSITORIES.get(job.getFullName());
+            // other instance means job was reloaded from disk
+            if (cached != null && cached.getProject() == job) {
+                bind(cached, job);
+                return cached;
+            }
+
+            GitHubPRRepository localRepository = load(job);
+            REPOSITORIES.put(job.getFullName(), localRepository);
+            return localRepository;
+        }
+    }
+
+    @Nonnull
+    private static GitHubPRRepository load(AbstractProject<?, ?> job) {
         XmlFile configFile = new XmlFile(new File(job.getRootDir(), GitHubPRRepository.FILE));
 
         GitHubPRTrigger trigger = job.getTrigger(GitHubPRTrigger.class);
@@ -46,10 +75,18 @@ public class GitHubPRRepositoryFactory extends TransientProjectActionFactory {
 
         GithubProjectProperty property = job.getProperty(GithubProjectProperty.class);
         String githubUrl = property.getProjectUrl().toString();
+        File binaryFile = new File(job.getRootDir(), GitHubPRBinaryFormat.FILE);
         GitHubPRRepository localRepository;
-        if (configFile.exists()) {
+        try {
+            recoverCompaction(configFile.getFile(), binaryFile);
+        } catch (IOException e) {
+            LOGGER.warn("Can't recover interrupted save of {} state", job.getFullName(), e);
+        }
+        if (configFile.exists() || binaryFile.exists()) {
             try {
-                localRepository = (GitHubPRRepository) configFile.read();
+                localRepository = readState(configFile, binaryFile);
+                localRepository.setConfigFile(configFile);
+                localRepository.loadJournal();
             } catch (IOException e) {
                 LOGGER.info("Can't read saved repository, creating new one", e);
                 localRepository = new GitHubPRRepository(repoFullName, githubUrl, new HashMap<Integer, GitHubPRPullRequest>());
@@ -63,4 +100,95 @@ public class GitHubPRRepositoryFactory extends TransientProjectActionFactory {
         return localRepository;
     }
 
+    private static void recoverCompaction(File xmlFile, File binaryFile) throws IOException {
+        GitHubPRRepositoryJournal journal = GitHubPRRepositoryJournal.forRuntimeFile(xmlFile);
+        journal.recover(xmlFile);
+        journal.recover(binaryFile);
+    }
+
+    /**
+     * Reads state file of any {@link GitHubPRRuntimeFormat}, the newer one when crash left both.
+     */
+    private static GitHubPRRepository readState(XmlFile configFile, File binaryFile) throws IOException {
+        File xmlFile = configFile.getFile();
+        if (binaryFile.exists() && (!xmlFile.exists() || binaryFile.lastModified() >= xmlFile.lastModified())) {
+            return GitHubPRBinaryFormat.read(binaryFile);
+        }
+        return (GitHubPRRepository) configFile.read();
+    }
+
+    /**
+     * Points repository to current job directory, it changes when job or its folder is renamed.
+     */
+    private static void bind(GitHubPRRepository localRepository, AbstractProject<?, ?> job) {
+        File file = new File(job.getRootDir(), GitHubPRRepository.FILE);
+        XmlFile configFile = localRepository.getConfigFile();
+        if (configFile == null || !file.equals(configFile.getFile())) {
+            localRepository.setConfigFile(new XmlFile(file));
+        }
+    }
+
+    /**
+     * Forgets loaded repository of job, next lookup reads it from disk.
+     */
+    public static void invalidate(@Nonnull AbstractProject<?, ?> job) {
+        synchronized (REPOSITORIES) {
+            GitHubPRRepository cached = REPOSITORIES.get(job.getFullName());
+            if (cached != null && cached.getProject() == job) {
+                REPOSITORIES.remove(job.getFullName());
+            }
+        }
+    }
+
+    /**
+     * Reconfigured trigger keeps live repository, so state of running check is not overwritten by stale copy.
+     * Only job binding is refreshed.
+     */
+    public static void reconfigured(@Nonnull AbstractProject<?, ?> job) {
+        synchronized (REPOSITORIES) {
+            GitHubPRRepository cached = REPOSITORIES.get(job.getFullName());
+            if (cached != null) {
+                if (cached.getProject() == job) {
+                    bind(cached, job);
+                } else {
+                    REPOSITORIES.remove(job.getFullName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps loaded repositories in sync with job renames and removals.
+     */
+    @Extension
+    public static class RepositoryCacheListener extends ItemListener {
+        @Override
+        public void onLoaded() {
+            // all jobs are new instances after Jenkins reload
+            synchronized (REPOSITORIES) {
+                REPOSITORIES.clear();
+            }
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            if (item instanceof AbstractProject) {
+                invalidate((AbstractProject<?, ?>) item);
+            }
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            if (!(item instanceof AbstractProject)) {
+                return;
+            }
+            synchronized (REPOSITORIES) {
+                GitHubPRRepository cached = REPOSITORIES.remove(oldFullName);
+                if (cached != null && cached.getProject() == item) {
+                    bind(cached, (AbstractProject<?, ?>) item);
+                    REPOSITORIES.put(newFullName, cached);
+                }
+            }
+        }
+    }
 }
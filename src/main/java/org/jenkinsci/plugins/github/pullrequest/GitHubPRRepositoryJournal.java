@@ -0,0 +1,240 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.util.XStream2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of PR state changes next to {@link GitHubPRRepository#FILE}.
+ * Save appends only changed PRs, so write I/O depends on number of changes, not on number of PRs.
+ * State is runtime file (snapshot) with log records replayed on top of it.
+ * Log is merged into snapshot when it grows bigger than snapshot.
+ * New snapshot is written next to old one and replaces it only after log is deleted,
+ * so log is never replayed on top of snapshot that already contains it (see {@link #compact(File, File)}).
+ * <p>
+ * Record: type byte, PR number int, payload length int, payload (XStream XML, UTF-8), CRC32 int.
+ * Torn record at the end (i.e. crash during append) is cut off on replay.
+ */
+public class GitHubPRRepositoryJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRRepositoryJournal.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final XStream2 XSTREAM = new XStream2();
+
+    public static final String FILE = GitHubPRRepository.class.getName() + ".runtime.journal";
+    /**
+     * Log is never compacted before this size, bytes
+     */
+    public static final long MIN_COMPACT_SIZE = 64 * 1024;
+    private static final String COMPACTED_SUFFIX = ".compacted";
+
+    private static final byte UPSERT = 'U';
+    private static final byte REMOVE = 'R';
+    private static final byte POLLING_STATE = 'P';
+
+    private final File file;
+
+    public GitHubPRRepositoryJournal(@Nonnull File file) {
+        this.file = file;
+    }
+
+    /**
+     * @param runtimeFile runtime file of repository, log lives in the same directory
+     */
+    @Nonnull
+    public static GitHubPRRepositoryJournal forRuntimeFile(@Nonnull File runtimeFile) {
+        return new GitHubPRRepositoryJournal(new File(runtimeFile.getParentFile(), FILE));
+    }
+
+    @Nonnull
+    public File getFile() {
+        return file;
+    }
+
+    public boolean exists() {
+        return file.exists();
+    }
+
+    public long length() {
+        return file.length();
+    }
+
+    /**
+     * @return true when log costs more to replay than snapshot to rewrite
+     */
+    public boolean isCompactionDue(long snapshotLength) {
+        long length = length();
+        return length > MIN_COMPACT_SIZE && length > snapshotLength;
+    }
+
+    /**
+     * Appends changes with one write.
+     *
+     * @param pulls        current PRs state
+     * @param numbers      changed PRs, absent in pulls means removed
+     * @param pollingState changed polling state, null when not changed
+     */
+    public void append(@Nonnull Map<Integer, GitHubPRPullRequest> pulls, @Nonnull Collection<Integer> numbers,
+                       @CheckForNull GitHubPRPollingState pollingState) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Integer number : numbers) {
+            GitHubPRPullRequest pull = pulls.get(number);
+            if (pull == null) {
+                writeRecord(out, REMOVE, number, new byte[0]);
+            } else {
+                writeRecord(out, UPSERT, number, XSTREAM.toXML(pull).getBytes(UTF_8));
+            }
+        }
+        if (pollingState != null) {
+            writeRecord(out, POLLING_STATE, 0, XSTREAM.toXML(pollingState).getBytes(UTF_8));
+        }
+        out.flush();
+
+        try (FileOutputStream stream = new FileOutputStream(file, true)) {
+            stream.write(bytes.toByteArray());
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, int number, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+
+        out.writeByte(type);
+        out.writeInt(number);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Applies logged changes to state read from snapshot.
+     *
+     * @param pulls PRs from snapshot, changed in place
+     * @return last logged polling state or null when it wasn't logged
+     */
+    @CheckForNull
+    public GitHubPRPollingState replay(@Nonnull Map<Integer, GitHubPRPullRequest> pulls) throws IOException {
+        if (!exists()) {
+            return null;
+        }
+
+        GitHubPRPollingState pollingState = null;
+        long valid = 0;
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break; // clean end
+                }
+                int number = in.readInt();
+                int length = in.readInt();
+                if (length < 0 || length > file.length()) {
+                    throw new EOFException("Bad record length " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                int expected = in.readInt();
+
+                CRC32 crc = new CRC32();
+                crc.update(type);
+                crc.update(payload);
+                if ((int) crc.getValue() != expected) {
+                    throw new EOFException("Bad record checksum");
+                }
+
+                switch (type) {
+                    case UPSERT:
+                        pulls.put(number, (GitHubPRPullRequest) XSTREAM.fromXML(new String(payload, UTF_8)));
+                        break;
+                    case REMOVE:
+                        pulls.remove(number);
+                        break;
+                    case POLLING_STATE:
+                        pollingState = (GitHubPRPollingState) XSTREAM.fromXML(new String(payload, UTF_8));
+                        break;
+                    default:
+                        throw new EOFException("Unknown record type " + type);
+                }
+                valid += 1 + 4 + 4 + length + 4;
+                records++;
+            }
+        } catch (EOFException e) {
+            LOGGER.warn("Torn record in {} after {} records, cutting it off: {}", file, records, e.getMessage());
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(valid);
+            }
+        }
+
+        LOGGER.debug("Replayed {} records from {}", records, file);
+        return pollingState;
+    }
+
+    /**
+     * Where new snapshot is written before {@link #compact(File, File)}.
+     * Writer must create it atomically, so existing file is always complete.
+     */
+    @Nonnull
+    public static File getCompactedFile(@Nonnull File snapshot) {
+        return new File(snapshot.getParentFile(), snapshot.getName() + COMPACTED_SUFFIX);
+    }
+
+    /**
+     * Deletes log and then replaces snapshot with compacted one.
+     * Crash before log is deleted leaves old snapshot and log, crash after it leaves complete compacted snapshot,
+     * both are sorted out by {@link #recover(File)}.
+     */
+    public void compact(@Nonnull File compacted, @Nonnull File snapshot) throws IOException {
+        delete();
+        Files.move(compacted.toPath(), snapshot.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Finishes or rolls back compaction interrupted by crash, must be called before snapshot is read.
+     */
+    public void recover(@Nonnull File snapshot) throws IOException {
+        File compacted = getCompactedFile(snapshot);
+        if (!compacted.exists()) {
+            return;
+        }
+
+        if (exists()) {
+            // log wasn't deleted, old snapshot with log is consistent state
+            LOGGER.warn("Dropping not finished compaction {}", compacted);
+            Files.delete(compacted.toPath());
+        } else {
+            LOGGER.info("Finishing compaction of {} interrupted by restart", snapshot);
+            Files.move(compacted.toPath(), snapshot.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    public void delete() throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Can't delete " + file);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import net.sf.json.JSONArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.apache.commons.lang.StringUtils.isBlank;
+import static org.apache.commons.lang.StringUtils.isNotBlank;
+import static org.apache.commons.lang.StringUtils.removeEnd;
+
+/**
+ * Plain GitHub REST requests for cases that github-api doesn't cover (conditional requests, query parameters).
+ * Uses same {@link OkHttpClient} as {@link org.kohsuke.github.GitHub} connection.
+ */
+public class GitHubPRRestClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRRestClient.class);
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+
+    private final OkHttpClient client;
+    private final String apiUrl;
+    private final String accessToken;
+
+    public GitHubPRRestClient(OkHttpClient client, String apiUrl, String accessToken) {
+        this.client = client;
+        this.apiUrl = removeEnd(apiUrl, "/");
+        this.accessToken = accessToken;
+    }
+
+    /**
+     * GET request with validators from previous response.
+     * GitHub answers 304 without body when nothing changed, such responses don't count against rate limit.
+     *
+     * @param path         path relative to api url with query, i.e. "/repos/owner/repo/pulls?state=open"
+     * @param eTag         ETag of previous response
+     * @param lastModified Last-Modified of previous response
+     */
+    @Nonnull
+    public Result get(String path, @CheckForNull String eTag, @CheckForNull String lastModified) throws IOException {
+        Request.Builder builder = new Request.Builder()
+                .url(apiUrl + path)
+                .header("Accept", "application/vnd.github.v3+json")
+                .header("Authorization", "token " + accessToken);
+
+        if (isNotBlank(eTag)) {
+            builder.header("If-None-Match", eTag);
+        }
+        if (isNotBlank(lastModified)) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+
+        Response response = client.newCall(builder.build()).execute();
+        int code = response.code();
+        String body = null;
+        try {
+            if (code == HttpURLConnection.HTTP_OK) {
+                body = response.body().string();
+            } else if (code != HttpURLConnection.HTTP_NOT_MODIFIED) {
+                throw new IOException("GitHub returned " + code + " for " + path);
+            }
+        } finally {
+            response.body().close();
+        }
+
+        LOGGER.trace("GET {} -> {}", path, code);
+        Result result = new Result(code, response.header("ETag"), response.header("Last-Modified"), body);
+        result.setPollInterval(parsePollInterval(response.header("X-Poll-Interval")));
+        return result;
+    }
+
+    /**
+     * One page of list request with max page size.
+     *
+     * @param path list path with query, i.e. "/repos/owner/repo/issues?state=all"
+     * @param page page number starting from 1
+     */
+    @Nonnull
+    public JSONArray getPage(String path, int page) throws IOException {
+        String separator = path.contains("?") ? "&" : "?";
+        Result result = get(path + separator + "per_page=" + MAX_PAGE_SIZE + "&page=" + page, null, null);
+        return JSONArray.fromObject(result.getBody());
+    }
+
+    /**
+     * @return seconds from X-Poll-Interval header, 0 when not set
+     */
+    private static int parsePollInterval(@CheckForNull String header) {
+        if (isBlank(header)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(header.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.debug("Can't parse X-Poll-Interval '{}'", header);
+            return 0;
+        }
+    }
+
+    /**
+     * Parses GitHub ISO 8601 date, i.e. "2015-01-01T11:31:48Z"
+     */
+    @CheckForNull
+    public static Date parseDate(@CheckForNull String date) {
+        if (isBlank(date) || "null".equals(date)) {
+            return null;
+        }
+        try {
+            return dateFormat().parse(date);
+        } catch (ParseException e) {
+            LOGGER.warn("Can't parse GitHub date '{}'", date);
+            return null;
+        }
+    }
+
+    @Nonnull
+    public static String formatDate(@Nonnull Date date) {
+        return dateFormat().format(date);
+    }
+
+    private static SimpleDateFormat dateFormat() {
+        SimpleDateFormat format = new SimpleDateFormat(DATE_FORMAT, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+
+    /**
+     * Response data that callers need, body is null for 304 responses.
+     */
+    public static class Result {
+        private final int code;
+        @CheckForNull
+        private final String eTag;
+        @CheckForNull
+        private final String lastModified;
+        @CheckForNull
+        private final String body;
+        private int pollInterval;
+
+        public Result(int code, @CheckForNull String eTag, @CheckForNull String lastModified,
+                      @CheckForNull String body) {
+            this.code = code;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+
+        public boolean isNotModified() {
+            return code == HttpURLConnection.HTTP_NOT_MODIFIED;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        @CheckForNull
+        public String getETag() {
+            return eTag;
+        }
+
+        @CheckForNull
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        @CheckForNull
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * @return seconds that GitHub asks to wait before next poll, 0 when not set
+         */
+        public int getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(int pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+    }
+}
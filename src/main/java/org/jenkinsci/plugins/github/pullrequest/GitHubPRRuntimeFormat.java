@@ -0,0 +1,28 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+/**
+ * How {@link GitHubPRRepository} runtime state is written. State in any format is read.
+ */
+public enum GitHubPRRuntimeFormat {
+    XML("XStream XML", GitHubPRRepository.FILE),
+    BINARY("Compact binary, smaller and faster for repositories with many pull requests", GitHubPRBinaryFormat.FILE);
+
+    private final String description;
+    private final String fileName;
+
+    GitHubPRRuntimeFormat(String description, String fileName) {
+        this.description = description;
+        this.fileName = fileName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Name of state file in job directory
+     */
+    public String getFileName() {
+        return fileName;
+    }
+}
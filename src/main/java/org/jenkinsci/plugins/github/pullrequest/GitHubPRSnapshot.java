@@ -0,0 +1,269 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import net.sf.json.JSONArray;
+import org.kohsuke.github.GHCommitPointer;
+import org.kohsuke.github.GHIssueComment;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHLabel;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remote state of one PR shared by all {@link org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent}s
+ * during one trigger check and by all jobs that watch the same repository (see {@link GitHubPRSnapshotService}).
+ * Data that costs GitHub requests (labels, comments) is fetched on first access
+ * and then reused, so every event sees the same values and PR is fetched at most once per check.
+ * Mergeable state is not cached here, it is read from the last listed PR object.
+ * Snapshot doesn't depend on job local state, comments are fetched after cursor that job passes.
+ * Comments are fetched with {@link GitHubPRRestClient} passed by creator, see {@link GitHubPRSnapshotService}.
+ */
+public class GitHubPRSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRSnapshot.class);
+
+    private final GHPullRequest remotePR;
+    @CheckForNull
+    private final GitHubPRRestClient restClient;
+    /**
+     * The last listed object of the same PR update, source of mergeable state
+     */
+    private volatile GHPullRequest latestPR;
+    /**
+     * When snapshot was taken from {@link GitHubPRSnapshotService} last time, ms
+     */
+    private volatile long usedAt = System.currentTimeMillis();
+    private final int number;
+    private final GHIssueState state;
+    @CheckForNull
+    private final GHCommitPointer head;
+    @CheckForNull
+    private final GHCommitPointer base;
+    @CheckForNull
+    private final GHUser user;
+
+    // lazy remote data, guarded by this
+    private Set<String> labels;
+    private final Map<GitHubPRCommentCursor, List<GitHubPRComment>> newComments = new HashMap<>();
+    private GitHubPRCommentCursor lastCommentCursor;
+    private GitHubPRPullRequest pullRequest;
+
+    /**
+     * Snapshot without REST client, comments are listed with {@link GHPullRequest} and are not limited by cursor time.
+     *
+     * @param remotePR PR fetched from GitHub
+     */
+    public GitHubPRSnapshot(@Nonnull GHPullRequest remotePR) {
+        this(remotePR, null);
+    }
+
+    /**
+     * @param remotePR   PR fetched from GitHub
+     * @param restClient client of the same connection as PR, it fetches only comments updated after cursor
+     */
+    public GitHubPRSnapshot(@Nonnull GHPullRequest remotePR, @CheckForNull GitHubPRRestClient restClient) {
+        this.remotePR = remotePR;
+        this.restClient = restClient;
+        this.latestPR = remotePR;
+        this.number = remotePR.getNumber();
+        this.state = remotePR.getState();
+        this.head = remotePR.getHead();
+        this.base = remotePR.getBase();
+        this.user = remotePR.getUser();
+    }
+
+    @Nonnull
+    public GHPullRequest getRemotePR() {
+        return remotePR;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public GHIssueState getState() {
+        return state;
+    }
+
+    @CheckForNull
+    public String getHeadSha() {
+        return head == null ? null : head.getSha();
+    }
+
+    @CheckForNull
+    public String getHeadRef() {
+        return head == null ? null : head.getRef();
+    }
+
+    @CheckForNull
+    public String getBaseRef() {
+        return base == null ? null : base.getRef();
+    }
+
+    @CheckForNull
+    public GHUser getUser() {
+        return user;
+    }
+
+    /**
+     * Names of labels currently set on PR.
+     */
+    @Nonnull
+    public synchronized Set<String> getLabels() throws IOException {
+        if (labels == null) {
+            Set<String> names = new HashSet<>();
+            for (GHLabel label : remotePR.getRepository().getIssue(number).getLabels()) {
+                names.add(label.getName());
+            }
+            labels = Collections.unmodifiableSet(names);
+        }
+        return labels;
+    }
+
+    /**
+     * Mergeable changes with base branch without PR update, so it's taken from the last listed PR object
+     * and not cached across checks. PR object fetches it at most once.
+     *
+     * @return mergeable state, null when GitHub didn't calculate it yet
+     */
+    @CheckForNull
+    public Boolean getMergeable() throws IOException {
+        // see https://github.com/kohsuke/github-api/issues/111
+        return latestPR.getMergeable();
+    }
+
+    /**
+     * Remembers newer listed object of the same PR update, called when snapshot is reused by next check.
+     */
+    void setLatestPR(@Nonnull GHPullRequest latestPR) {
+        this.latestPR = latestPR;
+    }
+
+    void setUsedAt(long usedAt) {
+        this.usedAt = usedAt;
+    }
+
+    long getUsedAt() {
+        return usedAt;
+    }
+
+    /**
+     * Comments created after cursor in creation order, all comments for empty cursor.
+     * Only comments updated since cursor time are fetched. Result is shared by all callers with the same cursor,
+     * so jobs and consumers of one check page comments once.
+     */
+    @Nonnull
+    public synchronized List<GitHubPRComment> getCommentsAfter(@Nonnull GitHubPRCommentCursor cursor)
+            throws IOException {
+        List<GitHubPRComment> result = newComments.get(cursor);
+        if (result == null) {
+            result = Collections.unmodifiableList(fetchCommentsAfter(cursor));
+            newComments.put(cursor, result);
+        }
+        return result;
+    }
+
+    private List<GitHubPRComment> fetchCommentsAfter(GitHubPRCommentCursor cursor) throws IOException {
+        if (restClient == null) {
+            return listCommentsAfter(cursor);
+        }
+
+        String path = "/repos/" + remotePR.getRepository().getFullName() + "/issues/" + number + "/comments";
+        Date since = cursor.getCreatedAt();
+        if (since != null) {
+            path += "?since=" + GitHubPRRestClient.formatDate(since);
+        }
+
+        List<GitHubPRComment> result = new ArrayList<>();
+        int page = 1;
+        JSONArray comments;
+        do {
+            comments = restClient.getPage(path, page++);
+            for (int i = 0; i < comments.size(); i++) {
+                GitHubPRComment comment = GitHubPRComment.fromJson(comments.getJSONObject(i));
+                // since matches update time, so old edited comments come too
+                if (cursor.isBefore(comment)) {
+                    result.add(comment);
+                }
+            }
+        } while (comments.size() == GitHubPRRestClient.MAX_PAGE_SIZE);
+
+        LOGGER.trace("PR #{}: {} comments after {} in {} pages", number, result.size(), cursor, page - 1);
+        return result;
+    }
+
+    private List<GitHubPRComment> listCommentsAfter(GitHubPRCommentCursor cursor) throws IOException {
+        List<GitHubPRComment> result = new ArrayList<>();
+        for (GHIssueComment ghComment : remotePR.listComments()) {
+            GitHubPRComment comment = new GitHubPRComment(ghComment.getId(), ghComment.getBody(),
+                    ghComment.getUserName(), ghComment.getCreatedAt());
+            if (cursor.isBefore(comment)) {
+                result.add(comment);
+            }
+        }
+
+        LOGGER.trace("PR #{}: {} comments after {} listed without REST client", number, result.size(), cursor);
+        return result;
+    }
+
+    /**
+     * Remembers last comment found by {@link GitHubPRCommentPipeline}, so comments are not walked again.
+     */
+    public synchronized void setLastCommentCursor(@Nonnull GitHubPRCommentCursor cursor) {
+        if (lastCommentCursor == null) {
+            lastCommentCursor = cursor;
+        }
+    }
+
+    /**
+     * @param previous cursor saved by last check, null when PR is not known yet
+     * @return cursor of the last PR comment
+     */
+    @Nonnull
+    public synchronized GitHubPRCommentCursor getLastCommentCursor(@CheckForNull GitHubPRCommentCursor previous)
+            throws IOException {
+        if (lastCommentCursor == null) {
+            GitHubPRCommentCursor cursor = previous == null ? GitHubPRCommentCursor.EMPTY : previous;
+            for (GitHubPRComment comment : getCommentsAfter(cursor)) {
+                cursor = cursor.advance(comment);
+            }
+            lastCommentCursor = cursor;
+        }
+        return lastCommentCursor;
+    }
+
+    /**
+     * State that should be saved for comparison on next check.
+     */
+    @Nonnull
+    public GitHubPRPullRequest getPullRequest() throws IOException {
+        return getPullRequest(null);
+    }
+
+    /**
+     * @param previous state saved by last check, its comment cursor limits fetched comments.
+     *                 First call wins: later callers get copy of the same state, remote data doesn't depend on job
+     */
+    @Nonnull
+    public synchronized GitHubPRPullRequest getPullRequest(@CheckForNull GitHubPRPullRequest previous)
+            throws IOException {
+        if (pullRequest == null) {
+            pullRequest = new GitHubPRPullRequest(this, previous == null ? null : previous.getCommentCursor());
+            return pullRequest;
+        }
+        // every job stores own instance
+        return new GitHubPRPullRequest(pullRequest, this);
+    }
+}
@@ -0,0 +1,219 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remote repository state shared by all jobs that watch the same repository.
+ * Open PRs list is fetched once per snapshot lifetime and every job gets the same immutable list,
+ * per-PR data (labels, comments) is fetched once per PR update via shared {@link GitHubPRSnapshot}s.
+ * Jobs still compare it with their own {@link GitHubPRRepository} state, so API usage depends on number
+ * of repositories and not on number of jobs.
+ * Snapshots of closed PRs are not kept, snapshots that nobody took for lifetime are dropped.
+ */
+public class GitHubPRSnapshotService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRSnapshotService.class);
+    /**
+     * Unused snapshots live at least this long, so jobs of one check share them even with zero lifetime
+     */
+    private static final long MIN_IDLE = TimeUnit.MINUTES.toMillis(1);
+
+    private final ConcurrentMap<String, RepoState> repos = new ConcurrentHashMap<>();
+    private final AtomicLong sweptAt = new AtomicLong(System.currentTimeMillis());
+    private volatile long lifetime;
+
+    /**
+     * @param lifetime how long fetched open PRs list is reused, ms
+     */
+    public GitHubPRSnapshotService(long lifetime) {
+        this.lifetime = lifetime;
+    }
+
+    public void setLifetime(long lifetime) {
+        this.lifetime = lifetime;
+    }
+
+    public long getLifetime() {
+        return lifetime;
+    }
+
+    /**
+     * Open PRs of repository, fetched at most once per lifetime for all callers.
+     * Concurrent callers for the same repository wait for one request.
+     */
+    @Nonnull
+    public List<GHPullRequest> getOpenPulls(@Nonnull String apiUrl, @Nonnull GHRepository ghRepository)
+            throws IOException {
+        return getOpenPulls(apiUrl, ghRepository, null);
+    }
+
+    /**
+     * Same as {@link #getOpenPulls(String, GHRepository)}, but list is fetched again before lifetime ends
+     * when caller saw other remote version of it. Callers that see the same version share one fetch.
+     *
+     * @param version remote version of open PRs list known to caller (i.e. ETag), null when unknown
+     */
+    @Nonnull
+    public List<GHPullRequest> getOpenPulls(@Nonnull String apiUrl, @Nonnull GHRepository ghRepository,
+                                            @CheckForNull String version) throws IOException {
+        RepoState repoState = getRepoState(apiUrl, ghRepository.getFullName());
+        synchronized (repoState) {
+            long now = System.currentTimeMillis();
+            boolean changed = version != null && !version.equals(repoState.version);
+            if (changed || repoState.openPulls == null || now - repoState.fetchedAt >= lifetime) {
+                LOGGER.debug("Fetching open PRs of {}", ghRepository.getFullName());
+                repoState.openPulls = Collections.unmodifiableList(
+                        new ArrayList<>(ghRepository.getPullRequests(GHIssueState.OPEN)));
+                repoState.fetchedAt = now;
+                if (version != null) {
+                    repoState.version = version;
+                }
+                forgetClosed(repoState);
+            } else {
+                LOGGER.debug("Reusing open PRs of {} fetched at {}",
+                        ghRepository.getFullName(), new Date(repoState.fetchedAt));
+            }
+            return repoState.openPulls;
+        }
+    }
+
+    /**
+     * Shared snapshot for PR. Snapshot is reused while PR wasn't updated on remote,
+     * so events of all jobs see the same labels and comments. Snapshot of PR that is not open is not kept,
+     * it is not updated any more and would stay in memory until it's idle.
+     *
+     * @param restClient client of apiUrl connection, new snapshot fetches comments with it
+     */
+    @Nonnull
+    public GitHubPRSnapshot getSnapshot(@Nonnull String apiUrl, @Nonnull String repoFullName,
+                                        @Nonnull GHPullRequest remotePR,
+                                        @Nonnull GitHubPRRestClient restClient) throws IOException {
+        RepoState repoState = getRepoState(apiUrl, repoFullName);
+        long now = System.currentTimeMillis();
+        long sweptAt = this.sweptAt.get();
+        if (now - sweptAt >= getIdle() && this.sweptAt.compareAndSet(sweptAt, now)) {
+            forgetIdle(now);
+        }
+
+        if (remotePR.getState() != GHIssueState.OPEN) {
+            repoState.snapshots.remove(remotePR.getNumber());
+            return new GitHubPRSnapshot(remotePR, restClient);
+        }
+
+        Date updatedAt = remotePR.getUpdatedAt();
+        Date issueUpdatedAt = remotePR.getIssueUpdatedAt();
+
+        while (true) {
+            GitHubPRSnapshot snapshot = repoState.snapshots.get(remotePR.getNumber());
+            if (snapshot != null && isSame(snapshot.getRemotePR(), updatedAt, issueUpdatedAt)) {
+                snapshot.setLatestPR(remotePR);
+                snapshot.setUsedAt(now);
+                return snapshot;
+            }
+
+            GitHubPRSnapshot newSnapshot = new GitHubPRSnapshot(remotePR, restClient);
+            if (snapshot == null) {
+                if (repoState.snapshots.putIfAbsent(remotePR.getNumber(), newSnapshot) == null) {
+                    return newSnapshot;
+                }
+            } else if (repoState.snapshots.replace(remotePR.getNumber(), snapshot, newSnapshot)) {
+                return newSnapshot;
+            }
+            // other job put snapshot in between, check it again
+        }
+    }
+
+    /**
+     * Drops snapshots of PRs that are not open anymore, called after open PRs list was fetched.
+     */
+    private static void forgetClosed(RepoState repoState) {
+        List<Integer> open = new ArrayList<>(repoState.openPulls.size());
+        for (GHPullRequest pr : repoState.openPulls) {
+            open.add(pr.getNumber());
+        }
+        repoState.snapshots.keySet().retainAll(open);
+    }
+
+    /**
+     * Drops snapshots that were not taken for lifetime. Called by {@link #getSnapshot} at most once per lifetime,
+     * covers PRs that are not listed as open any more, i.e. when only hooks check repository.
+     */
+    void forgetIdle(long now) {
+        long idle = getIdle();
+        for (RepoState repoState : repos.values()) {
+            for (Iterator<GitHubPRSnapshot> it = repoState.snapshots.values().iterator(); it.hasNext(); ) {
+                if (now - it.next().getUsedAt() >= idle) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private long getIdle() {
+        return Math.max(lifetime, MIN_IDLE);
+    }
+
+    /**
+     * Forget everything, i.e. after connection settings changed.
+     */
+    public void clear() {
+        repos.clear();
+    }
+
+    private RepoState getRepoState(String apiUrl, String repoFullName) {
+        String key = key(apiUrl, repoFullName);
+        RepoState repoState = repos.get(key);
+        if (repoState == null) {
+            RepoState newState = new RepoState();
+            repoState = repos.putIfAbsent(key, newState);
+            if (repoState == null) {
+                repoState = newState;
+            }
+        }
+        return repoState;
+    }
+
+    private static boolean isSame(GHPullRequest pr, @CheckForNull Date updatedAt, @CheckForNull Date issueUpdatedAt)
+            throws IOException {
+        return equals(pr.getUpdatedAt(), updatedAt) && equals(pr.getIssueUpdatedAt(), issueUpdatedAt);
+    }
+
+    private static boolean equals(@CheckForNull Date date1, @CheckForNull Date date2) {
+        return date1 == null ? date2 == null : date1.equals(date2);
+    }
+
+    private static String key(String apiUrl, String repoFullName) {
+        // GitHub names are case insensitive
+        return apiUrl + "#" + repoFullName.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static class RepoState {
+        // guarded by this
+        private List<GHPullRequest> openPulls;
+        private long fetchedAt;
+        /**
+         * Remote version of open PRs list that callers reported when it was fetched
+         */
+        @CheckForNull
+        private String version;
+
+        private final ConcurrentMap<Integer, GitHubPRSnapshot> snapshots = new ConcurrentHashMap<>();
+    }
+}
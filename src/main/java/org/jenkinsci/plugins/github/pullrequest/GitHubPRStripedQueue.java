@@ -0,0 +1,273 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue for hook initiated trigger runs.
+ * Tasks with the same key (job) are executed one by one in submit order, so job local state stays consistent,
+ * tasks of different keys run in parallel on bounded pool, so one slow repository doesn't block others.
+ * Stripe of key is dropped once it has nothing to run, so deleted and renamed jobs don't stay in queue.
+ */
+public class GitHubPRStripedQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRStripedQueue.class);
+
+    private final ConcurrentMap<String, Stripe> stripes = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param threads max number of stripes executed at the same time
+     */
+    public GitHubPRStripedQueue(int threads) {
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "GitHubPRTrigger.hooks"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Executes task after all previously submitted tasks with the same key.
+     */
+    public void execute(@Nonnull String key, @Nonnull Runnable task) {
+        Task queued = new Task(task);
+        while (!getStripe(key).add(queued)) {
+            // stripe was dropped after getStripe(), next call creates new one
+        }
+    }
+
+    /**
+     * Runs task in caller thread when no task with the same key runs or waits,
+     * tasks submitted meanwhile wait in queue without taking pool thread and run after it.
+     *
+     * @return false when task was not run, because other task with the same key runs or waits
+     */
+    public boolean runIfIdle(@Nonnull String key, @Nonnull Runnable task) {
+        Boolean run;
+        do {
+            run = getStripe(key).runIfIdle(task);
+        } while (run == null);
+        return run;
+    }
+
+    public void setThreads(int threads) {
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Stripes of keys with running or waiting tasks sorted by depth, the deepest first.
+     */
+    @Nonnull
+    public List<Stripe> getStripes() {
+        List<Stripe> list = new ArrayList<>(stripes.values());
+        Collections.sort(list, new Comparator<Stripe>() {
+            @Override
+            public int compare(Stripe o1, Stripe o2) {
+                return Integer.compare(o2.getDepth(), o1.getDepth());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Stop accepting tasks, already queued ones are not executed.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Stripe getStripe(String key) {
+        Stripe stripe = stripes.get(key);
+        if (stripe == null) {
+            Stripe newStripe = new Stripe(key);
+            stripe = stripes.putIfAbsent(key, newStripe);
+            if (stripe == null) {
+                stripe = newStripe;
+            }
+        }
+        return stripe;
+    }
+
+    /**
+     * Serial queue of one key with its wait statistics.
+     */
+    public class Stripe implements Runnable {
+        private final String key;
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        /**
+         * Whether stripe is submitted to pool or runs in caller thread, only one thread executes stripe at a time
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        /**
+         * Stripe is removed from queue, tasks go to new stripe of the same key. Guarded by this
+         */
+        private boolean dropped;
+
+        private final AtomicLong executed = new AtomicLong();
+        private final AtomicLong totalWait = new AtomicLong();
+        private volatile long lastWait;
+        private volatile long maxWait;
+
+        private Stripe(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return false when stripe is dropped and task should go to new stripe
+         */
+        private synchronized boolean add(Task task) {
+            if (dropped) {
+                return false;
+            }
+            tasks.add(task);
+            depth.incrementAndGet();
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    LOGGER.debug("Queue is shut down, {} tasks of {} are not executed", tasks.size(), key);
+                }
+            }
+        }
+
+        /**
+         * @return null when stripe is dropped and task should go to new stripe
+         */
+        private Boolean runIfIdle(Runnable task) {
+            synchronized (this) {
+                if (dropped) {
+                    return null;
+                }
+                if (!tasks.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return false;
+                }
+            }
+            try {
+                task.run();
+            } finally {
+                release();
+            }
+            return true;
+        }
+
+        /**
+         * Lets next task run or drops stripe when there is nothing to run.
+         */
+        private void release() {
+            synchronized (this) {
+                scheduled.set(false);
+                if (tasks.isEmpty()) {
+                    dropped = true;
+                    stripes.remove(key, this);
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        /**
+         * Runs one task and gives thread to other stripes.
+         */
+        @Override
+        public void run() {
+            try {
+                Task task = tasks.poll();
+                if (task != null) {
+                    depth.decrementAndGet();
+                    recordWait(System.currentTimeMillis() - task.queuedAt);
+                    try {
+                        task.runnable.run();
+                    } catch (Throwable t) {
+                        LOGGER.error("Task of {} failed", key, t);
+                    }
+                }
+            } finally {
+                release();
+            }
+        }
+
+        private void recordWait(long wait) {
+            executed.incrementAndGet();
+            totalWait.addAndGet(wait);
+            lastWait = wait;
+            if (wait > maxWait) {
+                maxWait = wait;
+            }
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Tasks waiting for execution
+         */
+        public int getDepth() {
+            return depth.get();
+        }
+
+        public long getExecuted() {
+            return executed.get();
+        }
+
+        /**
+         * Ms between submit and start of last executed task
+         */
+        public long getLastWait() {
+            return lastWait;
+        }
+
+        public long getMaxWait() {
+            return maxWait;
+        }
+
+        public long getAvgWait() {
+            long count = executed.get();
+            return count == 0 ? 0 : totalWait.get() / count;
+        }
+    }
+
+    private static class Task {
+        private final Runnable runnable;
+        private final long queuedAt = System.currentTimeMillis();
+
+        private Task(Runnable runnable) {
+            this.runnable = runnable;
+        }
+    }
+}
@@ -9,13 +9,16 @@ import com.squareup.okhttp.OkUrlFactory;
 import hudson.Extension;
 import hudson.Util;
 import hudson.model.*;
+import hudson.model.listeners.ItemListener;
 import hudson.model.queue.QueueTaskFuture;
 import hudson.triggers.Trigger;
 import hudson.triggers.TriggerDescriptor;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.FormValidation;
-import hudson.util.SequentialExecutionQueue;
+import hudson.util.NamingThreadFactory;
 import hudson.util.StreamTaskListener;
 import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
@@ -31,18 +34,33 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.PrintStream;
 import java.net.Proxy;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Arrays.asList;
@@ -74,6 +92,14 @@ import static org.jenkinsci.plugins.github.pullrequest.data.GitHubPREnv.*;
 public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRTrigger.class);
     private static final Cause NO_CAUSE = null;
+    /**
+     * Default page size of GitHub list requests
+     */
+    private static final int CLOSED_PULLS_PAGE_SIZE = 30;
+    /**
+     * How often incremental polling lists all open PRs
+     */
+    private static final long FULL_CHECK_PERIOD = TimeUnit.DAYS.toMillis(1);
 
     @CheckForNull
     private GitHubPRTriggerMode triggerMode = CRON;
@@ -86,6 +112,10 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
     private boolean cancelQueued = false;
     private boolean skipFirstRun = false;
     @CheckForNull
+    private GitHubPRPollingStrategy pollingStrategy = GitHubPRPollingStrategy.FULL;
+    @CheckForNull
+    private GitHubPRPollingPriority pollingPriority = GitHubPRPollingPriority.NORMAL;
+    @CheckForNull
     private GitHubPRUserRestriction userRestriction;
     @CheckForNull
     private GitHubPRBranchRestriction branchRestriction;
@@ -96,6 +126,10 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
 
     @CheckForNull
     private transient GitHubPRPollingLogAction pollingLogAction;
+    /**
+     * Cron check waits in hook queue behind hook checks, at most one per job
+     */
+    private transient volatile boolean cronRunQueued;
 
     @DataBoundConstructor
     public GitHubPRTrigger(String spec,
@@ -121,6 +155,16 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
         this.skipFirstRun = skipFirstRun;
     }
 
+    @DataBoundSetter
+    public void setPollingStrategy(GitHubPRPollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+
+    @DataBoundSetter
+    public void setPollingPriority(GitHubPRPollingPriority pollingPriority) {
+        this.pollingPriority = pollingPriority;
+    }
+
     @DataBoundSetter
     public void setUserRestriction(GitHubPRUserRestriction userRestriction) {
         this.userRestriction = userRestriction;
@@ -136,7 +180,15 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
         LOGGER.info("Starting GitHub Pull Request trigger for project {}", project.getName());
         super.start(project, newInstance);
 
-        if (getTriggerMode() != CRON) {
+        GitHubPRJobIndex index = GitHubPRJobIndex.get();
+        if (index != null) {
+            index.update(project);
+        }
+        if (newInstance) {
+            GitHubPRRepositoryFactory.reconfigured(project);
+        }
+
+        if (getTriggerMode() != CRON && getTriggerMode() != CRON_ADAPTIVE) {
             //TODO implement
             return;
         }
@@ -169,66 +221,384 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
 
     @Override
     public void run() {
-        if (getTriggerMode() != null && getTriggerMode() == CRON) {
-            doRun(null);
+        if (getTriggerMode() == CRON || getTriggerMode() == HEAVY_HOOKS_CRON) {
+            doCronRun();
+        } else if (getTriggerMode() == CRON_ADAPTIVE && isPollDue()) {
+            doCronRun();
+        }
+    }
+
+    /**
+     * Cron check runs in cron thread, but in order with hook checks of job, so they never change
+     * repository state at the same time. While hook check of job runs or waits, cron check is queued after it
+     * instead of skipping the tick, so steady hook flow doesn't postpone check that catches missed hooks.
+     */
+    private void doCronRun() {
+        if (job == null) {
+            return;
+        }
+        String jobName = job.getFullName();
+        boolean run = getDescriptor().getHookQueue().runIfIdle(jobName, new Runnable() {
+            @Override
+            public void run() {
+                doRun(null);
+            }
+        });
+        if (run) {
+            return;
+        }
+
+        if (!markCronRunQueued()) {
+            LOGGER.debug("Cron check of {} already waits for hook checks", jobName);
+            return;
+        }
+        LOGGER.debug("Hook check of {} runs or waits, cron check is queued after it", jobName);
+        getDescriptor().getHookQueue().execute(jobName, new Runnable() {
+            @Override
+            public void run() {
+                cronRunQueued = false;
+                doRun(null);
+            }
+        });
+    }
+
+    private synchronized boolean markCronRunQueued() {
+        if (cronRunQueued) {
+            return false;
+        }
+        cronRunQueued = true;
+        return true;
+    }
+
+    /**
+     * Adaptive mode checks on cron ticks only when planned time of next check came.
+     */
+    private boolean isPollDue() {
+        GitHubPRRepository localRepository = job == null ? null : job.getAction(GitHubPRRepository.class);
+        if (localRepository == null || localRepository.getPollingState().isPollDue(System.currentTimeMillis())) {
+            return true;
+        }
+
+        LOGGER.trace("Skipping check of {} until {}", job.getFullName(),
+                localRepository.getPollingState().getNextPoll());
+        return false;
+    }
+
+    /**
+     * For running from external places. Goes to job's queue, runs of one job are serial.
+     * Runs for the same PR requested within coalescing window are collapsed into one.
+     */
+    public void queueRun(AbstractProject<?, ?> job, int prNumber) {
+        queueRun(job, prNumber, null);
+    }
+
+    /**
+     * Same as {@link #queueRun(AbstractProject, int)}, but run is journaled before queueing,
+     * so it survives Jenkins restart.
+     *
+     * @param event hook event that requested run
+     */
+    public void queueRun(AbstractProject<?, ?> job, int prNumber, @CheckForNull GHEvent event) {
+        journalRun(job, prNumber, event);
+        submitRun(job, prNumber);
+    }
+
+    /**
+     * Journals run without queueing it, so it is done by replay after restart.
+     * Used for hooks that weren't dispatched before shutdown.
+     */
+    public void journalRun(AbstractProject<?, ?> job, int prNumber, @CheckForNull GHEvent event) {
+        getDescriptor().getHookJournal().accept(job.getFullName(), prNumber, event == null ? "-" : event.name());
+    }
+
+    /**
+     * Queues run that is already in journal, i.e. not finished before restart.
+     */
+    public void replayRun(AbstractProject<?, ?> job, int prNumber) {
+        submitRun(job, prNumber);
+    }
+
+    private void submitRun(AbstractProject<?, ?> job, final int prNumber) {
+        this.job = job;
+        final String jobName = job.getFullName();
+        final GitHubPRHookJournal journal = getDescriptor().getHookJournal();
+        getDescriptor().getHookCoalescer().submit(jobName, prNumber, new Runnable() {
+            @Override
+            public void run() {
+                // hooks journaled before check start are covered by it
+                long upTo = journal.getLastSeq();
+                // failed check stays in journal and is replayed after restart,
+                // state is written before marking done, so crash can't lose checked hook
+                if (doRun(Collections.singletonList(prNumber), null, true)) {
+                    journal.done(jobName, prNumber, upTo);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues recheck of open PRs that target pushed branch, because their merge result changed.
+     * Pushes to the same branch within push recheck window are collapsed into one recheck.
+     * Recheck isn't journaled: next push or cron check covers lost one.
+     */
+    public void queueBaseRecheck(AbstractProject<?, ?> job, final String baseRef) {
+        final int limit = getDescriptor().getPushRecheckLimit();
+        if (limit <= 0) {
+            return;
         }
+        this.job = job;
+        getDescriptor().getPushCoalescer().submit(job.getFullName(), "@" + baseRef, new Runnable() {
+            @Override
+            public void run() {
+                List<Integer> numbers = findPullsByBaseRef(baseRef, limit);
+                if (numbers.isEmpty()) {
+                    LOGGER.debug("No open PRs of {} target {}", getRepoFullName(), baseRef);
+                    return;
+                }
+                doRun(numbers, baseRef + " was updated", false);
+            }
+        });
     }
 
     /**
-     * For running from external places. Goes to queue.
+     * @return open PRs known to job that target branch, recently updated first
      */
-    public void queueRun(AbstractProject<?, ?> job, final int prNumber) {
+    private List<Integer> findPullsByBaseRef(String baseRef, int limit) {
+        GitHubPRRepository localRepository = job == null ? null : job.getAction(GitHubPRRepository.class);
+        if (localRepository == null) {
+            return Collections.emptyList();
+        }
+
+        // running check may put or remove PRs, they are changed under repository lock
+        List<GitHubPRPullRequest> known;
+        synchronized (localRepository) {
+            known = new ArrayList<>(localRepository.getPulls().values());
+        }
+
+        List<GitHubPRPullRequest> pulls = new ArrayList<>();
+        for (GitHubPRPullRequest pull : known) {
+            if (baseRef.equals(pull.getBaseRef())) {
+                pulls.add(pull);
+            }
+        }
+        Collections.sort(pulls, new Comparator<GitHubPRPullRequest>() {
+            @Override
+            public int compare(GitHubPRPullRequest o1, GitHubPRPullRequest o2) {
+                return o2.getPrUpdatedAt().compareTo(o1.getPrUpdatedAt());
+            }
+        });
+
+        if (pulls.size() > limit) {
+            LOGGER.info("{} open PRs of {} target {}, rechecking {} recently updated",
+                    pulls.size(), getRepoFullName(), baseRef, limit);
+        }
+        List<Integer> numbers = new ArrayList<>();
+        for (GitHubPRPullRequest pull : pulls.subList(0, Math.min(limit, pulls.size()))) {
+            numbers.add(pull.getNumber());
+        }
+        return numbers;
+    }
+
+    /**
+     * Queues check of hook in {@link GitHubPRTriggerMode#LIGHT_HOOKS} mode.
+     * Hooks are not coalesced, because every hook carries own event.
+     */
+    public void queueHook(AbstractProject<?, ?> job, final GitHubPRHookPayload payload) {
         this.job = job;
-        getDescriptor().queue.execute(new Runnable() {
+        getDescriptor().getHookQueue().execute(job.getFullName(), new Runnable() {
             @Override
             public void run() {
-                doRun(prNumber);
+                doRunHook(payload);
             }
         });
     }
 
+    /**
+     * Runs events against hook payload. Local repository state is neither used nor changed.
+     */
+    public void doRunHook(@Nonnull GitHubPRHookPayload payload) {
+        if (job == null || job.isDisabled()) {
+            LOGGER.debug("Job {} is disabled, but trigger run!", job == null ? "no job" : job.getFullName());
+            return;
+        }
+
+        if (getTriggerMode() != LIGHT_HOOKS) {
+            LOGGER.warn("Hook {} is not expected in {} mode ({})", payload, getTriggerMode(), job.getFullName());
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        GitHubPRCause cause;
+
+        try (StreamTaskListener listener = new StreamTaskListener(getPollingLogAction().getLogFile())) {
+            final PrintStream logger = listener.getLogger();
+            logger.println("Started on " + DateFormat.getDateTimeInstance().format(new Date())
+                    + " by " + payload.getEvent() + " hook (" + payload.getAction() + ") for PR #" + payload.getNumber());
+
+            cause = checkHook(payload, listener);
+            if (payload.isFetched()) {
+                logger.println("PR #" + payload.getNumber() + " was fetched, hook payload had not enough data");
+            }
+
+            long duration = System.currentTimeMillis() - startTime;
+            LOGGER.info("End GitHub Pull Request hook check for {}. Summary time: {}ms", payload, duration);
+            logger.println("Finished at " + DateFormat.getDateTimeInstance().format(new Date())
+                    + ", duration " + duration + "ms");
+        } catch (Throwable e) {
+            LOGGER.error("can't trigger build {}", e.getMessage());
+            return;
+        }
+
+        if (cause != null) {
+            try {
+                cause.setPollingLog(pollingLogAction.getLogFile());
+                build(cause);
+            } catch (IOException e) {
+                LOGGER.error("can't trigger build {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Restrictions and events are checked against hook payload, PR is fetched only when payload is not enough.
+     *
+     * @return cause of build, null when hook is skipped
+     */
+    @CheckForNull
+    GitHubPRCause checkHook(GitHubPRHookPayload payload, TaskListener listener) throws IOException {
+        final PrintStream logger = listener.getLogger();
+        int number = payload.getNumber();
+
+        if (!payload.isAboutPullRequest()) {
+            logger.println("Issue #" + number + " is not PR, skipping");
+            return null;
+        }
+
+        if (branchRestriction != null) {
+            String baseRef = payload.getBaseRef();
+            if (baseRef == null) {
+                baseRef = payload.getSnapshot(getGitHub()).getRemotePR().getBase().getRef();
+            }
+            if (!branchRestriction.isBranchBuildAllowed(baseRef)) {
+                LOGGER.warn("Skipping #{} because of branch restriction", number);
+                logger.println("Skipping #" + number + " because of branch restriction");
+                return null;
+            }
+        }
+
+        if (userRestriction != null) {
+            String author = payload.getAuthor();
+            if (author == null || !userRestriction.isWhitelisted(getGitHub().getUser(author))) {
+                LOGGER.warn("Skipping #{} because of user restriction (user - {})", number, author);
+                logger.println("Skipping #" + number + " because of user restriction (user - " + author + ")");
+                return null;
+            }
+        }
+
+        for (GitHubPREvent event : getEvents()) {  // waterfall, first matched win
+            try {
+                GitHubPRCause cause = event.checkHook(this, payload, listener);
+                if (cause != null) {
+                    if (cause.isSkip()) {
+                        LOGGER.debug("Skipping PR #{}", number);
+                        logger.println("Skipping PR #" + number);
+                        return null;
+                    }
+                    LOGGER.debug("Triggering build for PR #'{}', because {}", number, cause.getReason());
+                    logger.println("Triggering build for PR #" + number + " because " + cause.getReason());
+                    return cause;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Can't check trigger event", e);
+                listener.error("Skip event failed, so skipping PR");
+                return null;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Runs check
      * @param prNumber - PR number for check, if null - then all RPs
      */
     public void doRun(Integer prNumber) {
+        doRun(prNumber == null ? null : Collections.singletonList(prNumber), null, false);
+    }
+
+    /**
+     * @param numbers       PRs to check, null - all PRs
+     * @param recheckReason when not null, PRs are built with this reason even without own changes
+     * @param saveNow       write state in this thread, otherwise it's written behind
+     * @return false when check failed or was deferred, true when it finished or there is nothing to check
+     */
+    private boolean doRun(@CheckForNull Collection<Integer> numbers, @CheckForNull String recheckReason,
+                          boolean saveNow) {
         if (job == null || job.isDisabled()) {
             LOGGER.debug("Job {} is disabled, but trigger run!", job == null ? "no job" : job.getFullName());
-            return;
+            return true;
         }
 
-        if (!(getTriggerMode() == CRON || getTriggerMode() == HEAVY_HOOKS)) {
+        if (!(getTriggerMode() == CRON || getTriggerMode() == CRON_ADAPTIVE
+                || getTriggerMode() == HEAVY_HOOKS || getTriggerMode() == HEAVY_HOOKS_CRON)) {
             LOGGER.warn("Trigger mode {} is not supported yet ({})", getTriggerMode(), job.getFullName());
-            return;
+            return true;
         }
 
         GitHubPRRepository localRepository = job.getAction(GitHubPRRepository.class);
         if (localRepository == null) {
             LOGGER.warn("Can't get repository info, maybe project {} misconfigured?", job.getFullName());
-            return;
+            return true;
         }
 
         long startTime = System.currentTimeMillis();
 
         List<GitHubPRCause> causes = Collections.emptyList();
+        boolean succeeded = true;
 
         try (StreamTaskListener listener = new StreamTaskListener(getPollingLogAction().getLogFile())) {
             final PrintStream logger = listener.getLogger();
             logger.println("Started on " + DateFormat.getDateTimeInstance().format(new Date()));
             LOGGER.debug("Running GitHub Pull Request trigger check.");
 
-            try {
-                causes = check(localRepository, listener, prNumber);
-            } catch (IOException e) {
-                listener.error("Can't save repository state, because " + e.getMessage());
-                LOGGER.error("Can't save repository state, because: '{}'", e.getMessage());
+            if (numbers == null) {
+                String deferReason = getDescriptor().getRateLimitScheduler()
+                        .deferReason(job.getFullName(), getPollingPriority());
+                if (deferReason != null) {
+                    LOGGER.info("Check of {} deferred: {}", job.getFullName(), deferReason);
+                    logger.println("Check deferred: " + deferReason);
+                    return false;
+                }
             }
 
             try {
-                localRepository.save();
+                CheckOutcome outcome = check(localRepository, listener, numbers, recheckReason);
+                causes = outcome.getCauses();
+                // PRs that failed are checked by next run, hook run stays in journal for it
+                succeeded = outcome.isCompleted();
             } catch (IOException e) {
                 listener.error("Can't save repository state, because " + e.getMessage());
                 LOGGER.error("Can't save repository state, because: '{}'", e.getMessage());
+                succeeded = false;
+            }
+
+            GitHubPRPersister persister = getDescriptor().getPersister();
+            String saveFailure = persister.takeFailure(localRepository);
+            if (saveFailure != null) {
+                listener.error("Previous save of repository state failed, because " + saveFailure);
+            }
+            // unchanged state is skipped by save() itself
+            if (saveNow) {
+                try {
+                    persister.saveNow(localRepository);
+                } catch (IOException | RuntimeException e) {
+                    listener.error("Can't save repository state, because " + e.getMessage());
+                    LOGGER.error("Can't save repository state of {}", job.getFullName(), e);
+                    succeeded = false;
+                }
+            } else {
+                persister.save(localRepository);
             }
 
             long duration = System.currentTimeMillis() - startTime;
@@ -237,7 +607,7 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
                     + ", duration " + duration + "ms");
         } catch (Throwable e) {
             LOGGER.error("can't trigger build {}", e.getMessage());
-            return;
+            return false;
         }
 
         for (GitHubPRCause cause : causes) {
@@ -248,6 +618,7 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
                 LOGGER.error("can't trigger build {}", e.getMessage(), e);
             }
         }
+        return succeeded;
     }
 
     @CheckForNull
@@ -280,9 +651,56 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
      */
     public List<GitHubPRCause> check(GitHubPRRepository localRepository, TaskListener listener, Integer prNumber)
             throws IOException {
+        return check(localRepository, listener,
+                prNumber == null ? null : Collections.singletonList(prNumber), null).getCauses();
+    }
+
+    /**
+     * Requests are counted for this check only, other checks run at the same time and change global rate limit.
+     */
+    private CheckOutcome check(GitHubPRRepository localRepository, TaskListener listener,
+                               @CheckForNull Collection<Integer> numbers,
+                               @CheckForNull String recheckReason)
+            throws IOException {
+        GitHubPRRateLimitTracker rateLimitTracker = getDescriptor().getRateLimitTracker();
+        GitHubPRRateLimitTracker.RequestCounter requests = new GitHubPRRateLimitTracker.RequestCounter();
+        rateLimitTracker.startCounting(requests);
+        try {
+            return doCheck(localRepository, listener, numbers, recheckReason, requests);
+        } finally {
+            rateLimitTracker.stopCounting();
+        }
+    }
+
+    private CheckOutcome doCheck(GitHubPRRepository localRepository, TaskListener listener,
+                                 @CheckForNull Collection<Integer> numbers,
+                                 @CheckForNull final String recheckReason,
+                                 GitHubPRRateLimitTracker.RequestCounter requests)
+            throws IOException {
         final PrintStream logger = listener.getLogger();
 
-        GHRateLimit rateLimitBefore = getGitHub().getRateLimit();
+        RemoteValidators validators = null;
+        if (numbers == null && !skipFirstRun) {
+            try {
+                validators = fetchRemoteValidators(localRepository.getPollingState());
+            } catch (IOException e) {
+                LOGGER.warn("Can't do conditional requests for {}, doing full check: {}",
+                        getRepoFullName(), e.getMessage());
+            }
+            if (validators != null && validators.isNotModified()) {
+                LOGGER.debug("No changes (304) in {}", getRepoFullName());
+                logger.println("No changes (304)");
+                GitHubPRPollingState pollingState = localRepository.getPollingState();
+                pollingState.setPollInterval(validators.getPollInterval());
+                pollingState.scheduleNextPoll(false, System.currentTimeMillis());
+                // conditional requests answered with 304 don't count against rate limit
+                getDescriptor().getRateLimitScheduler().recordCheck(job.getFullName(), getPollingPriority(), 0);
+                return new CheckOutcome(Collections.<GitHubPRCause>emptyList(), true);
+            }
+        }
+
+        GitHubPRRateLimitTracker rateLimitTracker = getDescriptor().getRateLimitTracker();
+        GitHubPRRateLimitTracker.State rateLimitBefore = rateLimitTracker.getState();
         LOGGER.debug("GitHub rate limit before check: {}", rateLimitBefore);
         logger.println("GitHub rate limit before check: " + rateLimitBefore);
         int checkedPR = 0;
@@ -294,102 +712,141 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
         String repoFullName1 = getRepoFullName();
         GHRepository ghRepository = getGitHub().getRepository(repoFullName1);
 
+        GitHubPRPollingState pollingState = localRepository.getPollingState();
+        boolean fullCheck = false;
         List<GHPullRequest> remotePulls = new ArrayList<>();
-        if (prNumber == null) {
-            remotePulls = ghRepository.getPullRequests(GHIssueState.OPEN);
+        if (numbers == null && isIncrementalCheck(pollingState)) {
+            remotePulls = getUpdatedPullRequests(ghRepository, pollingState.getUpdatedCursor(), localPulls);
+            LOGGER.debug("{} PRs updated since {}", remotePulls.size(), pollingState.getUpdatedCursor());
+            logger.println("Incremental check, " + remotePulls.size()
+                    + " PRs updated since " + pollingState.getUpdatedCursor());
+        } else if (numbers == null) {
+            fullCheck = true;
+            // list cached by other job is reused only when it has the same remote version
+            remotePulls = new ArrayList<>(getDescriptor().getSnapshotService().getOpenPulls(
+                    getDescriptor().getApiUrl(), ghRepository,
+                    validators == null ? null : validators.getPullsVersion(pollingState)));
             // add PRs that was closed on remote
-            for (Map.Entry<Integer, GitHubPRPullRequest> localPr : localPulls.entrySet()) {
-                boolean contains = false;
-
-                for (GHPullRequest remotePR : remotePulls) {
-                    if (remotePR.getNumber() == localPr.getKey()) {
-                        contains = true;
-                        break;
-                    }
-                }
-
-                if (!contains) {
-                    remotePulls.add(ghRepository.getPullRequest(localPr.getKey()));
-                }
+            Set<Integer> closedNumbers = new HashSet<>(localPulls.keySet());
+            for (GHPullRequest remotePR : remotePulls) {
+                closedNumbers.remove(remotePR.getNumber());
             }
+            remotePulls.addAll(getClosedPullRequests(ghRepository,
+                    ghRepository.listPullRequests(GHIssueState.CLOSED), closedNumbers));
         } else {
-            remotePulls.add(ghRepository.getPullRequest(prNumber));
+            for (Integer number : numbers) {
+                remotePulls.add(ghRepository.getPullRequest(number));
+            }
         }
 
-        for (GHPullRequest remotePR : remotePulls) {
-            checkedPR++;
+        // results are applied in PR number order, so state, causes and log don't depend on workers scheduling
+        Collections.sort(remotePulls, new Comparator<GHPullRequest>() {
+            @Override
+            public int compare(GHPullRequest o1, GHPullRequest o2) {
+                return Integer.compare(o1.getNumber(), o2.getNumber());
+            }
+        });
 
-//            //prefetch
-//            remotePR.getLabels();
-//            remotePR.getMergedBy();
+        // reconciliation cron checks only what hooks missed
+        List<GHPullRequest> hookedPulls = Collections.emptyList();
+        if (numbers == null && getTriggerMode() == HEAVY_HOOKS_CRON) {
+            hookedPulls = removeHookedPulls(remotePulls, pollingState);
+            LOGGER.debug("{} PRs of {} already checked by hooks", hookedPulls.size(), repoFullName1);
+            logger.println(hookedPulls.size() + " PRs already checked by hooks, "
+                    + remotePulls.size() + " PRs to check");
+        }
 
+        boolean completed = true;
+        boolean changed = false;
+        List<Future<PRCheckResult>> results = new ArrayList<>(remotePulls.size());
+        ExecutorService executor = getDescriptor().getCheckExecutor();
+        for (final GHPullRequest remotePR : remotePulls) {
             //null if local not existed before
-            @CheckForNull GitHubPRPullRequest localPR = localPulls.get(remotePR.getNumber());
+            @CheckForNull final GitHubPRPullRequest localPR = localPulls.get(remotePR.getNumber());
+            // PR checked in pool thread sends requests for this check too
+            Callable<PRCheckResult> task = rateLimitTracker.counting(requests, new Callable<PRCheckResult>() {
+                @Override
+                public PRCheckResult call() throws IOException {
+                    return checkPR(remotePR, localPR, recheckReason);
+                }
+            });
 
-            if (!isUpdated(remotePR, localPR)) { // light check
-                LOGGER.debug("PR #{} '{}' not changed", remotePR.getNumber(), remotePR.getTitle());
-                logger.println("PR #" + remotePR.getNumber() + " '" + remotePR.getTitle() + "' not changed");
-                continue;
+            if (executor == null) {
+                FutureTask<PRCheckResult> future = new FutureTask<>(task);
+                future.run();
+                results.add(future);
+            } else {
+                results.add(executor.submit(task));
             }
+        }
 
-            switch (remotePR.getState()) {
-                case OPEN:
-                    localPulls.put(remotePR.getNumber(), new GitHubPRPullRequest(remotePR));
-                    break;
-                case CLOSED:
-                    localPulls.remove(remotePR.getNumber()); // don't store
-                    break;
+        for (int i = 0; i < results.size(); i++) {
+            GHPullRequest remotePR = remotePulls.get(i);
+            checkedPR++;
+
+            PRCheckResult result;
+            try {
+                result = results.get(i).get();
+            } catch (InterruptedException e) {
+                for (Future<PRCheckResult> future : results) {
+                    future.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while checking PRs of " + repoFullName1);
+            } catch (ExecutionException e) {
+                LOGGER.error("Can't check PR #{}", remotePR.getNumber(), e.getCause());
+                listener.error("Can't check PR #" + remotePR.getNumber() + ": " + e.getCause());
+                completed = false; // PR should be checked again next time
+                continue;
             }
 
-            if (userRestriction != null) {
-                userRestriction.populate(remotePR, localPR, this);
+            result.writeLogTo(logger);
+
+            if (numbers != null && remotePR.getState() == GHIssueState.OPEN) {
+                pollingState.markHooked(remotePR.getNumber(), remotePR.getHead().getSha(), remotePR.getUpdatedAt());
+            } else {
+                pollingState.forgetHooked(remotePR.getNumber());
             }
 
-            if (skipFirstRun) {
-                LOGGER.info("Skipping first run for {} and PR #{}",
-                        job.getFullName(), remotePR.getNumber());
-                logger.println("Skipping first run for " + job.getFullName() + " and PR #" + remotePR.getNumber());
+            if (!result.isUpdated()) {
                 continue;
             }
+            changed = true;
 
-            if (branchRestriction != null && branchRestriction.isBranchBuildAllowed(remotePR)) {
-                LOGGER.warn("Skipping #{} {} because of branch restriction",
-                        remotePR.getNumber(), remotePR.getTitle());
-                logger.println("Skipping #" + remotePR.getNumber() + " " + remotePR.getTitle() + " because of branch restriction");
-                continue;
+            if (result.getLocalPR() == null) {
+                localRepository.removePull(result.getNumber()); // don't store
+            } else {
+                localRepository.putPull(result.getLocalPR());
             }
 
-            if (userRestriction != null && !userRestriction.isWhitelisted(remotePR.getUser())) {
-                LOGGER.warn("Skipping #{} {} because of user restriction (user - {})",
-                        remotePR.getNumber(), remotePR.getTitle(), remotePR.getUser());
-                logger.println("Skipping #" + remotePR.getNumber() + " " + remotePR.getTitle()
-                        + " because of user restriction (user - " + remotePR.getUser() + ")");
-                continue;
+            if (result.getCause() != null) {
+                gitHubPRCauses.add(result.getCause());
             }
+        }
 
-            for (GitHubPREvent event : getEvents()) {  // waterfall, first matched win
-                try {
-                    GitHubPRCause cause = event.check(this, remotePR, localPR, listener);
-                    if (cause != null) {
-                        if (cause.isSkip()) {
-                            LOGGER.debug("Skipping PR #{}", remotePR.getNumber());
-                            logger.println("Skipping PR #" + remotePR.getNumber());
-                            break;
-                        } else {
-                            LOGGER.debug("Triggering build for PR #'{}', because {}",
-                                    remotePR.getNumber(), cause.getReason());
-                            logger.println("Triggering build for PR #" + remotePR.getNumber() + " because " + cause.getReason());
-                            gitHubPRCauses.add(cause);
-                            // don't check other events
-                            break;
-                        }
-                    }
-                } catch (IOException e) {
-                    LOGGER.warn("Can't check trigger event", e);
-                    listener.error("Skip event failed, so skipping PR");
-                    break;
-                }
+        if (completed && numbers == null) {
+            if (validators != null) {
+                validators.saveTo(pollingState);
+            }
+            for (GHPullRequest remotePR : remotePulls) {
+                pollingState.updateCursor(remotePR.getUpdatedAt());
+            }
+            for (GHPullRequest remotePR : hookedPulls) {
+                pollingState.updateCursor(remotePR.getUpdatedAt());
+            }
+            if (fullCheck) {
+                pollingState.setLastFullCheck(new Date());
+            }
+        }
 
+        if (numbers == null) {
+            if (validators != null) {
+                pollingState.setPollInterval(validators.getPollInterval());
+            }
+            // not completed check should be repeated soon
+            pollingState.scheduleNextPoll(changed || !completed, System.currentTimeMillis());
+            if (getTriggerMode() == CRON_ADAPTIVE) {
+                logger.println("Next check not earlier than " + pollingState.getNextPoll());
             }
         }
 
@@ -399,11 +856,341 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
             trySave(); //TODO or better fail with IOException?
         }
 
-        GHRateLimit rateLimitAfter = getGitHub().getRateLimit();
-        int consumed = rateLimitBefore.remaining - rateLimitAfter.remaining;
+        GitHubPRRateLimitTracker.State rateLimitAfter = rateLimitTracker.getState();
+        int consumed = requests.getCount();
+        if (numbers == null) {
+            getDescriptor().getRateLimitScheduler().recordCheck(job.getFullName(), getPollingPriority(), consumed);
+        }
         LOGGER.info("GitHub rate limit after check: {}, consumed: {}, checked PRs: {}",
                 rateLimitAfter, consumed, checkedPR);
-        return gitHubPRCauses;
+        return new CheckOutcome(gitHubPRCauses, completed);
+    }
+
+    /**
+     * Causes found by check and whether all PRs were checked.
+     */
+    private static final class CheckOutcome {
+        private final List<GitHubPRCause> causes;
+        private final boolean completed;
+
+        private CheckOutcome(List<GitHubPRCause> causes, boolean completed) {
+            this.causes = causes;
+            this.completed = completed;
+        }
+
+        public List<GitHubPRCause> getCauses() {
+            return causes;
+        }
+
+        /**
+         * @return false when check of some PR failed
+         */
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+
+    /**
+     * Removes PRs that hooks already checked and that have no newer remote updates.
+     *
+     * @return removed PRs
+     */
+    static List<GHPullRequest> removeHookedPulls(List<GHPullRequest> remotePulls, GitHubPRPollingState pollingState)
+            throws IOException {
+        List<GHPullRequest> hookedPulls = new ArrayList<>();
+        Iterator<GHPullRequest> iterator = remotePulls.iterator();
+        while (iterator.hasNext()) {
+            GHPullRequest remotePR = iterator.next();
+            if (pollingState.isHooked(remotePR.getNumber(), remotePR.getHead().getSha(), remotePR.getUpdatedAt())) {
+                hookedPulls.add(remotePR);
+                iterator.remove();
+            }
+        }
+        return hookedPulls;
+    }
+
+    /**
+     * Conditional requests for open PRs list and repository issue events.
+     * When both answered 304 nothing changed since last successful check.
+     * Open PRs are sorted by update time, so any PR update changes first page.
+     */
+    private RemoteValidators fetchRemoteValidators(GitHubPRPollingState state) throws IOException {
+        GitHubPRRestClient client = getDescriptor().getRestClient();
+        String repoPath = "/repos/" + getRepoFullName();
+
+        GitHubPRRestClient.Result pulls = client.get(repoPath + "/pulls?state=open&sort=updated&direction=desc",
+                state.getPullsETag(), state.getPullsLastModified());
+        GitHubPRRestClient.Result events = client.get(repoPath + "/issues/events",
+                state.getEventsETag(), state.getEventsLastModified());
+
+        return new RemoteValidators(pulls, events);
+    }
+
+    /**
+     * Validators received during current check, saved only when check completed for all PRs.
+     */
+    private static final class RemoteValidators {
+        private final GitHubPRRestClient.Result pulls;
+        private final GitHubPRRestClient.Result events;
+
+        private RemoteValidators(GitHubPRRestClient.Result pulls, GitHubPRRestClient.Result events) {
+            this.pulls = pulls;
+            this.events = events;
+        }
+
+        public boolean isNotModified() {
+            return pulls.isNotModified() && events.isNotModified();
+        }
+
+        /**
+         * ETag of current open PRs list, the same for all jobs of repository
+         */
+        @CheckForNull
+        public String getPullsVersion(GitHubPRPollingState state) {
+            return pulls.isNotModified() ? state.getPullsETag() : pulls.getETag();
+        }
+
+        /**
+         * Seconds that GitHub asks to wait between polls
+         */
+        public int getPollInterval() {
+            return Math.max(pulls.getPollInterval(), events.getPollInterval());
+        }
+
+        public void saveTo(GitHubPRPollingState state) {
+            if (!pulls.isNotModified()) {
+                state.setPulls(pulls.getETag(), pulls.getLastModified());
+            }
+            if (!events.isNotModified()) {
+                state.setEvents(events.getETag(), events.getLastModified());
+            }
+        }
+    }
+
+    /**
+     * Incremental check is done only when cursor exists and full check happened recently enough.
+     */
+    private boolean isIncrementalCheck(GitHubPRPollingState pollingState) {
+        if (getPollingStrategy() != GitHubPRPollingStrategy.INCREMENTAL) {
+            return false;
+        }
+
+        Date lastFullCheck = pollingState.getLastFullCheck();
+        return pollingState.getUpdatedCursor() != null && lastFullCheck != null
+                && System.currentTimeMillis() - lastFullCheck.getTime() < FULL_CHECK_PERIOD;
+    }
+
+    /**
+     * PRs (open and closed) updated since cursor.
+     * Issues are listed newest update first, so paging stops as soon as list passes the cursor.
+     * PRs are fetched only when they have something new for local state: closed PRs that were never stored
+     * and updates already stored (cursor is inclusive, so the last checked PR is always listed) are skipped.
+     */
+    private List<GHPullRequest> getUpdatedPullRequests(GHRepository ghRepository, Date since,
+                                                       Map<Integer, GitHubPRPullRequest> localPulls)
+            throws IOException {
+        GitHubPRRestClient client = getDescriptor().getRestClient();
+        String path = "/repos/" + getRepoFullName() + "/issues?state=all&sort=updated&direction=desc&since="
+                + GitHubPRRestClient.formatDate(since);
+
+        Set<Integer> numbers = new TreeSet<>();
+        int page = 1;
+        boolean passedCursor = false;
+        while (!passedCursor) {
+            JSONArray issues = client.getPage(path, page++);
+            for (int i = 0; i < issues.size(); i++) {
+                JSONObject issue = issues.getJSONObject(i);
+                Date updatedAt = GitHubPRRestClient.parseDate(issue.optString("updated_at"));
+                if (updatedAt != null && updatedAt.before(since)) {
+                    passedCursor = true;
+                    break;
+                }
+                if (!issue.has("pull_request")) {
+                    continue;
+                }
+                int number = issue.getInt("number");
+                GitHubPRPullRequest localPR = localPulls.get(number);
+                if (localPR == null ? "closed".equals(issue.optString("state")) : isStored(localPR, updatedAt)) {
+                    continue;
+                }
+                numbers.add(number);
+            }
+            if (issues.size() < GitHubPRRestClient.MAX_PAGE_SIZE) {
+                break;
+            }
+        }
+
+        List<GHPullRequest> updatedPulls = new ArrayList<>(numbers.size());
+        for (Integer number : numbers) {
+            updatedPulls.add(ghRepository.getPullRequest(number));
+        }
+        return updatedPulls;
+    }
+
+    /**
+     * Local state already contains remote update
+     */
+    private static boolean isStored(GitHubPRPullRequest localPR, @CheckForNull Date updatedAt) {
+        return updatedAt != null && (isNotAfter(updatedAt, localPR.getPrUpdatedAt())
+                || isNotAfter(updatedAt, localPR.getIssueUpdatedAt()));
+    }
+
+    private static boolean isNotAfter(Date date, @CheckForNull Date stored) {
+        return stored != null && !date.after(stored);
+    }
+
+    /**
+     * Resolves locally known PRs that are not open on remote anymore.
+     * Walks closed PRs list (newest first, so numbers go down) instead of requesting every PR,
+     * walk stops when all numbers found, when list passed the lowest wanted number
+     * or when walked pages cost more requests than they saved, rest is fetched one by one.
+     *
+     * @param closedPulls lazy list of closed PRs of repository, newest first
+     */
+    static List<GHPullRequest> getClosedPullRequests(GHRepository ghRepository, Iterable<GHPullRequest> closedPulls,
+                                                     Set<Integer> numbers) throws IOException {
+        List<GHPullRequest> resolved = new ArrayList<>(numbers.size());
+        if (numbers.isEmpty()) {
+            return resolved;
+        }
+
+        TreeSet<Integer> wanted = new TreeSet<>(numbers);
+        if (wanted.size() > 1) {
+            int walked = 0;
+            for (GHPullRequest closedPR : closedPulls) {
+                if (wanted.remove(closedPR.getNumber())) {
+                    resolved.add(closedPR);
+                }
+                walked++;
+                if (wanted.isEmpty() || closedPR.getNumber() < wanted.first()) {
+                    break;
+                }
+                // every walked page should save at least one single request
+                if (walked % CLOSED_PULLS_PAGE_SIZE == 0 && walked / CLOSED_PULLS_PAGE_SIZE > resolved.size()) {
+                    break;
+                }
+            }
+            LOGGER.debug("Resolved {} closed PRs by walking {} closed PRs, {} left for single requests",
+                    resolved.size(), walked, wanted.size());
+        }
+
+        for (Integer number : wanted) {
+            resolved.add(ghRepository.getPullRequest(number));
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Evaluates one remote PR against its last known local state.
+     * Safe to call concurrently for different PRs: it doesn't touch local repository state
+     * and writes log only to own buffer.
+     */
+    private PRCheckResult checkPR(GHPullRequest remotePR, @CheckForNull GitHubPRPullRequest localPR,
+                                  @CheckForNull String recheckReason) throws IOException {
+        PRCheckResult result = new PRCheckResult(remotePR.getNumber());
+        TaskListener listener = result.getListener();
+        final PrintStream logger = listener.getLogger();
+
+//            //prefetch
+//            remotePR.getLabels();
+//            remotePR.getMergedBy();
+
+        if (recheckReason == null && !isUpdated(remotePR, localPR)) { // light check
+            LOGGER.debug("PR #{} '{}' not changed", remotePR.getNumber(), remotePR.getTitle());
+            logger.println("PR #" + remotePR.getNumber() + " '" + remotePR.getTitle() + "' not changed");
+            return result;
+        }
+
+        // remote data fetched once and shared by all events and jobs of this repository
+        GitHubPRSnapshot snapshot = getDescriptor().getSnapshotService().getSnapshot(getDescriptor().getApiUrl(),
+                getRepoFullName(), remotePR, getDescriptor().getRestClient());
+
+        // new comments are walked once for whitelist, events and saved comment cursor
+        GitHubPRCommentPipeline comments = new GitHubPRCommentPipeline(snapshot, localPR);
+        if (userRestriction != null) {
+            userRestriction.registerCommentConsumers(this, comments);
+        }
+        for (GitHubPREvent event : getEvents()) {
+            event.registerCommentConsumers(this, comments);
+        }
+        if (snapshot.getState() == GHIssueState.OPEN || comments.hasConsumers()) {
+            try {
+                comments.process();
+            } catch (IOException e) {
+                LOGGER.warn("Can't get comments for PR #{}: {}", remotePR.getNumber(), e.getMessage());
+                logger.println("Can't get comments for PR #" + remotePR.getNumber() + ": " + e.getMessage());
+            }
+        }
+
+        switch (snapshot.getState()) {
+            case OPEN:
+                result.setLocalPR(snapshot.getPullRequest(localPR));
+                break;
+            case CLOSED:
+                result.setLocalPR(null); // don't store
+                break;
+        }
+
+        if (skipFirstRun) {
+            LOGGER.info("Skipping first run for {} and PR #{}",
+                    job.getFullName(), remotePR.getNumber());
+            logger.println("Skipping first run for " + job.getFullName() + " and PR #" + remotePR.getNumber());
+            return result;
+        }
+
+        if (branchRestriction != null && !branchRestriction.isBranchBuildAllowed(remotePR)) {
+            LOGGER.warn("Skipping #{} {} because of branch restriction",
+                    remotePR.getNumber(), remotePR.getTitle());
+            logger.println("Skipping #" + remotePR.getNumber() + " " + remotePR.getTitle() + " because of branch restriction");
+            return result;
+        }
+
+        if (userRestriction != null && !userRestriction.isWhitelisted(remotePR.getUser())) {
+            LOGGER.warn("Skipping #{} {} because of user restriction (user - {})",
+                    remotePR.getNumber(), remotePR.getTitle(), remotePR.getUser());
+            logger.println("Skipping #" + remotePR.getNumber() + " " + remotePR.getTitle()
+                    + " because of user restriction (user - " + remotePR.getUser() + ")");
+            return result;
+        }
+
+        boolean skipped = false;
+        for (GitHubPREvent event : getEvents()) {  // waterfall, first matched win
+            try {
+                GitHubPRCause cause = event.check(this, snapshot, localPR, comments, listener);
+                if (cause != null) {
+                    if (cause.isSkip()) {
+                        LOGGER.debug("Skipping PR #{}", remotePR.getNumber());
+                        logger.println("Skipping PR #" + remotePR.getNumber());
+                        skipped = true;
+                        break;
+                    } else {
+                        LOGGER.debug("Triggering build for PR #'{}', because {}",
+                                remotePR.getNumber(), cause.getReason());
+                        logger.println("Triggering build for PR #" + remotePR.getNumber() + " because " + cause.getReason());
+                        result.setCause(cause);
+                        // don't check other events
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Can't check trigger event", e);
+                listener.error("Skip event failed, so skipping PR");
+                skipped = true;
+                break;
+            }
+
+        }
+
+        // PR itself may be unchanged, but its merge result changed
+        if (recheckReason != null && !skipped && result.getCause() == null
+                && snapshot.getState() == GHIssueState.OPEN) {
+            LOGGER.debug("Triggering build for PR #{}, because {}", remotePR.getNumber(), recheckReason);
+            logger.println("Triggering build for PR #" + remotePR.getNumber() + " because " + recheckReason);
+            result.setCause(new GitHubPRCause(snapshot, recheckReason, false));
+        }
+
+        return result;
     }
 
     /**
@@ -487,6 +1274,10 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
         //TODO clean hooks?
         if (job != null) {
             LOGGER.info("Stopping the GitHub PR trigger for project {}", job.getFullName());
+            GitHubPRJobIndex index = GitHubPRJobIndex.get();
+            if (index != null) {
+                index.remove(job);
+            }
         }
         super.stop();
     }
@@ -576,6 +1367,14 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
         return triggerMode;
     }
 
+    public GitHubPRPollingStrategy getPollingStrategy() {
+        return pollingStrategy == null ? GitHubPRPollingStrategy.FULL : pollingStrategy;
+    }
+
+    public GitHubPRPollingPriority getPollingPriority() {
+        return pollingPriority == null ? GitHubPRPollingPriority.NORMAL : pollingPriority;
+    }
+
     public List<GitHubPREvent> getEvents() {
         return events;
     }
@@ -616,12 +1415,11 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
         return gh;
     }
 
+    /**
+     * Saves job with write-behind, errors are only logged.
+     */
     public void trySave() {
-        try {
-            job.save();
-        } catch (IOException e) {
-            LOGGER.error("Error while saving job to file", e);
-        }
+        getDescriptor().getPersister().save(job);
     }
 
     public GitHubPRUserRestriction getUserRestriction() {
@@ -637,11 +1435,94 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
         return (DescriptorImpl) super.getDescriptor();
     }
 
+    /**
+     * Outcome of one PR check. Collected from check workers and applied to local state in PR number order.
+     */
+    private static final class PRCheckResult {
+        private final int number;
+        private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        private final StreamTaskListener listener = new StreamTaskListener(log);
+        private boolean updated = false;
+        @CheckForNull
+        private GitHubPRPullRequest localPR;
+        @CheckForNull
+        private GitHubPRCause cause;
+
+        private PRCheckResult(int number) {
+            this.number = number;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public TaskListener getListener() {
+            return listener;
+        }
+
+        public boolean isUpdated() {
+            return updated;
+        }
+
+        /**
+         * @param localPR new local state or null when PR should be removed from local state
+         */
+        public void setLocalPR(@CheckForNull GitHubPRPullRequest localPR) {
+            this.updated = true;
+            this.localPR = localPR;
+        }
+
+        @CheckForNull
+        public GitHubPRPullRequest getLocalPR() {
+            return localPR;
+        }
+
+        @CheckForNull
+        public GitHubPRCause getCause() {
+            return cause;
+        }
+
+        public void setCause(GitHubPRCause cause) {
+            this.cause = cause;
+        }
+
+        public void writeLogTo(PrintStream logger) throws IOException {
+            listener.getLogger().flush();
+            log.writeTo(logger);
+        }
+    }
+
+    /**
+     * Stops hook processing and writes pending state on shutdown. Order matters: every step may still
+     * produce work for the next one, so buffered hooks are journaled before journal is flushed
+     * and journal before persister.
+     */
+    @Extension
+    public static class Lifecycle extends ItemListener {
+        @Override
+        public void onBeforeShutdown() {
+            DescriptorImpl descriptor = DescriptorImpl.get();
+            if (descriptor != null) {
+                descriptor.closeHookIntake();
+                descriptor.closeHookQueue();
+                descriptor.closeHookJournal();
+                descriptor.closePersister();
+            }
+        }
+    }
+
     @Extension
     public static class DescriptorImpl extends TriggerDescriptor {
         private static final Logger LOGGER = LoggerFactory.getLogger(DescriptorImpl.class);
-
-        private final transient SequentialExecutionQueue queue = new SequentialExecutionQueue(Jenkins.MasterComputer.threadPoolForRemoting);
+        public static final int DEFAULT_CHECK_PARALLELISM = 4;
+        public static final int DEFAULT_SNAPSHOT_LIFETIME = 60;
+        public static final int DEFAULT_HOOK_THREADS = 4;
+        public static final int DEFAULT_HOOK_COALESCING_WINDOW = 5;
+        public static final int DEFAULT_HOOK_INTAKE_CAPACITY = 1000;
+        public static final int DEFAULT_HOOK_INTAKE_THREADS = 2;
+        public static final int DEFAULT_PUSH_RECHECK_WINDOW = 60;
+        public static final int DEFAULT_PUSH_RECHECK_LIMIT = 20;
+        public static final int DEFAULT_SAVE_DELAY = 5;
 
         private String apiUrl = "https://api.github.com";
         private String whitelistUserMsg = ".*add\\W+to\\W+whitelist.*";
@@ -653,7 +1534,66 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
         private String publishedURL;
 
         private transient GitHub gh;
+        private transient GitHubPRRestClient restClient;
         private int cacheSize = 20; // MB
+        /**
+         * Max number of PRs of one trigger run that are checked concurrently, 1 means sequential check.
+         */
+        private int checkParallelism = DEFAULT_CHECK_PARALLELISM;
+
+        /**
+         * Seconds while open PRs fetched for one job are reused by other jobs of the same repository.
+         */
+        private int snapshotLifetime = DEFAULT_SNAPSHOT_LIFETIME;
+        /**
+         * Max number of jobs that process hooks at the same time
+         */
+        private int hookThreads = DEFAULT_HOOK_THREADS;
+        /**
+         * Seconds while hooks for the same job and PR are collected into one check
+         */
+        private int hookCoalescingWindow = DEFAULT_HOOK_COALESCING_WINDOW;
+        /**
+         * Max number of received hooks that wait for dispatch
+         */
+        private int hookIntakeCapacity = DEFAULT_HOOK_INTAKE_CAPACITY;
+        /**
+         * Threads that resolve jobs for received hooks
+         */
+        private int hookIntakeThreads = DEFAULT_HOOK_INTAKE_THREADS;
+        @CheckForNull
+        private GitHubPRHookOverflowPolicy hookOverflowPolicy = GitHubPRHookOverflowPolicy.DROP_OLDEST;
+        /**
+         * Seconds while pushes to the same base branch are collected into one recheck of its PRs
+         */
+        private int pushRecheckWindow = DEFAULT_PUSH_RECHECK_WINDOW;
+        /**
+         * Max number of PRs rechecked for one push, 0 disables rechecks
+         */
+        private int pushRecheckLimit = DEFAULT_PUSH_RECHECK_LIMIT;
+        /**
+         * Save only changed PRs to {@link GitHubPRRepositoryJournal} instead of rewriting whole runtime file
+         */
+        private boolean journalRuntimeState = false;
+        @CheckForNull
+        private GitHubPRRuntimeFormat runtimeFormat = GitHubPRRuntimeFormat.XML;
+        /**
+         * Max seconds between state or job save request and write, 0 writes in check thread
+         */
+        private int saveDelay = DEFAULT_SAVE_DELAY;
+
+        @CheckForNull
+        private transient ThreadPoolExecutor checkExecutor;
+        private transient GitHubPRSnapshotService snapshotService;
+        private transient GitHubPRStripedQueue hookQueue;
+        private transient GitHubPRHookCoalescer hookCoalescer;
+        private transient GitHubPRHookCoalescer pushCoalescer;
+        private transient GitHubPRHookJournal hookJournal;
+        private transient GitHubPRHookIntake hookIntake;
+        private transient GitHubPRPersister persister;
+        private final transient GitHubPRRateLimitTracker rateLimitTracker = new GitHubPRRateLimitTracker();
+        private final transient GitHubPRRateLimitScheduler rateLimitScheduler =
+                new GitHubPRRateLimitScheduler(rateLimitTracker);
 
         private transient int oldHash = 0;
 
@@ -682,8 +1622,29 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
             whitelistUserMsg = formData.getString("whitelistUserMsg");
             spec = formData.getString("spec");
             cacheSize = formData.getInt("cacheSize");
+            checkParallelism = Math.max(1, formData.getInt("checkParallelism"));
+            snapshotLifetime = Math.max(0, formData.getInt("snapshotLifetime"));
+            hookThreads = Math.max(1, formData.getInt("hookThreads"));
+            hookCoalescingWindow = Math.max(0, formData.getInt("hookCoalescingWindow"));
+            hookIntakeCapacity = Math.max(1, formData.getInt("hookIntakeCapacity"));
+            hookIntakeThreads = Math.max(1, formData.getInt("hookIntakeThreads"));
+            hookOverflowPolicy = GitHubPRHookOverflowPolicy.valueOf(formData.getString("hookOverflowPolicy"));
+            pushRecheckWindow = Math.max(0, formData.getInt("pushRecheckWindow"));
+            pushRecheckLimit = Math.max(0, formData.getInt("pushRecheckLimit"));
+            journalRuntimeState = formData.getBoolean("journalRuntimeState");
+            runtimeFormat = GitHubPRRuntimeFormat.valueOf(formData.getString("runtimeFormat"));
+            saveDelay = Math.max(0, formData.getInt("saveDelay"));
 
             save();
+            updateCheckExecutor();
+            getSnapshotService().setLifetime(TimeUnit.SECONDS.toMillis(snapshotLifetime));
+            getHookQueue().setThreads(hookThreads);
+            getHookCoalescer().setWindow(TimeUnit.SECONDS.toMillis(hookCoalescingWindow));
+            getHookIntake().setCapacity(hookIntakeCapacity);
+            getHookIntake().setThreads(hookIntakeThreads);
+            getHookIntake().setPolicy(getHookOverflowPolicy());
+            getPushCoalescer().setWindow(TimeUnit.SECONDS.toMillis(pushRecheckWindow));
+            getPersister().setDelay(TimeUnit.SECONDS.toMillis(saveDelay));
             return super.configure(req, formData);
         }
 
@@ -733,7 +1694,8 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
             }
 
             Cache cache = new Cache(new File(instance.getRootDir(), GitHubPRTrigger.class.getName() + ".cache"), getCacheSize() * 1024 * 1024);
-            OkHttpConnector okHttpConnector = new OkHttpConnector(new OkUrlFactory(new OkHttpClient().setCache(cache).setProxy(getProxy())));
+            OkHttpClient client = new OkHttpClient().setCache(cache).setProxy(getProxy());
+            OkHttpConnector okHttpConnector = new OkHttpConnector(new OkUrlFactory(client), rateLimitTracker);
 
             gh = new GitHubBuilder()
                     .withEndpoint(apiUrl)
@@ -742,12 +1704,181 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
                     .withConnector(okHttpConnector)
                     .build();
 
-            // don't allow to use connection with bad rate limit or token
-            GHRateLimit rateLimit = gh.getRateLimit();
-            if (rateLimit.remaining <= 60) {
-                gh = null;
-                LOGGER.warn(rateLimit.toString());
-                throw new IOException("Rate limit is lower then 60, set correct token: " + rateLimit);
+            // token may be changed, rate limit will be known from headers of first response
+            rateLimitTracker.reset();
+            restClient = new GitHubPRRestClient(client, apiUrl, accessToken);
+            // PRs fetched with previous connection settings
+            getSnapshotService().clear();
+        }
+
+        /**
+         * Rate limit of connection, updated from every response.
+         */
+        @Nonnull
+        public GitHubPRRateLimitTracker getRateLimitTracker() {
+            return rateLimitTracker;
+        }
+
+        /**
+         * Rate limit budget of connection shared by all triggers.
+         */
+        @Nonnull
+        public GitHubPRRateLimitScheduler getRateLimitScheduler() {
+            return rateLimitScheduler;
+        }
+
+        /**
+         * Queue of hook initiated runs striped by job.
+         */
+        @Nonnull
+        public synchronized GitHubPRStripedQueue getHookQueue() {
+            if (hookQueue == null) {
+                hookQueue = new GitHubPRStripedQueue(Math.max(1, getHookThreads()));
+            }
+            return hookQueue;
+        }
+
+        /**
+         * Stops hook checks, queue stays shut down and later hooks are left for journal replay after restart.
+         */
+        public synchronized void closeHookQueue() {
+            if (hookQueue != null) {
+                hookQueue.shutdown();
+            }
+        }
+
+        /**
+         * Collapses hooks for the same job and PR before they go to {@link #getHookQueue()}.
+         */
+        @Nonnull
+        public synchronized GitHubPRHookCoalescer getHookCoalescer() {
+            if (hookCoalescer == null) {
+                hookCoalescer = new GitHubPRHookCoalescer(getHookQueue(),
+                        TimeUnit.SECONDS.toMillis(getHookCoalescingWindow()));
+            }
+            return hookCoalescer;
+        }
+
+        /**
+         * Collapses pushes to the same base branch, so one busy branch causes at most one recheck per window.
+         */
+        @Nonnull
+        public synchronized GitHubPRHookCoalescer getPushCoalescer() {
+            if (pushCoalescer == null) {
+                pushCoalescer = new GitHubPRHookCoalescer(getHookQueue(),
+                        TimeUnit.SECONDS.toMillis(getPushRecheckWindow()));
+            }
+            return pushCoalescer;
+        }
+
+        /**
+         * Buffer between hook endpoint and dispatch of hooks to jobs.
+         */
+        @Nonnull
+        public synchronized GitHubPRHookIntake getHookIntake() {
+            if (hookIntake == null) {
+                hookIntake = new GitHubPRHookIntake(Math.max(1, getHookIntakeCapacity()),
+                        Math.max(1, getHookIntakeThreads()), getHookOverflowPolicy());
+            }
+            return hookIntake;
+        }
+
+        /**
+         * Journals hooks that wait in intake buffer, later hooks are journaled in request thread.
+         */
+        public synchronized void closeHookIntake() {
+            if (hookIntake != null) {
+                hookIntake.close();
+            }
+        }
+
+        /**
+         * Durable record of hook checks waiting in {@link #getHookCoalescer()}.
+         */
+        @Nonnull
+        public synchronized GitHubPRHookJournal getHookJournal() {
+            if (hookJournal == null) {
+                hookJournal = new GitHubPRHookJournal(
+                        new File(getJenkinsInstance().getRootDir(), GitHubPRHookJournal.FILE_NAME));
+            }
+            return hookJournal;
+        }
+
+        /**
+         * Flushes journal, instance stays closed and later records are written in caller thread.
+         */
+        public synchronized void closeHookJournal() {
+            getHookJournal().close();
+        }
+
+        /**
+         * Writes repository state and jobs changed by checks out of check threads.
+         */
+        @Nonnull
+        public synchronized GitHubPRPersister getPersister() {
+            if (persister == null) {
+                persister = new GitHubPRPersister(TimeUnit.SECONDS.toMillis(saveDelay));
+            }
+            return persister;
+        }
+
+        /**
+         * Writes pending saves, persister stays closed and later saves are written in caller thread.
+         */
+        public synchronized void closePersister() {
+            if (persister != null) {
+                persister.close();
+            }
+        }
+
+        /**
+         * Remote repository state shared between triggers of the same repository.
+         */
+        @Nonnull
+        public synchronized GitHubPRSnapshotService getSnapshotService() {
+            if (snapshotService == null) {
+                snapshotService = new GitHubPRSnapshotService(TimeUnit.SECONDS.toMillis(getSnapshotLifetime()));
+            }
+            return snapshotService;
+        }
+
+        /**
+         * Shared pool for checking PRs of all triggers.
+         *
+         * @return null when PRs should be checked sequentially in caller thread
+         */
+        @CheckForNull
+        public synchronized ExecutorService getCheckExecutor() {
+            if (getCheckParallelism() <= 1) {
+                return null;
+            }
+
+            if (checkExecutor == null) {
+                checkExecutor = new ThreadPoolExecutor(getCheckParallelism(), getCheckParallelism(),
+                        60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new NamingThreadFactory(new DaemonThreadFactory(), "GitHubPRTrigger.check"));
+                checkExecutor.allowCoreThreadTimeOut(true);
+            }
+
+            return checkExecutor;
+        }
+
+        private synchronized void updateCheckExecutor() {
+            if (checkExecutor == null) {
+                return;
+            }
+
+            int parallelism = getCheckParallelism();
+            if (parallelism <= 1) {
+                checkExecutor.shutdown();
+                checkExecutor = null;
+            } else if (parallelism > checkExecutor.getMaximumPoolSize()) {
+                checkExecutor.setMaximumPoolSize(parallelism);
+                checkExecutor.setCorePoolSize(parallelism);
+            } else {
+                checkExecutor.setCorePoolSize(parallelism);
+                checkExecutor.setMaximumPoolSize(parallelism);
             }
         }
 
@@ -771,6 +1902,14 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
             return gh;
         }
 
+        /**
+         * Plain requests over the same connection as {@link #getGitHub()}
+         */
+        public GitHubPRRestClient getRestClient() throws IOException {
+            getGitHub();
+            return restClient;
+        }
+
         public boolean isConnectionChanged() {
             boolean changed = false;
 
@@ -819,6 +1958,54 @@ public class GitHubPRTrigger extends Trigger<AbstractProject<?, ?>> {
             return cacheSize;
         }
 
+        public int getCheckParallelism() {
+            return checkParallelism;
+        }
+
+        public int getSnapshotLifetime() {
+            return snapshotLifetime;
+        }
+
+        public int getHookThreads() {
+            return hookThreads;
+        }
+
+        public int getHookCoalescingWindow() {
+            return hookCoalescingWindow;
+        }
+
+        public int getHookIntakeCapacity() {
+            return hookIntakeCapacity;
+        }
+
+        public int getHookIntakeThreads() {
+            return hookIntakeThreads;
+        }
+
+        public GitHubPRHookOverflowPolicy getHookOverflowPolicy() {
+            return hookOverflowPolicy == null ? GitHubPRHookOverflowPolicy.DROP_OLDEST : hookOverflowPolicy;
+        }
+
+        public int getPushRecheckWindow() {
+            return pushRecheckWindow;
+        }
+
+        public int getPushRecheckLimit() {
+            return pushRecheckLimit;
+        }
+
+        public boolean isJournalRuntimeState() {
+            return journalRuntimeState;
+        }
+
+        public GitHubPRRuntimeFormat getRuntimeFormat() {
+            return runtimeFormat == null ? GitHubPRRuntimeFormat.XML : runtimeFormat;
+        }
+
+        public int getSaveDelay() {
+            return saveDelay;
+        }
+
         public String getPublishedURL() {
             return publishedURL;
         }
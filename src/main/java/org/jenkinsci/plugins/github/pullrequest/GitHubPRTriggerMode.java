@@ -7,9 +7,10 @@ package org.jenkinsci.plugins.github.pullrequest;
  */
 public enum GitHubPRTriggerMode {
     CRON ("Cron with persistence"),
+    CRON_ADAPTIVE ("Cron with persistence, idle repositories are checked less often"),
     HEAVY_HOOKS ("Experimental: Hooks with persistence"),
-    HEAVY_HOOKS_CRON ("NOT SUPPORTED: Hooks with persistence and periodic cron check"),
-    LIGHT_HOOKS("NOT SUPPORTED: Hooks without persistence");
+    HEAVY_HOOKS_CRON ("Experimental: Hooks with persistence, cron checks only PRs missed by hooks"),
+    LIGHT_HOOKS("Experimental: Hooks without persistence, events are decided from hook payload");
 
     private final String description;
 
@@ -25,6 +25,14 @@ public class OkHttpConnector implements HttpConnector {
         this.urlFactory = urlFactory;
     }
 
+    /**
+     * @param rateLimitTracker receives rate limit headers of every network response
+     */
+    public OkHttpConnector(OkUrlFactory urlFactory, GitHubPRRateLimitTracker rateLimitTracker) {
+        this(urlFactory);
+        urlFactory.client().networkInterceptors().add(rateLimitTracker);
+    }
+
     public HttpURLConnection connect(URL url) throws IOException {
         return urlFactory.open(url);
     }
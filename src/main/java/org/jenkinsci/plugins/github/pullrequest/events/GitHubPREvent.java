@@ -3,7 +3,10 @@ package org.jenkinsci.plugins.github.pullrequest.events;
 import hudson.model.AbstractDescribableImpl;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCommentPipeline;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.kohsuke.github.GHEventPayload;
 import org.kohsuke.github.GHPullRequest;
@@ -37,6 +40,48 @@ public abstract class GitHubPREvent extends AbstractDescribableImpl<GitHubPREven
         return null;
     }
 
+    /**
+     * indicates that PR was changed. Called by trigger with remote data shared between all events of one check,
+     * so implementations should prefer it to avoid additional GitHub requests.
+     * By default delegates to {@link #check(GitHubPRTrigger, GHPullRequest, GitHubPRPullRequest, TaskListener)}
+     *
+     * @param snapshot remote PR state fetched from GH during current check
+     * @param localPR  PR state from last run saved in jenkins. null when not exist before
+     * @return true if PR should be run
+     */
+    @CheckForNull
+    public GitHubPRCause check(
+            GitHubPRTrigger gitHubPRTrigger,
+            GitHubPRSnapshot snapshot,
+            @CheckForNull GitHubPRPullRequest localPR,
+            TaskListener listener) throws IOException {
+        return check(gitHubPRTrigger, snapshot.getRemotePR(), localPR, listener);
+    }
+
+    /**
+     * Registers consumers of new PR comments before comments are walked, see {@link GitHubPRCommentPipeline}.
+     * Events that read comments should register consumer here instead of walking comments in check.
+     */
+    public void registerCommentConsumers(GitHubPRTrigger gitHubPRTrigger, GitHubPRCommentPipeline comments) {
+    }
+
+    /**
+     * indicates that PR was changed. Called by trigger after new comments were passed to consumers.
+     * By default delegates to {@link #check(GitHubPRTrigger, GitHubPRSnapshot, GitHubPRPullRequest, TaskListener)}
+     *
+     * @param comments processed comments pipeline with consumers registered by this event
+     * @return true if PR should be run
+     */
+    @CheckForNull
+    public GitHubPRCause check(
+            GitHubPRTrigger gitHubPRTrigger,
+            GitHubPRSnapshot snapshot,
+            @CheckForNull GitHubPRPullRequest localPR,
+            GitHubPRCommentPipeline comments,
+            TaskListener listener) throws IOException {
+        return check(gitHubPRTrigger, snapshot, localPR, listener);
+    }
+
     /**
      * Check that is used for lightweight hooks (pure GitHub hooks).
      */
@@ -46,6 +91,21 @@ public abstract class GitHubPREvent extends AbstractDescribableImpl<GitHubPREven
         return null;
     }
 
+    /**
+     * Check that is used for {@link org.jenkinsci.plugins.github.pullrequest.GitHubPRTriggerMode#LIGHT_HOOKS}.
+     * There is no local PR state, so event is decided by hook action and payload data.
+     * Data that payload lacks should be taken from {@link GitHubPRHookPayload},
+     * it fetches PR from GitHub once per hook.
+     *
+     * @return cause or null when hook is not interesting for event
+     */
+    @CheckForNull
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger,
+                                   GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        return null;
+    }
+
     @Override
     public GitHubPREventDescriptor getDescriptor() {
         return (GitHubPREventDescriptor) super.getDescriptor();
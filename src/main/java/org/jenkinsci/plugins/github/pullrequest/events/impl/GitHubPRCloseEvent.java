@@ -3,7 +3,9 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 import hudson.Extension;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
@@ -11,6 +13,7 @@ import org.kohsuke.github.GHIssueState;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.stapler.DataBoundConstructor;
 
+import javax.annotation.CheckForNull;
 import java.io.IOException;
 import java.io.PrintStream;
 import org.slf4j.Logger;
@@ -31,7 +34,13 @@ public class GitHubPRCloseEvent extends GitHubPREvent {
 
     @Override
     public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
-                               GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
+
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
         if (localPR == null) {
             return null;
         }
@@ -39,15 +48,26 @@ public class GitHubPRCloseEvent extends GitHubPREvent {
         GitHubPRCause cause = null;
 
         // must be closed once
-        if (remotePR.getState().equals(GHIssueState.CLOSED)) {
+        if (snapshot.getState().equals(GHIssueState.CLOSED)) {
             final PrintStream logger = listener.getLogger();
             logger.println(DISPLAY_NAME + ": state has changed (PR was closed)");
-            cause = new GitHubPRCause(remotePR, "PR was closed", false);
+            cause = new GitHubPRCause(snapshot, "PR was closed", false);
         }
 
         return cause;
     }
 
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        if (!payload.isPullRequestAction("closed")) {
+            return null;
+        }
+
+        listener.getLogger().println(DISPLAY_NAME + ": state has changed (PR was closed)");
+        return payload.createCause(gitHubPRTrigger.getGitHub(), "PR was closed", false);
+    }
+
     @Extension
     public static class DescriptorImpl extends GitHubPREventDescriptor {
         @Override
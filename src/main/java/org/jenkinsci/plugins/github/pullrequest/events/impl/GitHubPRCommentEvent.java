@@ -3,18 +3,23 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 import hudson.Extension;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRComment;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCommentConsumer;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCommentPipeline;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
 import org.jenkinsci.plugins.github.pullrequest.restrictions.GitHubPRUserRestriction;
-import org.kohsuke.github.GHIssueComment;
+import org.kohsuke.github.GHEvent;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.io.PrintStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +35,7 @@ public class GitHubPRCommentEvent extends GitHubPREvent {
     private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRCommentEvent.class);
 
     private String comment = "";
+    private transient volatile Pattern pattern;
 
     public String getComment() {
         return comment;
@@ -43,37 +49,59 @@ public class GitHubPRCommentEvent extends GitHubPREvent {
     @Override
     public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
                                @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) {
-        if (localPR == null || localPR.getLastCommentCreatedAt() == null) {
-            return null; // nothing to compare
-        }
-        final PrintStream logger = listener.getLogger();
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
 
-        GitHubPRCause cause = null;
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) {
+        GitHubPRCommentPipeline comments = new GitHubPRCommentPipeline(snapshot, localPR);
+        registerCommentConsumers(gitHubPRTrigger, comments);
         try {
-            for (GHIssueComment comment : remotePR.getComments()) {
-                if (localPR.getLastCommentCreatedAt().compareTo(comment.getCreatedAt()) < 0) {
-                    logger.println(DISPLAY_NAME + ": state has changed (new comment found - \""
-                            + comment.getBody() + "\")");
-                    cause = checkComment(comment, gitHubPRTrigger.getUserRestriction(), remotePR);
-                }
-            }
+            comments.process();
         } catch (IOException e) {
             LOGGER.warn("Couldn't obtain comments: {}", e.getMessage());
+            return null;
         }
-        return cause;
+        return check(gitHubPRTrigger, snapshot, localPR, comments, listener);
+    }
+
+    @Override
+    public void registerCommentConsumers(GitHubPRTrigger gitHubPRTrigger, GitHubPRCommentPipeline comments) {
+        if (comments.getLocalPR() == null || comments.getCursor().isEmpty()) {
+            return; // nothing to compare
+        }
+        comments.register(this, new TriggerPhrase(getPattern()));
     }
 
-    private GitHubPRCause checkComment(GHIssueComment comment,
-                                       GitHubPRUserRestriction userRestriction,
-                                       GHPullRequest remotePR) {
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, GitHubPRCommentPipeline comments,
+                               TaskListener listener) {
+        TriggerPhrase phrase = comments.getConsumer(this, TriggerPhrase.class);
+        if (phrase == null || phrase.getLast() == null) {
+            return null;
+        }
+
+        GitHubPRComment last = phrase.getLast();
+        listener.getLogger().println(DISPLAY_NAME + ": state has changed (" + phrase.getFound()
+                + " new comments found, last - \"" + last.getBody() + "\")");
+        // as before, the last new comment decides
+        return phrase.isLastMatched() ? checkAuthor(last, gitHubPRTrigger, snapshot) : null;
+    }
+
+    private GitHubPRCause checkAuthor(GitHubPRComment comment,
+                                      GitHubPRTrigger gitHubPRTrigger,
+                                      GitHubPRSnapshot snapshot) {
         GitHubPRCause cause = null;
         try {
-            String body = comment.getBody();
-
-            if ((userRestriction == null || userRestriction.isWhitelisted(comment.getUser()))
-                    && Pattern.compile(this.comment).matcher(body).matches()) {
-                LOGGER.trace("Triggering by comment '{}'", body);
-                cause = new GitHubPRCause(remotePR, "PR was triggered by comment", false);
+            // author is fetched only for matched comments
+            GitHubPRUserRestriction userRestriction = gitHubPRTrigger.getUserRestriction();
+            String author = comment.getAuthorLogin();
+            if (userRestriction == null || author != null
+                    && userRestriction.isWhitelisted(gitHubPRTrigger.getGitHub().getUser(author))) {
+                LOGGER.trace("Triggering by comment '{}'", comment.getBody());
+                cause = new GitHubPRCause(snapshot, "PR was triggered by comment", false);
             }
         } catch (IOException ex) {
             LOGGER.error("Couldn't check comment #{}", comment.getId(), ex);
@@ -81,6 +109,81 @@ public class GitHubPRCommentEvent extends GitHubPREvent {
         return cause;
     }
 
+    /**
+     * Compiled once per event configuration, not per comment
+     */
+    private Pattern getPattern() {
+        Pattern current = pattern;
+        if (current == null) {
+            current = Pattern.compile(comment);
+            pattern = current;
+        }
+        return current;
+    }
+
+    /**
+     * Hook contains new comment, so comments are not listed.
+     */
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        if (payload.getEvent() != GHEvent.ISSUE_COMMENT || !"created".equals(payload.getAction())) {
+            return null;
+        }
+
+        String body = payload.getCommentBody();
+        if (body == null || !getPattern().matcher(body).matches()) {
+            return null;
+        }
+        listener.getLogger().println(DISPLAY_NAME + ": state has changed (new comment found - \"" + body + "\")");
+
+        GitHubPRUserRestriction userRestriction = gitHubPRTrigger.getUserRestriction();
+        String author = payload.getCommentAuthor();
+        if (userRestriction != null
+                && (author == null || !userRestriction.isWhitelisted(gitHubPRTrigger.getGitHub().getUser(author)))) {
+            LOGGER.debug("Comment author {} is not whitelisted", author);
+            return null;
+        }
+
+        LOGGER.trace("Triggering by comment '{}'", body);
+        return payload.createCause(gitHubPRTrigger.getGitHub(), "PR was triggered by comment", false);
+    }
+
+    /**
+     * Remembers last new comment and whether it matches trigger phrase.
+     */
+    private static class TriggerPhrase implements GitHubPRCommentConsumer {
+        private final Pattern pattern;
+        private int found = 0;
+        @CheckForNull
+        private GitHubPRComment last;
+        private boolean lastMatched;
+
+        private TriggerPhrase(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public void accept(@Nonnull GitHubPRComment comment) {
+            found++;
+            last = comment;
+            lastMatched = pattern.matcher(comment.getBody()).matches();
+        }
+
+        public int getFound() {
+            return found;
+        }
+
+        @CheckForNull
+        public GitHubPRComment getLast() {
+            return last;
+        }
+
+        public boolean isLastMatched() {
+            return lastMatched;
+        }
+    }
+
     @Extension
     public static class DescriptorImpl extends GitHubPREventDescriptor {
         @Override
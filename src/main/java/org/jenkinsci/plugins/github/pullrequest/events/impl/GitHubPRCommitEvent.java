@@ -3,15 +3,17 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 import hudson.Extension;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
-import org.kohsuke.github.GHCommitPointer;
 import org.kohsuke.github.GHIssueState;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.stapler.DataBoundConstructor;
 
+import javax.annotation.CheckForNull;
 import java.io.IOException;
 import java.io.PrintStream;
 import org.slf4j.Logger;
@@ -32,8 +34,14 @@ public class GitHubPRCommitEvent extends GitHubPREvent {
 
     @Override
     public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
-                               GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
-        if (remotePR.getState().equals(GHIssueState.CLOSED)) {
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
+
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        if (snapshot.getState().equals(GHIssueState.CLOSED)) {
             //TODO check whether push to closed allowed?
             return null; // already closed, nothing to check
         }
@@ -44,15 +52,27 @@ public class GitHubPRCommitEvent extends GitHubPREvent {
 
         GitHubPRCause cause = null;
 
-        GHCommitPointer head = remotePR.getHead();
-        if (!localPR.getHeadSha().equals(head.getSha())) {
-            LOGGER.debug("New commit. Sha: {} => {}", localPR.getHeadSha(), head.getSha());
+        String headSha = snapshot.getHeadSha();
+        if (!localPR.getHeadSha().equals(headSha)) {
+            LOGGER.debug("New commit. Sha: {} => {}", localPR.getHeadSha(), headSha);
             final PrintStream logger = listener.getLogger();
-            logger.println(this.getClass().getSimpleName() + ": new commit found, sha " + head.getSha());
+            logger.println(this.getClass().getSimpleName() + ": new commit found, sha " + headSha);
 //            GHUser user = head.getUser();
-            cause = new GitHubPRCause(remotePR, DISPLAY_NAME, false);
+            cause = new GitHubPRCause(snapshot, DISPLAY_NAME, false);
+        }
+
+        return cause;
+    }
+
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        if (!payload.isPullRequestAction("synchronize") || payload.isClosed()) {
+            return null;
         }
 
+        GitHubPRCause cause = payload.createCause(gitHubPRTrigger.getGitHub(), DISPLAY_NAME, false);
+        listener.getLogger().println(this.getClass().getSimpleName() + ": new commit found, sha " + cause.getHeadSha());
         return cause;
     }
 
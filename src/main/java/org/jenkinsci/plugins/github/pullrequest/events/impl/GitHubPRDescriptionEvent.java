@@ -4,7 +4,9 @@ import hudson.Extension;
 import hudson.model.TaskListener;
 import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
@@ -35,45 +37,72 @@ public class GitHubPRDescriptionEvent extends GitHubPREvent {
         this.skipMsg = skipMsg;
     }
 
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
+
     /**
      * Checks for skip message in pull request description.
      *
-     * @param remotePR {@link org.kohsuke.github.GHIssue} that contains description for checking
+     * @param snapshot contains {@link org.kohsuke.github.GHIssue} with description for checking
      */
     @Override
-    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger,
-                               GHPullRequest remotePR,
-                               @CheckForNull GitHubPRPullRequest localPR,
-                               TaskListener listener) throws IOException {
-        final PrintStream logger = listener.getLogger();
-
-        GitHubPRCause cause = null;
-
-        String pullRequestBody = remotePR.getBody().trim();
-        if (StringUtils.isNotBlank(pullRequestBody)) {
-            HashSet<String> skipBuildPhrases = new HashSet<>(Arrays.asList(getSkipMsg().split("[\\r\\n]+")));
-            skipBuildPhrases.remove("");
-
-            for (String skipBuildPhrase : skipBuildPhrases) {
-                skipBuildPhrase = skipBuildPhrase.trim();
-                Pattern skipBuildPhrasePattern = Pattern.compile(skipBuildPhrase);
-                if (skipBuildPhrasePattern.matcher(pullRequestBody).matches()) {
-                    LOGGER.info("Pull request description with {} skipBuildPhrase. Hence skipping the buildAndComment.",
-                            skipBuildPhrase);
-                    logger.println(DISPLAY_NAME + ": Pull request description contains " + skipBuildPhrase + ", skipping");
-                    cause = new GitHubPRCause(remotePR, "Pull request description contains " + skipBuildPhrase + ", skipping", true);
-                    break;
-                }
-            }
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        String skipBuildPhrase = findSkipPhrase(snapshot.getRemotePR().getBody());
+        if (skipBuildPhrase == null) {
+            return null;
         }
 
-        return cause;
+        final PrintStream logger = listener.getLogger();
+        logger.println(DISPLAY_NAME + ": Pull request description contains " + skipBuildPhrase + ", skipping");
+        return new GitHubPRCause(snapshot, "Pull request description contains " + skipBuildPhrase + ", skipping", true);
     }
 
     public String getSkipMsg() {
         return skipMsg;
     }
 
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        String skipBuildPhrase = findSkipPhrase(payload.getBody());
+        if (skipBuildPhrase == null) {
+            return null;
+        }
+
+        listener.getLogger().println(DISPLAY_NAME + ": Pull request description contains " + skipBuildPhrase + ", skipping");
+        return payload.createCause(gitHubPRTrigger.getGitHub(),
+                "Pull request description contains " + skipBuildPhrase + ", skipping", true);
+    }
+
+    /**
+     * @return first skip phrase that matches description or null
+     */
+    @CheckForNull
+    private String findSkipPhrase(@CheckForNull String body) {
+        String pullRequestBody = body == null ? "" : body.trim();
+        if (StringUtils.isBlank(pullRequestBody)) {
+            return null;
+        }
+
+        HashSet<String> skipBuildPhrases = new HashSet<>(Arrays.asList(getSkipMsg().split("[\\r\\n]+")));
+        skipBuildPhrases.remove("");
+
+        for (String skipBuildPhrase : skipBuildPhrases) {
+            skipBuildPhrase = skipBuildPhrase.trim();
+            Pattern skipBuildPhrasePattern = Pattern.compile(skipBuildPhrase);
+            if (skipBuildPhrasePattern.matcher(pullRequestBody).matches()) {
+                LOGGER.info("Pull request description with {} skipBuildPhrase. Hence skipping the buildAndComment.",
+                        skipBuildPhrase);
+                return skipBuildPhrase;
+            }
+        }
+        return null;
+    }
+
     @Extension
     public static class DescriptorImpl extends GitHubPREventDescriptor {
         @Override
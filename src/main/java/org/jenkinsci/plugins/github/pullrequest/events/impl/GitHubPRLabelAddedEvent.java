@@ -3,21 +3,20 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 import hudson.Extension;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRLabel;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
 import org.kohsuke.github.GHIssueState;
-import org.kohsuke.github.GHLabel;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 import javax.annotation.CheckForNull;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,7 +46,13 @@ public class GitHubPRLabelAddedEvent extends GitHubPREvent {
     @Override
     public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
                                @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
-        if (remotePR.getState().equals(GHIssueState.CLOSED)) {
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
+
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        if (snapshot.getState().equals(GHIssueState.CLOSED)) {
             return null; // already closed, skip check?
         }
 
@@ -58,22 +63,39 @@ public class GitHubPRLabelAddedEvent extends GitHubPREvent {
 
         GitHubPRCause cause = null;
 
-        Collection<GHLabel> labels = remotePR.getRepository().getIssue(remotePR.getNumber()).getLabels();
-        Set<String> existingLabels = new HashSet<String>();
-
-        for (GHLabel curLabel : labels) {
-            existingLabels.add(curLabel.getName());
-        }
+        Set<String> existingLabels = snapshot.getLabels();
 
         if (existingLabels.containsAll(label.getLabelsSet())) {
             final PrintStream logger = listener.getLogger();
             logger.println(DISPLAY_NAME + ": state has changed (" + label.getLabelsSet() + " labels were added");
-            cause = new GitHubPRCause(remotePR, label.getLabelsSet() + " labels were added", false);
+            cause = new GitHubPRCause(snapshot, label.getLabelsSet() + " labels were added", false);
         }
 
         return cause;
     }
 
+    /**
+     * Hook tells only one added label, so other configured labels are checked with remote labels.
+     */
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        if (!payload.isPullRequestAction("labeled") || payload.isClosed()) {
+            return null;
+        }
+
+        Set<String> labels = label.getLabelsSet();
+        if (!labels.contains(payload.getLabel())) {
+            return null; // other label added
+        }
+        if (labels.size() > 1 && !payload.getLabels(gitHubPRTrigger.getGitHub()).containsAll(labels)) {
+            return null;
+        }
+
+        listener.getLogger().println(DISPLAY_NAME + ": state has changed (" + labels + " labels were added");
+        return payload.createCause(gitHubPRTrigger.getGitHub(), labels + " labels were added", false);
+    }
+
     @Extension
     public static class DescriptorImpl extends GitHubPREventDescriptor {
 
@@ -3,21 +3,20 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 import hudson.Extension;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRLabel;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
 import org.kohsuke.github.GHIssueState;
-import org.kohsuke.github.GHLabel;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 import javax.annotation.CheckForNull;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,23 +42,24 @@ public class GitHubPRLabelExistsEvent extends GitHubPREvent {
     @Override
     public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
                                @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
-        if (remotePR.getState().equals(GHIssueState.CLOSED)) {
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
+
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        if (snapshot.getState().equals(GHIssueState.CLOSED)) {
             return null; // already closed, skip check?
         }
 
         GitHubPRCause cause = null;
 
-        Collection<GHLabel> remoteLabels = remotePR.getRepository().getIssue(remotePR.getNumber()).getLabels();
-        Set<String> existingLabels = new HashSet<String>();
-
-        for (GHLabel ghLabel : remoteLabels) {
-            existingLabels.add(ghLabel.getName());
-        }
+        Set<String> existingLabels = snapshot.getLabels();
 
         if (existingLabels.containsAll(label.getLabelsSet())) {
             final PrintStream logger = listener.getLogger();
             logger.println(DISPLAY_NAME + ": " + label.getLabelsSet() + " found");
-            cause = new GitHubPRCause(remotePR, label.getLabelsSet() + " labels exist", isSkip());
+            cause = new GitHubPRCause(snapshot, label.getLabelsSet() + " labels exist", isSkip());
         }
 
         return cause;
@@ -73,6 +73,21 @@ public class GitHubPRLabelExistsEvent extends GitHubPREvent {
         return skip;
     }
 
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        if (!payload.isPullRequestAction("labeled", "opened", "reopened", "synchronize") || payload.isClosed()) {
+            return null;
+        }
+
+        GitHubPRCause cause = null;
+        if (payload.getLabels(gitHubPRTrigger.getGitHub()).containsAll(label.getLabelsSet())) {
+            listener.getLogger().println(DISPLAY_NAME + ": " + label.getLabelsSet() + " found");
+            cause = payload.createCause(gitHubPRTrigger.getGitHub(), label.getLabelsSet() + " labels exist", isSkip());
+        }
+        return cause;
+    }
+
     @Extension
     public static class DescriptorImpl extends GitHubPREventDescriptor {
 
@@ -3,12 +3,13 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 import hudson.Extension;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRLabel;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
-import org.kohsuke.github.GHLabel;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.stapler.DataBoundConstructor;
 
@@ -38,16 +39,23 @@ public class GitHubPRLabelPatternExistsEvent extends GitHubPREvent {
 
 
     @Override
-    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR, @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
+
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
         final PrintStream logger = listener.getLogger();
 
-        for (GHLabel label : remotePR.getRepository().getIssue(remotePR.getNumber()).getLabels()) {
+        for (String labelName : snapshot.getLabels()) {
             for (String labelPatternStr : this.label.getLabelsSet()) {
                 Pattern labelPattern = Pattern.compile(labelPatternStr);
-                if (labelPattern.matcher(label.getName()).matches()) {
+                if (labelPattern.matcher(labelName).matches()) {
                     logger.println(DISPLAY_NAME + ": Pull request has label: " + labelPatternStr);
                     LOGGER.info("Pull request has '{}' label.", labelPatternStr);
-                    return new GitHubPRCause(remotePR, "PR has label: " + labelPatternStr, isSkip());
+                    return new GitHubPRCause(snapshot, "PR has label: " + labelPatternStr, isSkip());
                 }
             }
         }
@@ -63,6 +71,25 @@ public class GitHubPRLabelPatternExistsEvent extends GitHubPREvent {
         return skip;
     }
 
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        if (!payload.isPullRequestAction("labeled", "opened", "reopened", "synchronize") || payload.isClosed()) {
+            return null;
+        }
+
+        for (String labelName : payload.getLabels(gitHubPRTrigger.getGitHub())) {
+            for (String labelPatternStr : this.label.getLabelsSet()) {
+                if (Pattern.compile(labelPatternStr).matcher(labelName).matches()) {
+                    listener.getLogger().println(DISPLAY_NAME + ": Pull request has label: " + labelPatternStr);
+                    LOGGER.info("Pull request has '{}' label.", labelPatternStr);
+                    return payload.createCause(gitHubPRTrigger.getGitHub(), "PR has label: " + labelPatternStr, isSkip());
+                }
+            }
+        }
+        return null;
+    }
+
     @Extension
     public static class DescriptorImpl extends GitHubPREventDescriptor {
         @Override
@@ -3,20 +3,21 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 import hudson.Extension;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRLabel;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
 import org.kohsuke.github.GHIssueState;
-import org.kohsuke.github.GHLabel;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 import javax.annotation.CheckForNull;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.Collection;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,7 +43,13 @@ public class GitHubPRLabelRemovedEvent extends GitHubPREvent {
     @Override
     public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
                                @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
-        if (remotePR.getState().equals(GHIssueState.CLOSED)) {
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
+
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        if (snapshot.getState().equals(GHIssueState.CLOSED)) {
             return null; // already closed, skip check?
         }
 
@@ -65,10 +72,9 @@ public class GitHubPRLabelRemovedEvent extends GitHubPREvent {
 
         GitHubPRCause cause = null;
         boolean hasRemote = false;
-        Collection<GHLabel> labels = remotePR.getRepository().getIssue(remotePR.getNumber()).getLabels();
-        for (GHLabel remoteLabel : labels) {
+        for (String remoteLabel : snapshot.getLabels()) {
             for (String checkedLabel : label.getLabelsSet()) {
-                if (checkedLabel.equals(remoteLabel.getName())) {
+                if (checkedLabel.equals(remoteLabel)) {
                     hasRemote = true;
                     break;
                 }
@@ -81,7 +87,7 @@ public class GitHubPRLabelRemovedEvent extends GitHubPREvent {
             final PrintStream logger = listener.getLogger();
             logger.println(DISPLAY_NAME + ": state has changed ("
                     + label.getLabelsSet() + " labels were removed)");
-            cause = new GitHubPRCause(remotePR, label.getLabelsSet() + " labels were removed", false);
+            cause = new GitHubPRCause(snapshot, label.getLabelsSet() + " labels were removed", false);
         }
 
         return cause;
@@ -91,6 +97,32 @@ public class GitHubPRLabelRemovedEvent extends GitHubPREvent {
         return label;
     }
 
+    /**
+     * Hook tells only one removed label, so other configured labels are checked with remote labels.
+     */
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        if (!payload.isPullRequestAction("unlabeled") || payload.isClosed()) {
+            return null;
+        }
+
+        Set<String> labels = label.getLabelsSet();
+        if (!labels.contains(payload.getLabel())) {
+            return null; // other label removed
+        }
+        if (labels.size() > 1) {
+            for (String remoteLabel : payload.getLabels(gitHubPRTrigger.getGitHub())) {
+                if (labels.contains(remoteLabel)) {
+                    return null; // not all removed
+                }
+            }
+        }
+
+        listener.getLogger().println(DISPLAY_NAME + ": state has changed (" + labels + " labels were removed)");
+        return payload.createCause(gitHubPRTrigger.getGitHub(), labels + " labels were removed", false);
+    }
+
     @Extension
     public static class DescriptorImpl extends GitHubPREventDescriptor {
 
@@ -3,7 +3,9 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 import hudson.Extension;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREventDescriptor;
@@ -36,11 +38,17 @@ public class GitHubPRNonMergeableEvent extends GitHubPREvent {
     @Override
     public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GHPullRequest remotePR,
                                @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
+        return check(gitHubPRTrigger, new GitHubPRSnapshot(remotePR), localPR, listener);
+    }
+
+    @Override
+    public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                               @CheckForNull GitHubPRPullRequest localPR, TaskListener listener) throws IOException {
         final PrintStream logger = listener.getLogger();
 
         Boolean mergeable;
         try {
-            mergeable = remotePR.getMergeable();
+            mergeable = snapshot.getMergeable();
         } catch (IOException e) {
             logger.println(DISPLAY_NAME + ": can't get mergeable status");
             LOGGER.warn("Can't get mergeable status: {}", e.getMessage());
@@ -49,7 +57,7 @@ public class GitHubPRNonMergeableEvent extends GitHubPREvent {
         mergeable = mergeable != null ? mergeable : false;
 
         if (!mergeable) {
-            return new GitHubPRCause(remotePR, DISPLAY_NAME, isSkip());
+            return new GitHubPRCause(snapshot, DISPLAY_NAME, isSkip());
         }
 
         return null;
@@ -59,6 +67,30 @@ public class GitHubPRNonMergeableEvent extends GitHubPREvent {
         return skip;
     }
 
+    @Override
+    public GitHubPRCause checkHook(GitHubPRTrigger gitHubPRTrigger, GitHubPRHookPayload payload,
+                                   TaskListener listener) throws IOException {
+        // mergeable changes only with PR head or base, other actions would skip builds of other events
+        if (!payload.isPullRequestAction("opened", "reopened", "synchronize") || payload.isClosed()) {
+            return null;
+        }
+
+        Boolean mergeable;
+        try {
+            mergeable = payload.getMergeable(gitHubPRTrigger.getGitHub());
+        } catch (IOException e) {
+            listener.getLogger().println(DISPLAY_NAME + ": can't get mergeable status");
+            LOGGER.warn("Can't get mergeable status: {}", e.getMessage());
+            return null;
+        }
+
+        // null means GitHub didn't calculate it yet, unknown is not a reason to skip
+        if (mergeable != null && !mergeable) {
+            return payload.createCause(gitHubPRTrigger.getGitHub(), DISPLAY_NAME, isSkip());
+        }
+        return null;
+    }
+
     @Extension
     public static class DescriptorImpl extends GitHubPREventDescriptor {
         @Override
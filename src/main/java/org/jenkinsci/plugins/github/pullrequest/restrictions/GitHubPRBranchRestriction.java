@@ -35,7 +35,13 @@ public class GitHubPRBranchRestriction implements Describable<GitHubPRBranchRest
     }
 
     public boolean isBranchBuildAllowed(GHPullRequest remotePR) {
-        String branchName = remotePR.getBase().getRef();
+        return isBranchBuildAllowed(remotePR.getBase().getRef());
+    }
+
+    /**
+     * @param branchName target (base) branch of PR
+     */
+    public boolean isBranchBuildAllowed(String branchName) {
         //if allowed branch list is empty, it's allowed to build any branch
         boolean isAllowed = targetBranchList.isEmpty();
 
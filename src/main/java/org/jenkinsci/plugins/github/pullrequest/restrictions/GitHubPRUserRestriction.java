@@ -4,11 +4,16 @@ import hudson.Extension;
 import hudson.model.Describable;
 import hudson.model.Descriptor;
 import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRComment;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCommentConsumer;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCommentPipeline;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRSnapshot;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.kohsuke.github.*;
 import org.kohsuke.stapler.DataBoundConstructor;
 
+import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -24,7 +29,10 @@ import java.util.regex.Pattern;
 public class GitHubPRUserRestriction implements Describable<GitHubPRUserRestriction> {
     private static final Logger LOGGER = LoggerFactory.getLogger(GitHubPRUserRestriction.class);
     private final Set<String> orgsSet;
-    private final Set<String> usersSet;
+    /**
+     * Replaced on change, never modified: job may be saved while PRs of one trigger run are checked concurrently
+     */
+    private volatile Set<String> usersSet;
     private final String whitelistUserMsg;
     private final String orgs;
 
@@ -57,7 +65,15 @@ public class GitHubPRUserRestriction implements Describable<GitHubPRUserRestrict
 
     public void addUserToWhitelist(String author, GitHubPRTrigger gitHubPRTrigger) {
         LOGGER.info("Adding {} to whitelist", author);
-        usersSet.add(author);
+        synchronized (this) {
+            if (usersSet.contains(author)) {
+                return;
+            }
+            Set<String> users = new HashSet<>(usersSet);
+            users.add(author);
+            usersSet = users;
+        }
+        // write-behind, saves requested by concurrent checks are merged
         gitHubPRTrigger.trySave();
     }
 
@@ -69,32 +85,52 @@ public class GitHubPRUserRestriction implements Describable<GitHubPRUserRestrict
      * @return true if user/org whitelisted
      */
     public boolean isWhitelisted(GHUser user) {
-        return !isMyselfUser(user) && usersSet.contains(user.getLogin()) || isInWhitelistedOrg(user);
+        return !isMyselfUser(user) && isWhitelistedUser(user.getLogin()) || isInWhitelistedOrg(user);
+    }
+
+    private boolean isWhitelistedUser(String login) {
+        return usersSet.contains(login);
     }
 
     /**
      * Method that updates local whitelist with new users.
      */
     public void populate(GHPullRequest remotePR, GitHubPRPullRequest localPR, GitHubPRTrigger gitHubPRTrigger) {
-        try {
-            for (GHIssueComment remoteComment : remotePR.getComments()) {
-                String remoteCommentBody = remoteComment.getBody();
-                if (localPR.getLastCommentCreatedAt().compareTo(remoteComment.getCreatedAt()) < 0) {
-                    //this remote comment is new
-                    GHUser remoteCommentAuthor = remoteComment.getUser();
-                    if (!isMyselfUser(remoteCommentAuthor) && whitelistUserPattern.matcher(remoteCommentBody).matches()) {
-                        /* author is not bot, he is admin and there is code phrase for whitelisting users
-                         * in the comment body, so add PR author to whitelist*/
-                        addUserToWhitelist(remotePR.getUser().getName(), gitHubPRTrigger);
-                    }
-                }
-            }
+        populate(new GitHubPRSnapshot(remotePR), localPR, gitHubPRTrigger);
+    }
 
+    /**
+     * Method that updates local whitelist with new users. Uses comments already fetched for current check.
+     */
+    public void populate(GitHubPRSnapshot snapshot, GitHubPRPullRequest localPR, GitHubPRTrigger gitHubPRTrigger) {
+        GitHubPRCommentPipeline comments = new GitHubPRCommentPipeline(snapshot, localPR);
+        registerCommentConsumers(gitHubPRTrigger, comments);
+        try {
+            comments.process();
         } catch (IOException e) {
             LOGGER.error("Can't connect retrieve comment data from GitHub", e);
         }
     }
 
+    /**
+     * Whitelist commands are applied while comments pass pipeline, before events check comment authors.
+     */
+    public void registerCommentConsumers(GitHubPRTrigger gitHubPRTrigger, GitHubPRCommentPipeline comments) {
+        if (comments.getLocalPR() == null) {
+            return; // new PR, nothing to compare
+        }
+        comments.register(this, new WhitelistCommands(comments.getSnapshot(), gitHubPRTrigger));
+    }
+
+    private Pattern getWhitelistUserPattern() {
+        Pattern current = whitelistUserPattern;
+        if (current == null) {
+            current = Pattern.compile(whitelistUserMsg);
+            whitelistUserPattern = current;
+        }
+        return current;
+    }
+
     public String getWhitelistUserMsg() {
         return whitelistUserMsg;
     }
@@ -108,9 +144,13 @@ public class GitHubPRUserRestriction implements Describable<GitHubPRUserRestrict
     }
 
     private boolean isMyselfUser(GHUser user) {
+        return user != null && isMyselfUser(user.getLogin());
+    }
+
+    private boolean isMyselfUser(String login) {
         boolean ret = false;
         try {
-            ret = user != null && user.getLogin().equals(getGitHub().getMyself().getLogin());
+            ret = login.equals(getGitHub().getMyself().getLogin());
         } catch (IOException e) {
             LOGGER.error("Can't connect retrieve user data from GitHub", e);
         }
@@ -142,6 +182,31 @@ public class GitHubPRUserRestriction implements Describable<GitHubPRUserRestrict
         return (DescriptorImpl) Jenkins.getInstance().getDescriptor(GitHubPRUserRestriction.class);
     }
 
+    /**
+     * Adds PR author to whitelist when not bot user comments whitelist phrase.
+     */
+    private class WhitelistCommands implements GitHubPRCommentConsumer {
+        private final GitHubPRSnapshot snapshot;
+        private final GitHubPRTrigger gitHubPRTrigger;
+
+        private WhitelistCommands(GitHubPRSnapshot snapshot, GitHubPRTrigger gitHubPRTrigger) {
+            this.snapshot = snapshot;
+            this.gitHubPRTrigger = gitHubPRTrigger;
+        }
+
+        @Override
+        public void accept(@Nonnull GitHubPRComment remoteComment) {
+            //this remote comment is new
+            String remoteCommentAuthor = remoteComment.getAuthorLogin();
+            if (remoteCommentAuthor != null && getWhitelistUserPattern().matcher(remoteComment.getBody()).matches()
+                    && !isMyselfUser(remoteCommentAuthor)) {
+                /* author is not bot, he is admin and there is code phrase for whitelisting users
+                 * in the comment body, so add PR author to whitelist*/
+                addUserToWhitelist(snapshot.getUser().getName(), gitHubPRTrigger);
+            }
+        }
+    }
+
     @Extension
     public static class DescriptorImpl extends Descriptor<GitHubPRUserRestriction> {
 
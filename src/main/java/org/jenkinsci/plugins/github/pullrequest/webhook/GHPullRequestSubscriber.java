@@ -3,27 +3,23 @@ package org.jenkinsci.plugins.github.pullrequest.webhook;
 import com.google.common.base.Predicate;
 import hudson.Extension;
 import hudson.model.AbstractProject;
-import hudson.security.ACL;
-import jenkins.model.Jenkins;
 import org.jenkinsci.plugins.github.extension.GHEventsSubscriber;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookIntake;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRJobIndex;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTriggerMode;
 import org.jenkinsci.plugins.github.util.FluentIterableWrapper;
 import org.kohsuke.github.GHEvent;
-import org.kohsuke.github.GHEventPayload.IssueComment;
-import org.kohsuke.github.GHEventPayload.PullRequest;
-import org.kohsuke.github.GitHub;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 import static com.google.common.collect.Sets.immutableEnumSet;
-import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
 import static org.jenkinsci.plugins.github.util.JobInfoHelpers.isBuildable;
 import static org.jenkinsci.plugins.github.util.JobInfoHelpers.withTrigger;
@@ -31,6 +27,7 @@ import static org.jenkinsci.plugins.github.util.JobInfoHelpers.withTrigger;
 /**
  * Uses extension point from github-plugin to get events form standard github-webhook endpoint.
  * Subscribes on pull_request and issue_comment events.
+ * Push events cause recheck of open PRs that target pushed branch.
  * 
  * @author lanwen (Merkushev Kirill)
  */
@@ -46,34 +43,96 @@ public class GHPullRequestSubscriber extends GHEventsSubscriber {
 
     @Override
     protected Set<GHEvent> events() {
-        return immutableEnumSet(GHEvent.PULL_REQUEST, GHEvent.ISSUE_COMMENT);
+        return immutableEnumSet(GHEvent.PULL_REQUEST, GHEvent.ISSUE_COMMENT, GHEvent.PUSH);
     }
 
+    /**
+     * Handles hooks taken from intake buffer, in intake worker threads
+     */
+    private final GitHubPRHookIntake.Handler intakeHandler = new GitHubPRHookIntake.Handler() {
+        @Override
+        public String getKey(GHEvent event, String payload) throws IOException {
+            if (event == GHEvent.PUSH) {
+                return null;
+            }
+            PullRequestInfo info = PullRequestInfoExtractor.extract(event, payload);
+            // light hooks jobs need every hook, only full checks of PR can be collapsed
+            for (AbstractProject<?, ?> job : getJobs(info.getRepo())) {
+                GitHubPRTrigger trigger = job.getTrigger(GitHubPRTrigger.class);
+                if (!isHeavy(trigger.getTriggerMode())) {
+                    return null;
+                }
+            }
+            return info.getRepo().toLowerCase(Locale.ENGLISH) + "#" + info.getNum();
+        }
+
+        @Override
+        public void handle(GHEvent event, String payload) {
+            dispatch(event, payload);
+        }
+
+        /**
+         * Only PR checks of hook jobs are journaled, push rechecks and light hooks are lost as before
+         */
+        @Override
+        public void keep(GHEvent event, String payload) throws IOException {
+            if (event == GHEvent.PUSH) {
+                return;
+            }
+            PullRequestInfo info = PullRequestInfoExtractor.extract(event, payload);
+            for (AbstractProject<?, ?> job : getJobs(info.getRepo())) {
+                GitHubPRTrigger trigger = job.getTrigger(GitHubPRTrigger.class);
+                if (isHeavy(trigger.getTriggerMode())) {
+                    trigger.journalRun(job, info.getNum(), event);
+                }
+            }
+        }
+    };
+
+    /**
+     * Only puts raw hook to intake buffer, so request thread is released at once.
+     * Payload is read, jobs are resolved and checks are journaled by intake workers,
+     * hooks still buffered on shutdown are journaled when intake is closed.
+     */
     @Override
     protected void onEvent(GHEvent event, String payload) {
-        try {
-            GitHub gh = GitHub.connectAnonymously();
+        GitHubPRTrigger.DescriptorImpl descriptor = GitHubPRTrigger.DescriptorImpl.get();
+        if (descriptor == null) {
+            dispatch(event, payload);
+            return;
+        }
+
+        descriptor.getHookIntake().submit(event, payload, intakeHandler);
+    }
 
-            PullRequestInfo info = extractPullRequestInfo(event, payload, gh);
+    /**
+     * Passes hook to triggers of repository jobs.
+     */
+    void dispatch(GHEvent event, String payload) {
+        if (event == GHEvent.PUSH) {
+            dispatchPush(payload);
+            return;
+        }
 
+        try {
+            PullRequestInfo info = PullRequestInfoExtractor.extract(event, payload);
+            // parsed once and shared by all LIGHT_HOOKS jobs of repository, so PR is fetched at most once
+            GitHubPRHookPayload hookPayload = null;
             for (AbstractProject<?, ?> job : getJobs(info.getRepo())) {
                 GitHubPRTrigger trigger = job.getTrigger(GitHubPRTrigger.class);
                 GitHubPRTriggerMode triggerMode = trigger.getTriggerMode();
 
                 switch (triggerMode) {
                     case HEAVY_HOOKS:
-                        trigger.queueRun(job, info.getNum());
+                    case HEAVY_HOOKS_CRON:
+                        trigger.queueRun(job, info.getNum(), event);
                         break;
 
                     case LIGHT_HOOKS:
-                        LOGGER.warn("Unsupported LIGHT_HOOKS trigger mode");
-//                        LOGGER.log(Level.INFO, "Begin processing hooks for {0}", trigger.getRepoFullName(job));
-//                        for (GitHubPREvent prEvent : trigger.getEvents()) {
-//                            GitHubPRCause cause = prEvent.checkHook(trigger, parsedPayload, null);
-//                            if (cause != null) {
-//                                trigger.build(cause);
-//                            }
-//                        }
+                        if (hookPayload == null) {
+                            hookPayload = new GitHubPRHookPayload(event, payload);
+                        }
+                        trigger.queueHook(job, hookPayload);
                         break;
                 }
             }
@@ -83,42 +142,50 @@ public class GHPullRequestSubscriber extends GHEventsSubscriber {
         }
     }
 
-    private PullRequestInfo extractPullRequestInfo(GHEvent event, String payload, GitHub gh) throws IOException {
-        switch (event) {
-            case ISSUE_COMMENT: {
-                IssueComment commentPayload = gh.parseEventPayload(new StringReader(payload), IssueComment.class);
-
-                int prNumber = commentPayload.getIssue().getNumber();
-
-                return new PullRequestInfo(commentPayload.getRepository().getFullName(), prNumber);
+    /**
+     * Merge result of every open PR that targets pushed branch changed.
+     * Only hook jobs with persisted PRs can find such PRs.
+     */
+    private void dispatchPush(String payload) {
+        try {
+            PushInfo info = PullRequestInfoExtractor.extractPush(payload);
+            if (info == null) {
+                LOGGER.debug("Push is not about branch update, skipping");
+                return;
             }
 
-            case PULL_REQUEST: {
-                PullRequest pr = gh.parseEventPayload(new StringReader(payload), PullRequest.class);
-
-                return new PullRequestInfo(pr.getPullRequest().getRepository().getFullName(), pr.getNumber());
+            for (AbstractProject<?, ?> job : getJobs(info.getRepo())) {
+                GitHubPRTrigger trigger = job.getTrigger(GitHubPRTrigger.class);
+                switch (trigger.getTriggerMode()) {
+                    case HEAVY_HOOKS:
+                    case HEAVY_HOOKS_CRON:
+                        trigger.queueBaseRecheck(job, info.getBranch());
+                        break;
+                    default:
+                        break;
+                }
             }
-
-            default:
-                throw new IllegalStateException(format("Did you add event %s in events() method?", event));
+        } catch (Exception e) {
+            LOGGER.error("Can't process {} hook", GHEvent.PUSH, e);
         }
     }
 
-    private Set<AbstractProject> getJobs(final String repo) {
-        final Set<AbstractProject> ret = new HashSet<>();
+    private static boolean isHeavy(GitHubPRTriggerMode triggerMode) {
+        return triggerMode == GitHubPRTriggerMode.HEAVY_HOOKS || triggerMode == GitHubPRTriggerMode.HEAVY_HOOKS_CRON;
+    }
 
-        ACL.impersonate(ACL.SYSTEM, new Runnable() {
-            @Override
-            public void run() {
-                List<AbstractProject> jobs = Jenkins.getInstance().getAllItems(AbstractProject.class);
-                ret.addAll(FluentIterableWrapper.from(jobs)
-                        .filter(isBuildable())
-                        .filter(withTrigger(GitHubPRTrigger.class))
-                        .filter(withRepo(repo)).toSet());
-            }
-        });
+    private Set<AbstractProject> getJobs(final String repo) {
+        GitHubPRJobIndex index = GitHubPRJobIndex.get();
+        if (index == null) {
+            return new HashSet<>();
+        }
 
-        return ret;
+        // index keeps only jobs with trigger for repo, so filters cost O(matching jobs)
+        Set<AbstractProject> jobs = new HashSet<AbstractProject>(index.getJobs(repo));
+        return FluentIterableWrapper.from(jobs)
+                .filter(isBuildable())
+                .filter(withTrigger(GitHubPRTrigger.class))
+                .filter(withRepo(repo)).toSet();
     }
 
     private Predicate<AbstractProject> withRepo(final String repo) {
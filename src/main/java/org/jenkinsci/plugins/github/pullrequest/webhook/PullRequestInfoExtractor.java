@@ -0,0 +1,153 @@
+package org.jenkinsci.plugins.github.pullrequest.webhook;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.kohsuke.github.GHEvent;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+import static java.lang.String.format;
+
+/**
+ * Reads repository name and PR number from hook payload without binding whole payload.
+ * Payload is streamed, not interesting objects (i.e. "pull_request", "sender") are skipped token by token
+ * and reading stops as soon as both values are found.
+ */
+public final class PullRequestInfoExtractor {
+    /**
+     * Thread safe, shared by all hooks. Parsers are cheap views over payload created by it
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String BRANCH_REF_PREFIX = "refs/heads/";
+
+    private PullRequestInfoExtractor() {
+    }
+
+    /**
+     * Factory for other readers of hook payloads
+     */
+    @Nonnull
+    public static JsonFactory getJsonFactory() {
+        return JSON_FACTORY;
+    }
+
+    /**
+     * @param event   pull_request or issue_comment
+     * @param payload hook body
+     */
+    @Nonnull
+    public static PullRequestInfo extract(@Nonnull GHEvent event, @Nonnull String payload) throws IOException {
+        if (event != GHEvent.PULL_REQUEST && event != GHEvent.ISSUE_COMMENT) {
+            throw new IllegalStateException(format("Did you add event %s in events() method?", event));
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Payload of " + event + " is not JSON object");
+            }
+
+            String repo = null;
+            Integer number = null;
+            while ((repo == null || number == null) && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("repository".equals(field) && value == JsonToken.START_OBJECT) {
+                    repo = readString(parser, "full_name");
+                } else if (event == GHEvent.PULL_REQUEST && "number".equals(field)
+                        && value == JsonToken.VALUE_NUMBER_INT) {
+                    number = parser.getIntValue();
+                } else if (event == GHEvent.ISSUE_COMMENT && "issue".equals(field)
+                        && value == JsonToken.START_OBJECT) {
+                    number = readInt(parser, "number");
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (repo == null || number == null) {
+                throw new IOException(format("Payload of %s has no repository name or number", event));
+            }
+            return new PullRequestInfo(repo, number);
+        }
+    }
+
+    /**
+     * @param payload push hook body
+     *
+     * @return null when push isn't about branch update, i.e. tag push or branch removal
+     */
+    @CheckForNull
+    public static PushInfo extractPush(@Nonnull String payload) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Payload of " + GHEvent.PUSH + " is not JSON object");
+            }
+
+            String repo = null;
+            String ref = null;
+            boolean deleted = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("repository".equals(field) && value == JsonToken.START_OBJECT) {
+                    repo = readString(parser, "full_name");
+                } else if ("ref".equals(field) && value == JsonToken.VALUE_STRING) {
+                    ref = parser.getText();
+                } else if ("deleted".equals(field)) {
+                    deleted = value == JsonToken.VALUE_TRUE;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (repo == null || ref == null) {
+                throw new IOException(format("Payload of %s has no repository name or ref", GHEvent.PUSH));
+            }
+            if (deleted || !ref.startsWith(BRANCH_REF_PREFIX)) {
+                return null;
+            }
+            return new PushInfo(repo, ref.substring(BRANCH_REF_PREFIX.length()));
+        }
+    }
+
+    /**
+     * Reads string field of current object and moves parser to the end of object.
+     */
+    @CheckForNull
+    private static String readString(JsonParser parser, String name) throws IOException {
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (result == null && name.equals(field) && value == JsonToken.VALUE_STRING) {
+                result = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads int field of current object and moves parser to the end of object.
+     */
+    @CheckForNull
+    private static Integer readInt(JsonParser parser, String name) throws IOException {
+        Integer result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (result == null && name.equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                result = parser.getIntValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package org.jenkinsci.plugins.github.pullrequest.webhook;
+
+/**
+ * Bean class to store main info from payload of push webhook
+ */
+public class PushInfo {
+    private final String repo;
+    private final String branch;
+
+    public PushInfo(String repo, String branch) {
+        this.repo = repo;
+        this.branch = branch;
+    }
+
+    public String getRepo() {
+        return repo;
+    }
+
+    /**
+     * Short branch name, i.e. "master"
+     */
+    public String getBranch() {
+        return branch;
+    }
+}
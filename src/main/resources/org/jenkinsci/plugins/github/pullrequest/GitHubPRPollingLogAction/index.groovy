@@ -13,6 +13,10 @@ l.layout(title: my.displayName) {
     st.include(page: "sidepanel", it: my.project)
     l.main_panel() {
         h1(my.displayName);
+        def nextPoll = my.nextPoll
+        if (nextPoll) {
+            p("Next check not earlier than " + nextPoll)
+        }
 //        h4("Polling log of last attempt of build.")
         def log = my.log;
         if (log) {j
@@ -0,0 +1,130 @@
+package org.jenkinsci.plugins.github.pullrequest.GitHubPRRateLimitLink
+
+def l = namespace(lib.LayoutTagLib);
+
+l.layout(title: my.displayName, permission: app.ADMINISTER) {
+    l.main_panel() {
+        h1(my.displayName)
+
+        h2("Rate limit")
+        def scheduler = my.scheduler
+        if (scheduler.reset == null) {
+            text("Rate limit is not known yet, no checks finished since start.")
+        } else {
+            table(class: "pane") {
+                tr() { td("Remaining"); td("${scheduler.remaining} of ${scheduler.limit}") }
+                tr() { td("Reset at"); td(scheduler.reset.toString()) }
+                tr() { td("Available per hour until reset"); td(scheduler.availablePerHour) }
+                tr() { td("Forecast burn per hour"); td(scheduler.forecastPerHour) }
+                tr() { td("Requests since start, including 304"); td(my.rateLimitTracker.requests) }
+            }
+
+            h3("Jobs")
+            table(class: "sortable pane bigtable") {
+                tr() {
+                    th("Job")
+                    th("Priority")
+                    th("Requests per check")
+                    th("Check interval, s")
+                    th("Forecast per hour")
+                    th("Checks")
+                    th("Deferred")
+                    th("Last check")
+                }
+                for (job in scheduler.jobs) {
+                    tr() {
+                        td(job.jobName)
+                        td(job.priority.description)
+                        td(String.format("%.1f", job.avgCost))
+                        td(Math.round(job.avgInterval / 1000))
+                        td(job.forecastPerHour)
+                        td(job.checks)
+                        td(job.deferred)
+                        td(job.lastCheck == 0 ? "-" : new Date(job.lastCheck).toString())
+                    }
+                }
+            }
+        }
+
+        h2("Hook queues")
+        h3("Received hooks")
+        def hookIntake = my.hookIntake
+        table(class: "pane") {
+            tr() { td("Overflow policy"); td(hookIntake.policy.description) }
+            tr() { td("Dispatch threads"); td(hookIntake.threads) }
+            tr() { td("Depth"); td("${hookIntake.depth} of ${hookIntake.capacity}") }
+            tr() { td("Max depth"); td(hookIntake.maxDepth) }
+            tr() { td("Received"); td(hookIntake.received) }
+            tr() { td("Dispatched"); td(hookIntake.dispatched) }
+            tr() { td("Coalesced"); td(hookIntake.coalesced) }
+            tr() { td("Dropped"); td(hookIntake.dropped) }
+        }
+
+        h3("Checks")
+        def hookQueue = my.hookQueue
+        def hookCoalescer = my.hookCoalescer
+        table(class: "pane") {
+            tr() { td("Threads"); td(hookQueue.threads) }
+            tr() { td("Coalescing window, ms"); td(hookCoalescer.window) }
+            tr() { td("Hooks received"); td(hookCoalescer.received) }
+            tr() { td("Hooks absorbed by pending checks"); td(hookCoalescer.absorbed) }
+            tr() { td("Pending checks"); td(hookCoalescer.pending) }
+        }
+
+        h3("Push rechecks")
+        def pushCoalescer = my.pushCoalescer
+        table(class: "pane") {
+            tr() { td("Recheck window, ms"); td(pushCoalescer.window) }
+            tr() { td("Pushes received"); td(pushCoalescer.received) }
+            tr() { td("Pushes absorbed by pending rechecks"); td(pushCoalescer.absorbed) }
+            tr() { td("Pending rechecks"); td(pushCoalescer.pending) }
+        }
+
+        h3("Hook journal")
+        def hookJournal = my.hookJournal
+        table(class: "pane") {
+            tr() { td("Not finished checks"); td(hookJournal.open) }
+            tr() { td("Records waiting for write"); td(hookJournal.buffered) }
+            tr() { td("Records written"); td(hookJournal.records) }
+            tr() { td("Batches written"); td(hookJournal.batches) }
+            tr() { td("Last batch write and sync, microseconds"); td(hookJournal.lastSyncMicros) }
+            tr() { td("Compactions"); td(hookJournal.compactions) }
+        }
+
+        h3("Stripes")
+        table(class: "sortable pane bigtable") {
+            tr() {
+                th("Job")
+                th("Depth")
+                th("Executed")
+                th("Last wait, ms")
+                th("Average wait, ms")
+                th("Max wait, ms")
+            }
+            for (stripe in hookQueue.stripes) {
+                tr() {
+                    td(stripe.key)
+                    td(stripe.depth)
+                    td(stripe.executed)
+                    td(stripe.lastWait)
+                    td(stripe.avgWait)
+                    td(stripe.maxWait)
+                }
+            }
+        }
+
+        h2("Saves")
+        def persister = my.persister
+        table(class: "pane") {
+            tr() { td("Max save delay, ms"); td(persister.delay) }
+            tr() { td("Pending writes"); td(persister.pending) }
+            tr() { td("Oldest pending write, ms"); td(persister.oldestPendingAge) }
+            tr() { td("Save requests"); td(persister.requested) }
+            tr() { td("Requests merged into pending writes"); td(persister.coalesced) }
+            tr() { td("Written"); td(persister.written) }
+            tr() { td("Failed"); td(persister.failed) }
+            tr() { td("Last write, microseconds"); td(persister.lastWriteMicros) }
+            tr() { td("Max wait before write, ms"); td(persister.maxWait) }
+        }
+    }
+}
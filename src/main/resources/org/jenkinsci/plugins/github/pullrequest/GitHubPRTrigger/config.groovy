@@ -19,6 +19,18 @@ f.block {
             f.textbox(default: descriptor.spec, checkUrl: "'descriptorByName/hudson.triggers.TimerTrigger/checkSpec?value=' + encodeURIComponent(this.value)")
         }
 
+        f.entry(title: "Polling strategy", field: "pollingStrategy") {
+            f.enum() {
+                text(my.description)
+            }
+        }
+
+        f.entry(title: "Polling priority", field: "pollingPriority") {
+            f.enum() {
+                text(my.description)
+            }
+        }
+
         f.entry(title: "Set status before build", field: "preStatus") {
             f.checkbox()
         }
@@ -23,6 +23,58 @@ f.section(title:_(descriptor.displayName)){
         f.textbox()
     }
 
+    f.entry(title: _("PR check parallelism"), field: "checkParallelism"){
+        f.textbox(default: 4)
+    }
+
+    f.entry(title: _("Shared snapshot lifetime (seconds)"), field: "snapshotLifetime"){
+        f.textbox(default: 60)
+    }
+
+    f.entry(title: _("Hook processing threads"), field: "hookThreads"){
+        f.textbox(default: 4)
+    }
+
+    f.entry(title: _("Hook coalescing window (seconds)"), field: "hookCoalescingWindow"){
+        f.textbox(default: 5)
+    }
+
+    f.entry(title: _("Received hooks buffer size"), field: "hookIntakeCapacity"){
+        f.textbox(default: 1000)
+    }
+
+    f.entry(title: _("Received hooks dispatch threads"), field: "hookIntakeThreads"){
+        f.textbox(default: 2)
+    }
+
+    f.entry(title: _("Received hooks buffer overflow"), field: "hookOverflowPolicy"){
+        f.enum() {
+            text(my.description)
+        }
+    }
+
+    f.entry(title: _("Push recheck window (seconds)"), field: "pushRecheckWindow"){
+        f.textbox(default: 60)
+    }
+
+    f.entry(title: _("Max PRs rechecked per push"), field: "pushRecheckLimit"){
+        f.textbox(default: 20)
+    }
+
+    f.entry(title: _("Journal PR state changes"), field: "journalRuntimeState"){
+        f.checkbox()
+    }
+
+    f.entry(title: _("PR state file format"), field: "runtimeFormat"){
+        f.enum() {
+            text(my.description)
+        }
+    }
+
+    f.entry(title: _("Max save delay (seconds)"), field: "saveDelay"){
+        f.textbox(default: 5)
+    }
+
     f.validateButton(title: _("Create access token"),
             progress: _("Creating..."),
             method: "createApiToken", with: "username,password")
@@ -0,0 +1,52 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.XmlFile;
+import hudson.util.XStream2;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class GitHubPRBinaryFormatTest {
+
+    @Test
+    public void shouldReadWhatWasWritten() throws Exception {
+        GitHubPRRepository repository = readXml();
+        repository.getPollingState().setPulls("\"etag\"", null);
+        repository.getPollingState().updateCursor(new Date(1000L));
+        repository.getPollingState().markHooked(8, "167f686ad1", new Date(2000L));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GitHubPRBinaryFormat.write(repository, bytes);
+        GitHubPRRepository read = GitHubPRBinaryFormat.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertThat(read.getFullName(), equalTo(repository.getFullName()));
+        assertThat(read.getGithubUrl(), equalTo(repository.getGithubUrl()));
+        assertThat(read.getPulls(), equalTo(repository.getPulls()));
+        assertThat(read.getPollingState().getPullsETag(), equalTo("\"etag\""));
+        assertThat(read.getPollingState().getUpdatedCursor(), equalTo(new Date(1000L)));
+        assertThat(read.getPollingState().isHooked(8, "167f686ad1", new Date(2000L)), equalTo(true));
+        assertThat(read.isChanged(), equalTo(false));
+
+        byte[] xml = new XStream2().toXML(repository).getBytes("UTF-8");
+        assertThat(bytes.size(), lessThan(xml.length));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectNotBinaryState() throws Exception {
+        GitHubPRBinaryFormat.read(new ByteArrayInputStream("<?xml version='1.0'?>".getBytes("UTF-8")));
+    }
+
+    private static GitHubPRRepository readXml() throws Exception {
+        File file = new File(GitHubPRBinaryFormatTest.class.getClassLoader()
+                .getResource(GitHubPRRepository.FILE).toURI());
+        return (GitHubPRRepository) new XmlFile(new XStream2(), file).read();
+    }
+}
@@ -0,0 +1,54 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import net.sf.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class GitHubPRCommentCursorTest {
+
+    @Test
+    public void shouldTakeOnlyNewerIds() throws Exception {
+        GitHubPRCommentCursor cursor = new GitHubPRCommentCursor(10L, new Date(1000));
+
+        // edited old comment comes with "since" request, but is not new
+        assertThat(cursor.isBefore(new GitHubPRComment(9, "edited", "user", new Date(2000))), is(false));
+        assertThat(cursor.isBefore(new GitHubPRComment(11, "new", "user", new Date(1000))), is(true));
+    }
+
+    @Test
+    public void shouldUseTimeForCursorWithoutId() throws Exception {
+        GitHubPRCommentCursor cursor = new GitHubPRCommentCursor(null, new Date(1000));
+
+        assertThat(cursor.isBefore(new GitHubPRComment(1, "old", "user", new Date(1000))), is(false));
+        assertThat(cursor.isBefore(new GitHubPRComment(2, "new", "user", new Date(2000))), is(true));
+        assertThat(GitHubPRCommentCursor.EMPTY.isBefore(new GitHubPRComment(1, "any", "user", new Date(0))), is(true));
+    }
+
+    @Test
+    public void shouldAdvanceToNewerComment() throws Exception {
+        GitHubPRCommentCursor cursor = new GitHubPRCommentCursor(10L, new Date(1000));
+        GitHubPRComment older = new GitHubPRComment(5, "older", "user", new Date(500));
+
+        assertThat(cursor.advance(older), sameInstance(cursor));
+        assertThat(cursor.advance(new GitHubPRComment(12, "newer", "user", new Date(3000))),
+                equalTo(new GitHubPRCommentCursor(12L, new Date(3000))));
+    }
+
+    @Test
+    public void shouldReadCommentFromJson() throws Exception {
+        GitHubPRComment comment = GitHubPRComment.fromJson(JSONObject.fromObject(
+                "{\"id\":123,\"body\":\"test this please\",\"user\":{\"login\":\"lanwen\"},"
+                        + "\"created_at\":\"2015-05-05T23:40:15Z\"}"));
+
+        assertThat(comment.getId(), equalTo(123L));
+        assertThat(comment.getBody(), equalTo("test this please"));
+        assertThat(comment.getAuthorLogin(), equalTo("lanwen"));
+        assertThat(comment.getCreatedAt(), equalTo(GitHubPRRestClient.parseDate("2015-05-05T23:40:15Z")));
+    }
+}
@@ -0,0 +1,75 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GitHubPRCommentPipelineTest {
+
+    @Mock
+    private GitHubPRSnapshot snapshot;
+
+    @Mock
+    private GitHubPRPullRequest localPR;
+
+    @Test
+    public void shouldWalkCommentsOnceForAllConsumers() throws Exception {
+        GitHubPRCommentCursor cursor = new GitHubPRCommentCursor(1L, new Date(1000));
+        when(localPR.getCommentCursor()).thenReturn(cursor);
+        when(snapshot.getCommentsAfter(cursor)).thenReturn(asList(
+                new GitHubPRComment(2, "first", "user", new Date(2000)),
+                new GitHubPRComment(3, "second", "user", new Date(3000))
+        ));
+
+        GitHubPRCommentPipeline comments = new GitHubPRCommentPipeline(snapshot, localPR);
+        Bodies one = new Bodies();
+        Bodies two = new Bodies();
+        comments.register("one", one);
+        comments.register("two", two);
+        comments.process();
+
+        verify(snapshot, times(1)).getCommentsAfter(cursor);
+        assertThat(one.bodies, contains("first", "second"));
+        assertThat(comments.getConsumer("two", Bodies.class).bodies, contains("first", "second"));
+        assertThat(comments.getLastCommentCursor(), equalTo(new GitHubPRCommentCursor(3L, new Date(3000))));
+        verify(snapshot).setLastCommentCursor(new GitHubPRCommentCursor(3L, new Date(3000)));
+    }
+
+    @Test
+    public void shouldKeepCursorWithoutNewComments() throws Exception {
+        GitHubPRCommentCursor cursor = new GitHubPRCommentCursor(1L, new Date(1000));
+        when(localPR.getCommentCursor()).thenReturn(cursor);
+        when(snapshot.getCommentsAfter(cursor)).thenReturn(new ArrayList<GitHubPRComment>());
+
+        GitHubPRCommentPipeline comments = new GitHubPRCommentPipeline(snapshot, localPR);
+        comments.process();
+
+        assertThat(comments.hasConsumers(), is(false));
+        assertThat(comments.getLastCommentCursor(), equalTo(cursor));
+    }
+
+    private static class Bodies implements GitHubPRCommentConsumer {
+        private final List<String> bodies = new ArrayList<>();
+
+        @Override
+        public void accept(@Nonnull GitHubPRComment comment) {
+            bodies.add(comment.getBody());
+        }
+    }
+}
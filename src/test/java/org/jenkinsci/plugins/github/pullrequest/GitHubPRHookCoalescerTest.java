@@ -0,0 +1,106 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GitHubPRHookCoalescerTest {
+    private static final String JOB = "job";
+
+    @Test
+    public void shouldRunOneCheckForHooksInsideWindow() throws Exception {
+        GitHubPRHookCoalescer coalescer = new GitHubPRHookCoalescer(new GitHubPRStripedQueue(1), 200);
+        CountingCheck check = new CountingCheck(1);
+
+        coalescer.submit(JOB, 1, check);
+        coalescer.submit(JOB, 1, check);
+
+        assertTrue(check.done.await(10, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertThat(check.runs.get(), equalTo(1));
+        assertThat(coalescer.getReceived(), equalTo(2L));
+        assertThat(coalescer.getAbsorbed(), equalTo(1L));
+        assertThat(coalescer.getPending(), equalTo(0));
+    }
+
+    @Test
+    public void shouldAbsorbHooksWhileCheckWaitsInQueue() throws Exception {
+        GitHubPRStripedQueue queue = new GitHubPRStripedQueue(1);
+        GitHubPRHookCoalescer coalescer = new GitHubPRHookCoalescer(queue, 0);
+        final CountDownLatch release = new CountDownLatch(1);
+        queue.execute(JOB, new Runnable() {
+            @Override
+            public void run() {
+                await(release);
+            }
+        });
+        CountingCheck check = new CountingCheck(1);
+
+        coalescer.submit(JOB, 1, check);
+        coalescer.submit(JOB, 1, check);
+        release.countDown();
+
+        assertTrue(check.done.await(10, TimeUnit.SECONDS));
+        assertThat(check.runs.get(), equalTo(1));
+        assertThat(coalescer.getAbsorbed(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldCheckEveryPROnItsOwn() throws Exception {
+        GitHubPRHookCoalescer coalescer = new GitHubPRHookCoalescer(new GitHubPRStripedQueue(1), 200);
+        CountingCheck check = new CountingCheck(2);
+
+        coalescer.submit(JOB, 1, check);
+        coalescer.submit(JOB, 2, check);
+
+        assertTrue(check.done.await(10, TimeUnit.SECONDS));
+        assertThat(check.runs.get(), equalTo(2));
+        assertThat(coalescer.getAbsorbed(), equalTo(0L));
+    }
+
+    @Test
+    public void shouldCheckAgainForHookAfterCheckStarted() throws Exception {
+        final GitHubPRHookCoalescer coalescer = new GitHubPRHookCoalescer(new GitHubPRStripedQueue(1), 0);
+        final CountingCheck check = new CountingCheck(2);
+
+        coalescer.submit(JOB, 1, new Runnable() {
+            @Override
+            public void run() {
+                coalescer.submit(JOB, 1, check);
+                check.run();
+            }
+        });
+
+        assertTrue(check.done.await(10, TimeUnit.SECONDS));
+        assertThat(check.runs.get(), equalTo(2));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class CountingCheck implements Runnable {
+        private final AtomicInteger runs = new AtomicInteger();
+        private final CountDownLatch done;
+
+        private CountingCheck(int expected) {
+            done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void run() {
+            runs.incrementAndGet();
+            done.countDown();
+        }
+    }
+}
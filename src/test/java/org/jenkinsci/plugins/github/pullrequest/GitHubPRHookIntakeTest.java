@@ -0,0 +1,180 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kohsuke.github.GHEvent;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class GitHubPRHookIntakeTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldDropOldestWhenFull() throws Exception {
+        GitHubPRHookIntake intake = new GitHubPRHookIntake(2, 1, GitHubPRHookOverflowPolicy.DROP_OLDEST);
+        BlockingHandler handler = new BlockingHandler();
+
+        intake.submit(GHEvent.PULL_REQUEST, "busy", handler);
+        handler.started.await(10, TimeUnit.SECONDS);
+        intake.submit(GHEvent.PULL_REQUEST, "1", handler);
+        intake.submit(GHEvent.PULL_REQUEST, "2", handler);
+        intake.submit(GHEvent.PULL_REQUEST, "3", handler);
+
+        assertThat(intake.getDepth(), equalTo(2));
+        assertThat(intake.getDropped(), equalTo(1L));
+
+        handler.release.countDown();
+        handler.awaitHandled(3);
+        assertThat(handler.handled, contains("busy", "2", "3"));
+    }
+
+    @Test
+    public void shouldKeepLatestHookOfPR() throws Exception {
+        GitHubPRHookIntake intake = new GitHubPRHookIntake(10, 1, GitHubPRHookOverflowPolicy.COALESCE);
+        BlockingHandler handler = new BlockingHandler();
+
+        intake.submit(GHEvent.PULL_REQUEST, "busy", handler);
+        handler.started.await(10, TimeUnit.SECONDS);
+        intake.submit(GHEvent.PULL_REQUEST, "#1", handler);
+        intake.submit(GHEvent.PULL_REQUEST, "#2", handler);
+        intake.submit(GHEvent.ISSUE_COMMENT, "#1 again", handler);
+
+        // PR of hooks is read by worker, not by submitter
+        assertThat(intake.getDepth(), equalTo(3));
+        assertThat(intake.isCoalescing(), is(true));
+
+        handler.release.countDown();
+        handler.awaitHandled(3);
+        assertThat(handler.handled, contains("busy", "#1 again", "#2"));
+        assertThat(intake.getCoalesced(), equalTo(1L));
+        assertThat(intake.getDispatched(), equalTo(3L));
+    }
+
+    @Test
+    public void shouldCoalesceBeforeDropWhenFull() throws Exception {
+        GitHubPRHookIntake intake = new GitHubPRHookIntake(2, 1, GitHubPRHookOverflowPolicy.COALESCE);
+        BlockingHandler handler = new BlockingHandler();
+
+        intake.submit(GHEvent.PULL_REQUEST, "busy", handler);
+        handler.started.await(10, TimeUnit.SECONDS);
+        intake.submit(GHEvent.PULL_REQUEST, "#2", handler);
+        // storm on PR #1 while worker is busy
+        intake.submit(GHEvent.PULL_REQUEST, "#1", handler);
+        intake.submit(GHEvent.PULL_REQUEST, "#1 b", handler);
+        intake.submit(GHEvent.ISSUE_COMMENT, "#1 c", handler);
+
+        assertThat(intake.getDepth(), equalTo(2));
+        assertThat(intake.getDropped(), equalTo(0L));
+        assertThat(intake.getCoalesced(), equalTo(2L));
+
+        handler.release.countDown();
+        handler.awaitHandled(3);
+        assertThat(handler.handled, contains("busy", "#2", "#1 c"));
+    }
+
+    @Test
+    public void shouldNotReplaceHookTakenByWorker() throws Exception {
+        GitHubPRHookIntake intake = new GitHubPRHookIntake(10, 1, GitHubPRHookOverflowPolicy.COALESCE);
+        BlockingHandler handler = new BlockingHandler();
+
+        intake.submit(GHEvent.PULL_REQUEST, "#1", handler);
+        handler.started.await(10, TimeUnit.SECONDS);
+        intake.submit(GHEvent.PULL_REQUEST, "#1 again", handler);
+
+        handler.release.countDown();
+        handler.awaitHandled(2);
+        assertThat(handler.handled, contains("#1", "#1 again"));
+        assertThat(intake.getCoalesced(), equalTo(0L));
+    }
+
+    @Test
+    public void shouldJournalBufferedHooksOnClose() throws Exception {
+        File file = new File(folder.getRoot(), GitHubPRHookJournal.FILE_NAME);
+        GitHubPRHookJournal journal = new GitHubPRHookJournal(file);
+        GitHubPRHookIntake intake = new GitHubPRHookIntake(10, 1, GitHubPRHookOverflowPolicy.DROP_OLDEST);
+        BlockingHandler handler = new BlockingHandler(journal);
+
+        intake.submit(GHEvent.PULL_REQUEST, "busy", handler);
+        handler.started.await(10, TimeUnit.SECONDS);
+        intake.submit(GHEvent.PULL_REQUEST, "#1", handler);
+        intake.submit(GHEvent.ISSUE_COMMENT, "#2", handler);
+
+        // shutdown: intake first, then journal
+        assertThat(intake.close(), equalTo(2));
+        intake.submit(GHEvent.PULL_REQUEST, "#3", handler);
+        journal.close();
+        handler.release.countDown();
+
+        GitHubPRHookJournal restarted = new GitHubPRHookJournal(file);
+        List<Integer> numbers = new ArrayList<>();
+        for (GitHubPRHookJournal.Entry entry : restarted.getOpenEntries()) {
+            numbers.add(entry.getNumber());
+        }
+        restarted.close();
+
+        assertThat(numbers, containsInAnyOrder(1, 2, 3));
+        handler.awaitHandled(1);
+        assertThat(handler.handled, contains("busy"));
+        assertThat(intake.getDispatched(), equalTo(1L));
+    }
+
+    /**
+     * Holds the first hook, so others stay in buffer. Payloads like "#1" are hooks of PR.
+     */
+    private static class BlockingHandler implements GitHubPRHookIntake.Handler {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> handled = new CopyOnWriteArrayList<>();
+        private final GitHubPRHookJournal journal;
+
+        private BlockingHandler() {
+            this(null);
+        }
+
+        private BlockingHandler(GitHubPRHookJournal journal) {
+            this.journal = journal;
+        }
+
+        @Override
+        public String getKey(GHEvent event, String payload) {
+            return payload.startsWith("#") ? payload.split(" ")[0] : null;
+        }
+
+        @Override
+        public void handle(GHEvent event, String payload) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.add(payload);
+        }
+
+        @Override
+        public void keep(GHEvent event, String payload) {
+            journal.accept("job", Integer.parseInt(payload.substring(1)), event.name());
+        }
+
+        private void awaitHandled(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (handled.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
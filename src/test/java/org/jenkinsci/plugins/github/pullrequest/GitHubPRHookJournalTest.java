@@ -0,0 +1,99 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+public class GitHubPRHookJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldKeepNotFinishedChecksAfterRestart() throws Exception {
+        File file = new File(folder.getRoot(), GitHubPRHookJournal.FILE_NAME);
+
+        GitHubPRHookJournal journal = new GitHubPRHookJournal(file);
+        journal.accept("job", 1, "PULL_REQUEST");
+        long seq = journal.accept("job", 2, "ISSUE_COMMENT");
+        journal.accept("other", 1, "PULL_REQUEST");
+        journal.done("job", 2, seq);
+        journal.done("other", 1, seq);
+        journal.close();
+
+        GitHubPRHookJournal restarted = new GitHubPRHookJournal(file);
+        List<GitHubPRHookJournal.Entry> entries = restarted.getOpenEntries();
+        restarted.close();
+
+        assertThat(entries, hasSize(1));
+        assertThat(entries.get(0).getJobName(), equalTo("job"));
+        assertThat(entries.get(0).getNumber(), equalTo(1));
+        assertThat(entries.get(0).getEvent(), equalTo("PULL_REQUEST"));
+    }
+
+    @Test
+    public void shouldNotFinishHookAcceptedAfterCheckStart() throws Exception {
+        File file = new File(folder.getRoot(), GitHubPRHookJournal.FILE_NAME);
+
+        GitHubPRHookJournal journal = new GitHubPRHookJournal(file);
+        journal.accept("job", 1, "PULL_REQUEST");
+        long upTo = journal.getLastSeq();
+        journal.accept("job", 1, "PULL_REQUEST");
+        journal.done("job", 1, upTo);
+
+        assertThat(journal.getOpen(), equalTo(1));
+        journal.close();
+    }
+
+    @Test
+    public void shouldSkipTornRecordAndContinueSequence() throws Exception {
+        File file = new File(folder.getRoot(), GitHubPRHookJournal.FILE_NAME);
+        FileUtils.writeStringToFile(file, "A\t7\t1000\tPULL_REQUEST\t3\tfolder/job\nA\t8\t10");
+
+        GitHubPRHookJournal journal = new GitHubPRHookJournal(file);
+
+        assertThat(journal.getOpen(), equalTo(1));
+        assertThat(journal.getOpenEntries().get(0).getJobName(), equalTo("folder/job"));
+        assertThat(journal.accept("job", 1, "PULL_REQUEST"), equalTo(8L));
+        journal.close();
+    }
+
+    @Test
+    public void shouldTruncateWhenAllFinished() throws Exception {
+        File file = new File(folder.getRoot(), GitHubPRHookJournal.FILE_NAME);
+
+        GitHubPRHookJournal journal = new GitHubPRHookJournal(file);
+        long seq = journal.accept("job", 1, "PULL_REQUEST");
+        journal.done("job", 1, seq);
+        journal.close();
+
+        assertThat(file.length(), equalTo(0L));
+    }
+
+    @Test
+    public void shouldWriteRecordsAfterClose() throws Exception {
+        File file = new File(folder.getRoot(), GitHubPRHookJournal.FILE_NAME);
+
+        GitHubPRHookJournal journal = new GitHubPRHookJournal(file);
+        long seq = journal.accept("job", 1, "PULL_REQUEST");
+        journal.close();
+        // check finished and hook came during shutdown
+        journal.done("job", 1, seq);
+        journal.accept("job", 2, "ISSUE_COMMENT");
+
+        GitHubPRHookJournal restarted = new GitHubPRHookJournal(file);
+        List<GitHubPRHookJournal.Entry> entries = restarted.getOpenEntries();
+        restarted.close();
+
+        assertThat(entries, hasSize(1));
+        assertThat(entries.get(0).getNumber(), equalTo(2));
+    }
+}
@@ -0,0 +1,143 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.junit.Test;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHIssue;
+import org.kohsuke.github.GHLabel;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.jenkinsci.plugins.github.pullrequest.webhook.GHPullRequestSubscriberTest.classpath;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class GitHubPRHookPayloadTest {
+
+    @Test
+    public void shouldReadOpenedPullRequest() throws Exception {
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                classpath("payload/pull_request.json"));
+
+        assertThat(payload.getRepoFullName(), equalTo("lanwen/test"));
+        assertThat(payload.getNumber(), equalTo(1));
+        assertThat(payload.isPullRequestAction("opened", "reopened"), is(true));
+        assertThat(payload.isAboutPullRequest(), is(true));
+        assertThat(payload.isClosed(), is(false));
+        assertThat(payload.getBaseRef(), equalTo("master"));
+        assertThat(payload.getAuthor(), equalTo("lanwen"));
+        assertThat("PR payload has no labels", payload.getPayloadLabels(), nullValue());
+    }
+
+    @Test
+    public void shouldCreateCauseFromPayloadAndFetchedLabels() throws Exception {
+        GHLabel label = mock(GHLabel.class);
+        when(label.getName()).thenReturn("invalid");
+        GHIssue issue = mock(GHIssue.class);
+        when(issue.getLabels()).thenReturn(Collections.singleton(label));
+        GHRepository repository = mock(GHRepository.class);
+        when(repository.getIssue(1)).thenReturn(issue);
+        GHPullRequest remotePR = mock(GHPullRequest.class);
+        when(remotePR.getNumber()).thenReturn(1);
+        when(remotePR.getRepository()).thenReturn(repository);
+        when(repository.getPullRequest(1)).thenReturn(remotePR);
+        GitHub gitHub = mock(GitHub.class);
+        when(gitHub.getRepository("lanwen/test")).thenReturn(repository);
+
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                classpath("payload/pull_request-labelled.json"));
+
+        GitHubPRCause cause = payload.createCause(gitHub, "reason", false);
+
+        assertThat(cause.getNumber(), equalTo(1));
+        assertThat(cause.getHeadSha(), equalTo("07e701909439037266e4b397433f838078a961f5"));
+        assertThat(cause.getTargetBranch(), equalTo("master"));
+        assertThat(cause.getLabels(), contains("invalid"));
+        assertThat(payload.getLabel(), equalTo("invalid"));
+        assertThat(payload.getMergeable(gitHub), is(true));
+    }
+
+    @Test
+    public void shouldCreateCauseWithoutRequestsWhenPayloadHasLabels() throws Exception {
+        GitHub gitHub = mock(GitHub.class);
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.ISSUE_COMMENT,
+                "{\"action\":\"created\",\"issue\":{\"number\":3,\"state\":\"open\",\"labels\":[]},"
+                        + "\"comment\":{\"body\":\"test\",\"user\":{\"login\":\"user\"}},"
+                        + "\"repository\":{\"full_name\":\"owner/test\"}}");
+
+        assertThat(payload.getLabels(gitHub), empty());
+        assertThat(payload.isFetched(), is(false));
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void shouldReadIssueComment() throws Exception {
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.ISSUE_COMMENT,
+                classpath("payload/issue_comment.json"));
+
+        assertThat(payload.getNumber(), equalTo(1));
+        assertThat(payload.getAction(), equalTo("created"));
+        assertThat(payload.isAboutPullRequest(), is(true));
+        assertThat(payload.isPullRequestAction("created"), is(false));
+        assertThat(payload.getCommentBody(), equalTo("comment"));
+        assertThat(payload.getCommentAuthor(), equalTo("lanwen"));
+        assertThat("base is unknown without fetch", payload.getBaseRef(), nullValue());
+    }
+
+    @Test
+    public void shouldDetectCommentOnPlainIssue() throws Exception {
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.ISSUE_COMMENT,
+                "{\"action\":\"created\",\"issue\":{\"number\":3,\"state\":\"open\",\"labels\":[]},"
+                        + "\"comment\":{\"body\":\"test\",\"user\":{\"login\":\"user\"}},"
+                        + "\"repository\":{\"full_name\":\"owner/test\"}}");
+
+        assertThat(payload.getNumber(), equalTo(3));
+        assertThat(payload.isAboutPullRequest(), is(false));
+    }
+
+    /**
+     * pull_request hook of fixture PR #1 to master with given action, PR state follows action like in GitHub hooks.
+     * Payload has no labels and unknown mergeable, like GitHub sends it.
+     */
+    public static String pullRequestHook(String action) throws IOException {
+        String payload = classpath("payload/pull_request.json")
+                .replace("\"action\": \"opened\"", "\"action\": \"" + action + "\"");
+        return "closed".equals(action) ? payload.replace("\"state\": \"open\"", "\"state\": \"closed\"") : payload;
+    }
+
+    /**
+     * Adds labels that are set on PR to pull_request hook
+     */
+    public static String withLabels(String payload, String... names) {
+        StringBuilder labels = new StringBuilder("\"pull_request\": {\"labels\": [");
+        for (int i = 0; i < names.length; i++) {
+            labels.append(i == 0 ? "" : ", ").append("{\"name\": \"").append(names[i]).append("\"}");
+        }
+        return payload.replace("\"pull_request\": {", labels.append("],"));
+    }
+
+    /**
+     * Adds label of "labeled"/"unlabeled" action
+     */
+    public static String withChangedLabel(String payload, String name) {
+        return "{\"label\": {\"name\": \"" + name + "\"}," + payload.substring(payload.indexOf('{') + 1);
+    }
+
+    public static String withMergeable(String payload, boolean mergeable) {
+        return payload.replace("\"mergeable\": null", "\"mergeable\": " + mergeable);
+    }
+
+    public static String withBase(String payload, String ref) {
+        return payload.replace("\"ref\": \"master\"", "\"ref\": \"" + ref + "\"");
+    }
+}
@@ -0,0 +1,82 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.model.AbstractProject;
+import hudson.model.FreeStyleProject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockFolder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GitHubPRJobIndexTest {
+    private static final String REPO = "owner/repo";
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Mock
+    private GitHubPRTrigger trigger;
+
+    private GitHubPRJobIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        when(trigger.getTriggerMode()).thenReturn(GitHubPRTriggerMode.HEAVY_HOOKS);
+        when(trigger.getRepoFullName(any(AbstractProject.class))).thenReturn(REPO);
+        index = GitHubPRJobIndex.get();
+    }
+
+    @Test
+    public void shouldFindCreatedJobIgnoringRepoCase() throws Exception {
+        FreeStyleProject job = jenkins.createFreeStyleProject();
+        job.addTrigger(trigger);
+
+        assertThat(index.getJobs("Owner/Repo"), contains((AbstractProject<?, ?>) job));
+        assertThat(index.getJobs("owner/other"), empty());
+    }
+
+    @Test
+    public void shouldMoveUpdatedJobToNewRepo() throws Exception {
+        FreeStyleProject job = jenkins.createFreeStyleProject();
+        job.addTrigger(trigger);
+
+        when(trigger.getRepoFullName(any(AbstractProject.class))).thenReturn("owner/other");
+        job.save();
+
+        assertThat(index.getJobs(REPO), empty());
+        assertThat(index.getJobs("owner/other"), contains((AbstractProject<?, ?>) job));
+    }
+
+    @Test
+    public void shouldForgetDeletedJob() throws Exception {
+        FreeStyleProject job = jenkins.createFreeStyleProject();
+        job.addTrigger(trigger);
+
+        job.delete();
+
+        assertThat(index.getJobs(REPO), empty());
+    }
+
+    @Test
+    public void shouldForgetJobsOfDeletedFolder() throws Exception {
+        MockFolder folder = jenkins.createFolder("folder");
+        FreeStyleProject job = folder.createProject(FreeStyleProject.class, "job");
+        job.addTrigger(trigger);
+        FreeStyleProject other = jenkins.createFreeStyleProject("folder-sibling");
+        other.addTrigger(trigger);
+
+        folder.delete();
+
+        assertThat(index.getJobs(REPO), contains((AbstractProject<?, ?>) other));
+    }
+}
@@ -0,0 +1,117 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.model.Saveable;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class GitHubPRPersisterTest {
+
+    @Test
+    public void shouldCoalesceSavesOfTheSameObject() throws Exception {
+        GitHubPRPersister persister = new GitHubPRPersister(TimeUnit.MINUTES.toMillis(10));
+        CountingSaveable first = new CountingSaveable();
+        CountingSaveable second = new CountingSaveable();
+
+        persister.save(first);
+        persister.save(first);
+        persister.save(second);
+        persister.save(first);
+
+        assertThat(persister.getPending(), equalTo(2));
+        assertThat(persister.getCoalesced(), equalTo(2L));
+        assertThat(first.saves.get(), equalTo(0));
+
+        persister.close();
+
+        assertThat(first.saves.get(), equalTo(1));
+        assertThat(second.saves.get(), equalTo(1));
+        assertThat(persister.getPending(), equalTo(0));
+        assertThat(persister.getWritten(), equalTo(2L));
+    }
+
+    @Test
+    public void shouldWriteInCallerThreadAfterClose() throws Exception {
+        GitHubPRPersister persister = new GitHubPRPersister(TimeUnit.MINUTES.toMillis(10));
+        persister.close();
+
+        CountingSaveable saveable = new CountingSaveable();
+        persister.save(saveable);
+
+        assertThat(saveable.saves.get(), equalTo(1));
+        assertThat(persister.getPending(), equalTo(0));
+    }
+
+    @Test
+    public void shouldWriteAfterDelay() throws Exception {
+        GitHubPRPersister persister = new GitHubPRPersister(50);
+        CountingSaveable saveable = new CountingSaveable();
+
+        persister.save(saveable);
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (saveable.saves.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(saveable.saves.get(), equalTo(1));
+        assertThat(persister.getPending(), equalTo(0));
+        persister.close();
+    }
+
+    @Test
+    public void shouldWritePendingSaveNow() throws Exception {
+        GitHubPRPersister persister = new GitHubPRPersister(TimeUnit.MINUTES.toMillis(10));
+        CountingSaveable saveable = new CountingSaveable();
+
+        persister.save(saveable);
+        persister.saveNow(saveable);
+
+        assertThat(saveable.saves.get(), equalTo(1));
+        assertThat(persister.getPending(), equalTo(0));
+        persister.close();
+        assertThat(saveable.saves.get(), equalTo(1));
+    }
+
+    @Test
+    public void shouldReportFailedWriteOnce() throws Exception {
+        GitHubPRPersister persister = new GitHubPRPersister(0);
+        Saveable saveable = new Saveable() {
+            @Override
+            public void save() throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        persister.save(saveable);
+
+        assertThat(persister.getFailed(), equalTo(1L));
+        assertThat(persister.takeFailure(saveable), equalTo("disk full"));
+        assertThat(persister.takeFailure(saveable), nullValue());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldThrowFromSaveNow() throws Exception {
+        GitHubPRPersister persister = new GitHubPRPersister(0);
+        persister.saveNow(new Saveable() {
+            @Override
+            public void save() throws IOException {
+                throw new IOException("disk full");
+            }
+        });
+    }
+
+    private static class CountingSaveable implements Saveable {
+        private final AtomicInteger saves = new AtomicInteger();
+
+        @Override
+        public void save() {
+            saves.incrementAndGet();
+        }
+    }
+}
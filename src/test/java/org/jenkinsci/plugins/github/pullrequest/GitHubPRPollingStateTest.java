@@ -0,0 +1,109 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class GitHubPRPollingStateTest {
+
+    @Test
+    public void shouldNotChangeOnSameValues() throws Exception {
+        GitHubPRPollingState state = new GitHubPRPollingState();
+        state.setPulls("etag", "yesterday");
+        state.updateCursor(new Date(2000));
+        state.markHooked(1, "sha", new Date(2000));
+        state.setSaved();
+
+        state.setPulls("etag", "yesterday");
+        state.updateCursor(new Date(1000));
+        state.markHooked(1, "sha", new Date(2000));
+        state.forgetHooked(2);
+        state.scheduleNextPoll(false, System.currentTimeMillis());
+
+        assertThat(state.isChanged(), is(false));
+    }
+
+    @Test
+    public void shouldTakeChangeOnce() throws Exception {
+        GitHubPRPollingState state = new GitHubPRPollingState();
+        state.updateCursor(new Date(1000));
+
+        assertThat(state.takeChanged(), is(true));
+        assertThat(state.takeChanged(), is(false));
+
+        state.updateCursor(new Date(2000));
+        assertThat(state.isChanged(), is(true));
+    }
+
+    @Test
+    public void shouldChangeWhenCursorMoves() throws Exception {
+        GitHubPRPollingState state = new GitHubPRPollingState();
+        state.updateCursor(new Date(1000));
+        state.setSaved();
+
+        state.updateCursor(new Date(2000));
+
+        assertThat(state.isChanged(), is(true));
+    }
+
+    @Test
+    public void shouldBeHookedOnlyForSeenHeadAndUpdate() throws Exception {
+        GitHubPRPollingState state = new GitHubPRPollingState();
+        state.markHooked(1, "sha", new Date(2000));
+
+        assertThat(state.isHooked(1, "sha", new Date(2000)), is(true));
+        assertThat(state.isHooked(1, "sha", new Date(1000)), is(true));
+        assertThat(state.isHooked(1, "sha", new Date(3000)), is(false));
+        assertThat(state.isHooked(1, "new sha", new Date(2000)), is(false));
+        assertThat(state.isHooked(1, "sha", null), is(false));
+        assertThat(state.isHooked(2, "sha", new Date(2000)), is(false));
+
+        state.forgetHooked(1);
+        assertThat(state.isHooked(1, "sha", new Date(2000)), is(false));
+    }
+
+    @Test
+    public void shouldCopyIndependentState() throws Exception {
+        GitHubPRPollingState state = new GitHubPRPollingState();
+        state.setPulls("\"etag\"", null);
+        state.updateCursor(new Date(1000));
+        state.markHooked(1, "sha", new Date(2000));
+
+        GitHubPRPollingState copy = state.copy();
+        state.updateCursor(new Date(3000));
+        state.markHooked(2, "sha2", new Date(2000));
+
+        assertThat(copy.getPullsETag(), is("\"etag\""));
+        assertThat(copy.getUpdatedCursor(), is(new Date(1000)));
+        assertThat(copy.isHooked(1, "sha", new Date(2000)), is(true));
+        assertThat(copy.getHookedCount(), is(1));
+    }
+
+    @Test
+    public void shouldStopBackoffAtMaxInterval() {
+        GitHubPRPollingState state = new GitHubPRPollingState();
+        for (int i = 0; i < 100; i++) {
+            state.scheduleNextPoll(false, 0);
+        }
+
+        assertThat(state.getIdleChecks(), is(GitHubPRPollingState.MAX_BACKOFF_STEPS));
+        assertThat(state.getNextPoll(), is(new Date(GitHubPRPollingState.MAX_ADAPTIVE_INTERVAL)));
+
+        state.scheduleNextPoll(true, 0);
+        assertThat(state.getNextPoll(), is(new Date(GitHubPRPollingState.MIN_ADAPTIVE_INTERVAL)));
+    }
+
+    @Test
+    public void shouldChangeWhenHookMarkChanges() throws Exception {
+        GitHubPRPollingState state = new GitHubPRPollingState();
+        state.markHooked(1, "sha", new Date(1000));
+        state.setSaved();
+
+        state.markHooked(1, "new sha", new Date(1000));
+
+        assertThat(state.isChanged(), is(true));
+    }
+}
@@ -0,0 +1,52 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class GitHubPRRateLimitSchedulerTest {
+    private static final String JOB = "job";
+
+    @Test
+    public void shouldDeferWhenBudgetIsSpent() {
+        GitHubPRRateLimitTracker tracker = new GitHubPRRateLimitTracker();
+        tracker.record("5000", "5", resetIn(TimeUnit.MINUTES.toMillis(30)));
+        GitHubPRRateLimitScheduler scheduler = new GitHubPRRateLimitScheduler(tracker);
+        scheduler.recordCheck(JOB, GitHubPRPollingPriority.NORMAL, 10);
+
+        assertThat(scheduler.deferReason(JOB, GitHubPRPollingPriority.NORMAL), notNullValue());
+    }
+
+    @Test
+    public void shouldNotDeferAfterReset() {
+        GitHubPRRateLimitTracker tracker = new GitHubPRRateLimitTracker();
+        tracker.record("5000", "5", resetIn(-TimeUnit.MINUTES.toMillis(1)));
+        GitHubPRRateLimitScheduler scheduler = new GitHubPRRateLimitScheduler(tracker);
+        scheduler.recordCheck(JOB, GitHubPRPollingPriority.LOW, 10);
+
+        assertThat(scheduler.deferReason(JOB, GitHubPRPollingPriority.LOW), nullValue());
+        assertThat(scheduler.getAvailablePerHour(), equalTo(5000L));
+    }
+
+    @Test
+    public void shouldForgetJobsOfFolder() {
+        GitHubPRRateLimitScheduler scheduler = new GitHubPRRateLimitScheduler(new GitHubPRRateLimitTracker());
+        scheduler.recordCheck("folder/job", GitHubPRPollingPriority.NORMAL, 10);
+        scheduler.recordCheck("folder-job", GitHubPRPollingPriority.NORMAL, 10);
+
+        scheduler.forget("folder");
+
+        assertThat(scheduler.getJobs(), hasSize(1));
+        assertThat(scheduler.getJobs().get(0).getJobName(), equalTo("folder-job"));
+    }
+
+    private static String resetIn(long millis) {
+        return String.valueOf(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() + millis));
+    }
+}
@@ -0,0 +1,137 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for GitHubPRRateLimitTracker.
+ */
+public class GitHubPRRateLimitTrackerTest {
+
+    @Test
+    public void shouldKeepLowestRemainingOfWindow() {
+        GitHubPRRateLimitTracker tracker = new GitHubPRRateLimitTracker();
+        tracker.record("5000", "4990", "1430000000");
+        tracker.record("5000", "4980", "1430000000");
+        tracker.record("5000", "4985", "1430000000"); // late response
+
+        assertThat(tracker.getState().getRemaining(), equalTo(4980));
+        assertThat(tracker.getState().getLimit(), equalTo(5000));
+        assertThat(tracker.getState().getResetMillis(), equalTo(1430000000000L));
+    }
+
+    @Test
+    public void shouldSwitchToNextWindow() {
+        GitHubPRRateLimitTracker tracker = new GitHubPRRateLimitTracker();
+        tracker.record("5000", "10", "1430000000");
+        GitHubPRRateLimitTracker.State before = tracker.getState();
+        tracker.record("5000", "4995", "1430003600");
+
+        assertThat(tracker.getState().getRemaining(), equalTo(4995));
+        assertThat(tracker.getState().consumedSince(before), equalTo(5));
+    }
+
+    @Test
+    public void shouldCountConsumedInWindow() {
+        GitHubPRRateLimitTracker tracker = new GitHubPRRateLimitTracker();
+        tracker.record("5000", "4990", "1430000000");
+        GitHubPRRateLimitTracker.State before = tracker.getState();
+        tracker.record("5000", "4970", "1430000000");
+
+        assertThat(tracker.getState().consumedSince(before), equalTo(20));
+        assertThat(tracker.getState().consumedSince(null), equalTo(0));
+    }
+
+    @Test
+    public void shouldIgnoreMissingOrBadHeaders() {
+        GitHubPRRateLimitTracker tracker = new GitHubPRRateLimitTracker();
+        tracker.record(null, null, null);
+        tracker.record("5000", "many", "1430000000");
+
+        assertThat(tracker.getState(), nullValue());
+    }
+
+    @Test
+    public void shouldCountRequestsOfOverlappingChecksSeparately() throws Exception {
+        final GitHubPRRateLimitTracker tracker = new GitHubPRRateLimitTracker();
+        final Interceptor.Chain ok = chain(200);
+        final Interceptor.Chain notModified = chain(304);
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final ExecutorService pool = Executors.newFixedThreadPool(3);
+
+        try {
+            Future<Integer> first = pool.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    GitHubPRRateLimitTracker.RequestCounter counter = new GitHubPRRateLimitTracker.RequestCounter();
+                    tracker.startCounting(counter);
+                    try {
+                        tracker.intercept(ok);
+                        barrier.await(10, TimeUnit.SECONDS);
+                        tracker.intercept(ok);
+                        barrier.await(10, TimeUnit.SECONDS);
+                    } finally {
+                        tracker.stopCounting();
+                    }
+                    return counter.getCount();
+                }
+            });
+            Future<Integer> second = pool.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    GitHubPRRateLimitTracker.RequestCounter counter = new GitHubPRRateLimitTracker.RequestCounter();
+                    tracker.startCounting(counter);
+                    try {
+                        tracker.intercept(ok);
+                        barrier.await(10, TimeUnit.SECONDS);
+                        tracker.intercept(notModified);
+                        // PR checked in other thread
+                        pool.submit(tracker.counting(counter, new Callable<Response>() {
+                            @Override
+                            public Response call() throws Exception {
+                                return tracker.intercept(ok);
+                            }
+                        })).get(10, TimeUnit.SECONDS);
+                        tracker.intercept(ok);
+                        barrier.await(10, TimeUnit.SECONDS);
+                    } finally {
+                        tracker.stopCounting();
+                    }
+                    return counter.getCount();
+                }
+            });
+
+            assertThat(first.get(10, TimeUnit.SECONDS), equalTo(2));
+            assertThat(second.get(10, TimeUnit.SECONDS), equalTo(3));
+            assertThat(tracker.getRequests(), equalTo(6L));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Interceptor.Chain chain(int code) throws Exception {
+        Request request = new Request.Builder().url("https://api.github.com/repos/owner/repo/pulls").build();
+        Response response = new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(code).build();
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any(Request.class))).thenReturn(response);
+        return chain;
+    }
+}
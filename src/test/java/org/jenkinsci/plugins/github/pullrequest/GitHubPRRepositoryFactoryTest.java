@@ -21,6 +21,8 @@ import java.util.Iterator;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -70,6 +72,27 @@ public class GitHubPRRepositoryFactoryTest {
         assertThat(new GitHubPRRepositoryFactory().createFor(job), hasSize(0));
     }
 
+    @Test
+    public void shouldReuseLoadedRepository() throws Exception {
+        createForCommonExpectations(job, trigger);
+        when(job.getFullName()).thenReturn("reused job");
+
+        GitHubPRRepository repo = getRepo(new GitHubPRRepositoryFactory().createFor(job));
+
+        assertThat(getRepo(new GitHubPRRepositoryFactory().createFor(job)), sameInstance(repo));
+    }
+
+    @Test
+    public void shouldLoadRepositoryAgainAfterJobDelete() throws Exception {
+        createForCommonExpectations(job, trigger);
+        when(job.getFullName()).thenReturn("deleted job");
+
+        GitHubPRRepository repo = getRepo(new GitHubPRRepositoryFactory().createFor(job));
+        new GitHubPRRepositoryFactory.RepositoryCacheListener().onDeleted(job);
+
+        assertThat(getRepo(new GitHubPRRepositoryFactory().createFor(job)), not(sameInstance(repo)));
+    }
+
     private void createForCommonTest(String filePath) throws IOException, NoSuchFieldException, IllegalAccessException {
         createForCommonExpectations(filePath, job, trigger);
 
@@ -0,0 +1,127 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.XmlFile;
+import hudson.util.XStream2;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class GitHubPRRepositoryJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReplayChangesOverSnapshot() throws Exception {
+        GitHubPRRepositoryJournal journal = new GitHubPRRepositoryJournal(
+                new File(folder.getRoot(), GitHubPRRepositoryJournal.FILE));
+
+        Map<Integer, GitHubPRPullRequest> pulls = readSnapshot().getPulls();
+        GitHubPRPullRequest pull = pulls.remove(10);
+        journal.append(pulls, Arrays.asList(10), null);
+
+        GitHubPRPollingState pollingState = new GitHubPRPollingState();
+        pollingState.updateCursor(new Date(1000L));
+        pulls.put(10, pull);
+        journal.append(pulls, Collections.singletonList(10), pollingState);
+        pulls.remove(8);
+        journal.append(pulls, Collections.singletonList(8), null);
+
+        Map<Integer, GitHubPRPullRequest> replayed = readSnapshot().getPulls();
+        GitHubPRPollingState replayedState = journal.replay(replayed);
+
+        assertThat(replayed.keySet(), contains(10));
+        assertThat(replayed.get(10), equalTo(pull));
+        assertThat(replayedState, notNullValue());
+        assertThat(replayedState.getUpdatedCursor(), equalTo(new Date(1000L)));
+    }
+
+    @Test
+    public void shouldCutOffTornRecord() throws Exception {
+        GitHubPRRepositoryJournal journal = new GitHubPRRepositoryJournal(
+                new File(folder.getRoot(), GitHubPRRepositoryJournal.FILE));
+
+        Map<Integer, GitHubPRPullRequest> pulls = readSnapshot().getPulls();
+        pulls.remove(8);
+        journal.append(pulls, Collections.singletonList(8), null);
+        long length = journal.length();
+
+        try (FileOutputStream out = new FileOutputStream(journal.getFile(), true)) {
+            out.write(new byte[]{'U', 0, 0, 0, 10, 0, 0, 1}); // crash during append
+        }
+
+        Map<Integer, GitHubPRPullRequest> replayed = readSnapshot().getPulls();
+        assertThat(journal.replay(replayed), nullValue());
+        assertThat(replayed.keySet(), contains(10));
+        assertThat(journal.length(), equalTo(length));
+    }
+
+    @Test
+    public void shouldDropCompactionWhenJournalWasNotDeleted() throws Exception {
+        File snapshot = folder.newFile(GitHubPRRepository.FILE);
+        GitHubPRRepositoryJournal journal = GitHubPRRepositoryJournal.forRuntimeFile(snapshot);
+        journal.append(readSnapshot().getPulls(), Collections.singletonList(8), null);
+        File compacted = GitHubPRRepositoryJournal.getCompactedFile(snapshot);
+        writeBytes(compacted, "new");
+
+        journal.recover(snapshot);
+
+        assertThat(compacted.exists(), is(false));
+        assertThat(journal.exists(), is(true));
+        assertThat(snapshot.length(), equalTo(0L));
+    }
+
+    @Test
+    public void shouldFinishCompactionAfterJournalWasDeleted() throws Exception {
+        File snapshot = folder.newFile(GitHubPRRepository.FILE);
+        GitHubPRRepositoryJournal journal = GitHubPRRepositoryJournal.forRuntimeFile(snapshot);
+        File compacted = GitHubPRRepositoryJournal.getCompactedFile(snapshot);
+        writeBytes(compacted, "new");
+
+        journal.recover(snapshot);
+
+        assertThat(compacted.exists(), is(false));
+        assertThat(snapshot.length(), equalTo(3L));
+    }
+
+    @Test
+    public void shouldDeleteJournalBeforeReplacingSnapshot() throws Exception {
+        File snapshot = folder.newFile(GitHubPRRepository.FILE);
+        GitHubPRRepositoryJournal journal = GitHubPRRepositoryJournal.forRuntimeFile(snapshot);
+        journal.append(readSnapshot().getPulls(), Collections.singletonList(8), null);
+        File compacted = GitHubPRRepositoryJournal.getCompactedFile(snapshot);
+        writeBytes(compacted, "new");
+
+        journal.compact(compacted, snapshot);
+
+        assertThat(journal.exists(), is(false));
+        assertThat(compacted.exists(), is(false));
+        assertThat(snapshot.length(), equalTo(3L));
+    }
+
+    private static void writeBytes(File file, String content) throws Exception {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes("UTF-8"));
+        }
+    }
+
+    private static GitHubPRRepository readSnapshot() throws Exception {
+        File file = new File(GitHubPRRepositoryJournalTest.class.getClassLoader()
+                .getResource(GitHubPRRepository.FILE).toURI());
+        return (GitHubPRRepository) new XmlFile(new XStream2(), file).read();
+    }
+}
@@ -4,6 +4,7 @@ import com.coravy.hudson.plugins.github.GithubProjectProperty;
 import com.coravy.hudson.plugins.github.GithubUrl;
 import hudson.BulkChange;
 import hudson.Functions;
+import hudson.XmlFile;
 import hudson.model.*;
 import hudson.security.Permission;
 import hudson.util.FormValidation;
@@ -28,6 +29,8 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -114,6 +117,25 @@ public class GitHubPRRepositoryTest {
         assertThat(repo.getPulls().keySet(), hasSize(0));
     }
 
+    @Test
+    public void saveSkippedWhenStateNotChanged() throws IOException {
+        GitHubPRRepositoryFactoryTest.createForCommonExpectations(job, trigger);
+
+        GitHubPRRepository repo = GitHubPRRepositoryFactoryTest.getRepo(factory.createFor(job));
+        XmlFile configFile = mock(XmlFile.class);
+        repo.setConfigFile(configFile);
+        PowerMockito.mockStatic(BulkChange.class);
+
+        for (GitHubPRPullRequest pull : new ArrayList<>(repo.getPulls().values())) {
+            repo.putPull(pull); // the same state as loaded
+        }
+        repo.getPollingState().scheduleNextPoll(false, System.currentTimeMillis());
+        repo.save();
+
+        assertThat(repo.isChanged(), equalTo(false));
+        verify(configFile, never()).write(any());
+    }
+
     @Test
     public void doClearRepoForbidden() throws IOException {
         GitHubPRRepositoryFactoryTest.createForCommonExpectations(job, trigger);
@@ -0,0 +1,129 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import hudson.util.XStream2;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of runtime state of repository with many PRs: {@link GitHubPRRuntimeFormat#XML}
+ * vs {@link GitHubPRRuntimeFormat#BINARY}, load time, save time and size. Not a test, run manually:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.jenkinsci.plugins.github.pullrequest.GitHubPRRuntimeFormatBenchmark
+ * </pre>
+ */
+public final class GitHubPRRuntimeFormatBenchmark {
+    private static final int PULLS = 10000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+
+    private static final XStream2 XSTREAM = new XStream2();
+
+    private GitHubPRRuntimeFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        GitHubPRRepository repository = (GitHubPRRepository) XSTREAM.fromXML(generate(PULLS));
+        byte[] xml = saveXml(repository);
+        byte[] binary = saveBinary(repository);
+
+        for (int round = 0; round < 3; round++) {
+            long xmlSave = 0;
+            long xmlLoad = 0;
+            long binarySave = 0;
+            long binaryLoad = 0;
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                long start = System.nanoTime();
+                saveXml(repository);
+                long saved = System.nanoTime();
+                loadXml(xml);
+                long loaded = System.nanoTime();
+                saveBinary(repository);
+                long binarySaved = System.nanoTime();
+                loadBinary(binary);
+                long binaryLoaded = System.nanoTime();
+
+                if (i >= WARMUP) {
+                    xmlSave += saved - start;
+                    xmlLoad += loaded - saved;
+                    binarySave += binarySaved - loaded;
+                    binaryLoad += binaryLoaded - binarySaved;
+                }
+            }
+            report(GitHubPRRuntimeFormat.XML, xmlSave, xmlLoad, xml.length);
+            report(GitHubPRRuntimeFormat.BINARY, binarySave, binaryLoad, binary.length);
+        }
+    }
+
+    private static byte[] saveXml(GitHubPRRepository repository) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(bytes, "UTF-8")) {
+            XSTREAM.toXML(repository, writer);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static GitHubPRRepository loadXml(byte[] xml) throws IOException {
+        return (GitHubPRRepository) XSTREAM.fromXML(new InputStreamReader(new ByteArrayInputStream(xml), "UTF-8"));
+    }
+
+    private static byte[] saveBinary(GitHubPRRepository repository) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GitHubPRBinaryFormat.write(repository, bytes);
+        return bytes.toByteArray();
+    }
+
+    private static GitHubPRRepository loadBinary(byte[] binary) throws IOException {
+        return GitHubPRBinaryFormat.read(new ByteArrayInputStream(binary));
+    }
+
+    /**
+     * State in the same shape as saved by plugin: few base branches, authors and labels, unique heads
+     */
+    private static String generate(int pulls) {
+        StringBuilder xml = new StringBuilder("<org.jenkinsci.plugins.github.pullrequest.GitHubPRRepository>\n")
+                .append("  <fullName>owner/repo</fullName>\n")
+                .append("  <githubUrl>https://github.com/owner/repo/</githubUrl>\n")
+                .append("  <pulls>\n");
+        for (int number = 1; number <= pulls; number++) {
+            String date = String.format("2015-%02d-%02d 11:31:%02d.0 UTC", number % 12 + 1, number % 28 + 1, number % 60);
+            xml.append("    <entry>\n")
+                    .append("      <int>").append(number).append("</int>\n")
+                    .append("      <org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest>\n")
+                    .append("        <number>").append(number).append("</number>\n")
+                    .append("        <issueUpdatedAt>").append(date).append("</issueUpdatedAt>\n")
+                    .append("        <title>Pull request title number ").append(number).append("</title>\n")
+                    .append("        <prUpdatedAt>").append(date).append("</prUpdatedAt>\n")
+                    .append("        <headSha>").append(String.format("%040x", number * 7919L)).append("</headSha>\n")
+                    .append("        <headRef>feature-").append(number).append("</headRef>\n")
+                    .append("        <mergeable>").append(number % 3 != 0).append("</mergeable>\n")
+                    .append("        <baseRef>").append(number % 5 == 0 ? "release" : "master").append("</baseRef>\n")
+                    .append("        <userEmail>user").append(number % 50).append("@example.com</userEmail>\n")
+                    .append("        <userLogin>user").append(number % 50).append("</userLogin>\n")
+                    .append("        <htmlUrl>https://github.com/owner/repo/pull/").append(number).append("</htmlUrl>\n")
+                    .append("        <labels>\n")
+                    .append("          <string>label").append(number % 7).append("</string>\n")
+                    .append("        </labels>\n")
+                    .append("        <lastCommentCreatedAt>").append(date).append("</lastCommentCreatedAt>\n")
+                    .append("        <lastCommentId>").append(100000L + number).append("</lastCommentId>\n")
+                    .append("        <sourceRepoOwner>user").append(number % 50).append("</sourceRepoOwner>\n")
+                    .append("      </org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest>\n")
+                    .append("    </entry>\n");
+        }
+        return xml.append("  </pulls>\n")
+                .append("</org.jenkinsci.plugins.github.pullrequest.GitHubPRRepository>\n")
+                .toString();
+    }
+
+    private static void report(GitHubPRRuntimeFormat format, long saveNanos, long loadNanos, int size) {
+        System.out.println(String.format("%-7s %d PRs: save %6d ms, load %6d ms, size %8d bytes",
+                format, PULLS, TimeUnit.NANOSECONDS.toMillis(saveNanos / ITERATIONS),
+                TimeUnit.NANOSECONDS.toMillis(loadNanos / ITERATIONS), size));
+    }
+}
@@ -0,0 +1,111 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import net.sf.json.JSONArray;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GitHubPRSnapshotServiceTest {
+    private static final String API_URL = "https://api.github.com";
+
+    private GitHubPRSnapshotService service;
+    private GHRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        service = new GitHubPRSnapshotService(TimeUnit.MINUTES.toMillis(1));
+        repository = mock(GHRepository.class);
+        when(repository.getFullName()).thenReturn("owner/repo");
+        when(repository.getPullRequests(GHIssueState.OPEN)).thenReturn(Collections.<GHPullRequest>emptyList());
+    }
+
+    @Test
+    public void shouldFetchOnceForAllCallersOfSameVersion() throws Exception {
+        service.getOpenPulls(API_URL, repository, "etag1");
+        service.getOpenPulls(API_URL, repository, "etag1");
+        service.getOpenPulls(API_URL, repository);
+
+        verify(repository, times(1)).getPullRequests(GHIssueState.OPEN);
+    }
+
+    @Test
+    public void shouldFetchAgainForNewVersion() throws Exception {
+        service.getOpenPulls(API_URL, repository, "etag1");
+        service.getOpenPulls(API_URL, repository, "etag2");
+        service.getOpenPulls(API_URL, repository, "etag2");
+
+        verify(repository, times(2)).getPullRequests(GHIssueState.OPEN);
+    }
+
+    @Test
+    public void shouldFetchCommentsWithPassedClient() throws Exception {
+        GHPullRequest remotePR = mock(GHPullRequest.class);
+        when(remotePR.getNumber()).thenReturn(1);
+        when(remotePR.getState()).thenReturn(GHIssueState.OPEN);
+        when(remotePR.getRepository()).thenReturn(repository);
+        GitHubPRRestClient restClient = mock(GitHubPRRestClient.class);
+        when(restClient.getPage("/repos/owner/repo/issues/1/comments", 1)).thenReturn(JSONArray.fromObject(
+                "[{\"id\": 10, \"body\": \"test this\", \"user\": {\"login\": \"user\"}, "
+                        + "\"created_at\": \"2015-01-01T00:00:00Z\"}]"));
+
+        GitHubPRSnapshot snapshot = service.getSnapshot(API_URL, "owner/repo", remotePR, restClient);
+        List<GitHubPRComment> comments = snapshot.getCommentsAfter(GitHubPRCommentCursor.EMPTY);
+
+        assertThat(comments, hasSize(1));
+        assertThat(comments.get(0).getAuthorLogin(), is("user"));
+        assertThat(service.getSnapshot(API_URL, "owner/repo", remotePR, restClient), is(snapshot));
+        verify(restClient, times(1)).getPage(anyString(), anyInt());
+    }
+
+    @Test
+    public void shouldNotKeepSnapshotOfClosedPR() throws Exception {
+        GitHubPRRestClient restClient = mock(GitHubPRRestClient.class);
+        GHPullRequest openPR = pullRequest(1, GHIssueState.OPEN);
+        GitHubPRSnapshot open = service.getSnapshot(API_URL, "owner/repo", openPR, restClient);
+        GHPullRequest closedPR = pullRequest(1, GHIssueState.CLOSED);
+
+        GitHubPRSnapshot closed = service.getSnapshot(API_URL, "owner/repo", closedPR, restClient);
+
+        assertThat(closed, not(sameInstance(open)));
+        assertThat(service.getSnapshot(API_URL, "owner/repo", openPR, restClient), not(sameInstance(open)));
+    }
+
+    @Test
+    public void shouldForgetIdleSnapshots() throws Exception {
+        GitHubPRRestClient restClient = mock(GitHubPRRestClient.class);
+        GHPullRequest remotePR = pullRequest(1, GHIssueState.OPEN);
+        GitHubPRSnapshot snapshot = service.getSnapshot(API_URL, "owner/repo", remotePR, restClient);
+
+        service.forgetIdle(snapshot.getUsedAt() + TimeUnit.SECONDS.toMillis(10));
+        assertThat("used recently", service.getSnapshot(API_URL, "owner/repo", remotePR, restClient),
+                sameInstance(snapshot));
+
+        service.forgetIdle(snapshot.getUsedAt() + TimeUnit.MINUTES.toMillis(1));
+        assertThat(service.getSnapshot(API_URL, "owner/repo", remotePR, restClient), not(sameInstance(snapshot)));
+    }
+
+    private static GHPullRequest pullRequest(int number, GHIssueState state) {
+        GHPullRequest remotePR = mock(GHPullRequest.class);
+        when(remotePR.getNumber()).thenReturn(number);
+        when(remotePR.getState()).thenReturn(state);
+        return remotePR;
+    }
+}
@@ -0,0 +1,128 @@
+package org.jenkinsci.plugins.github.pullrequest;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GitHubPRStripedQueueTest {
+
+    @Test
+    public void shouldRunInCallerThreadWhenIdle() throws Exception {
+        GitHubPRStripedQueue queue = new GitHubPRStripedQueue(1);
+        final List<String> done = new CopyOnWriteArrayList<>();
+
+        boolean run = queue.runIfIdle("job", new Runnable() {
+            @Override
+            public void run() {
+                done.add("cron");
+            }
+        });
+
+        assertThat(run, is(true));
+        assertThat(done, contains("cron"));
+    }
+
+    @Test
+    public void shouldNotRunWhileTaskOfKeyRuns() throws Exception {
+        GitHubPRStripedQueue queue = new GitHubPRStripedQueue(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        queue.execute("job", new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                await(release);
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        boolean run = queue.runIfIdle("job", new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+
+        assertThat(run, is(false));
+        release.countDown();
+    }
+
+    @Test
+    public void shouldRunTasksSubmittedDuringCallerRunAfterIt() throws Exception {
+        final GitHubPRStripedQueue queue = new GitHubPRStripedQueue(1);
+        final List<String> done = new CopyOnWriteArrayList<>();
+        final CountDownLatch hookDone = new CountDownLatch(1);
+
+        queue.runIfIdle("job", new Runnable() {
+            @Override
+            public void run() {
+                queue.execute("job", new Runnable() {
+                    @Override
+                    public void run() {
+                        done.add("hook");
+                        hookDone.countDown();
+                    }
+                });
+                done.add("cron");
+            }
+        });
+
+        assertTrue(hookDone.await(10, TimeUnit.SECONDS));
+        assertThat(done, contains("cron", "hook"));
+    }
+
+    @Test
+    public void shouldDropStripeWithNothingToRun() throws Exception {
+        GitHubPRStripedQueue queue = new GitHubPRStripedQueue(1);
+        final List<String> done = new CopyOnWriteArrayList<>();
+        final CountDownLatch finished = new CountDownLatch(2);
+        queue.execute("job", new Runnable() {
+            @Override
+            public void run() {
+                done.add("first");
+                finished.countDown();
+            }
+        });
+        assertTrue(waitForNoStripes(queue));
+
+        queue.execute("job", new Runnable() {
+            @Override
+            public void run() {
+                done.add("second");
+                finished.countDown();
+            }
+        });
+
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertThat(done, contains("first", "second"));
+        assertTrue(waitForNoStripes(queue));
+        assertThat(queue.getStripes(), empty());
+    }
+
+    private static boolean waitForNoStripes(GitHubPRStripedQueue queue) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!queue.getStripes().isEmpty()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -8,34 +8,92 @@ import hudson.model.AbstractBuild;
 import hudson.model.BuildListener;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
+import hudson.model.TaskListener;
 import hudson.plugins.git.util.BuildData;
+import hudson.util.StreamTaskListener;
+import net.sf.json.JSONArray;
 import org.jenkinsci.plugins.github.pullrequest.events.GitHubPREvent;
+import org.jenkinsci.plugins.github.pullrequest.events.impl.GitHubPRNonMergeableEvent;
+import org.jenkinsci.plugins.github.pullrequest.events.impl.GitHubPROpenEvent;
+import org.jenkinsci.plugins.github.pullrequest.restrictions.GitHubPRBranchRestriction;
+import org.jenkinsci.plugins.github.pullrequest.restrictions.GitHubPRUserRestriction;
 import org.junit.*;
 import org.junit.runner.RunWith;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.TestBuilder;
+import org.kohsuke.github.GHCommitPointer;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHUser;
+import org.kohsuke.github.GitHub;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import javax.annotation.CheckForNull;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.pullRequestHook;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withLabels;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withMergeable;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 /**
  */
 @RunWith(MockitoJUnitRunner.class)
 public class GitHubPRTriggerTest {
+    private static final String PULLS_PATH = "/repos/owner/repo/pulls?state=open&sort=updated&direction=desc";
+    private static final String EVENTS_PATH = "/repos/owner/repo/issues/events";
+
     @Rule
     public JenkinsRule j = new JenkinsRule();
 
+    private GitHub gitHub;
+    private GHRepository ghRepository;
+    private GitHubPRSnapshotService snapshotService;
+    private GitHubPRRestClient restClient;
+
     private boolean origDefaultUseCache = true;
 
     @Before
@@ -95,6 +153,410 @@ public class GitHubPRTriggerTest {
         defaultGitHubPRTrigger().getRepoFullName(p);
     }
 
+    @Test
+    public void shouldSkipOnlyPullsHookedWithoutNewerUpdates() throws Exception {
+        GitHubPRPollingState pollingState = new GitHubPRPollingState();
+        pollingState.markHooked(1, "sha1", new Date(2000));
+        pollingState.markHooked(2, "sha2", new Date(2000));
+        pollingState.markHooked(3, "sha3", new Date(2000));
+
+        GHPullRequest hooked = remotePR(1, "sha1", new Date(2000));
+        GHPullRequest updatedLater = remotePR(2, "sha2", new Date(3000));
+        GHPullRequest pushedLater = remotePR(3, "other", new Date(2000));
+        GHPullRequest notHooked = remotePR(4, "sha4", new Date(1000));
+        List<GHPullRequest> remotePulls = new ArrayList<>(asList(hooked, updatedLater, pushedLater, notHooked));
+
+        List<GHPullRequest> skipped = GitHubPRTrigger.removeHookedPulls(remotePulls, pollingState);
+
+        assertThat(skipped, contains(hooked));
+        assertThat(remotePulls, contains(updatedLater, pushedLater, notHooked));
+    }
+
+    @Test
+    public void shouldResolveClosedPullsByOneWalk() throws Exception {
+        GHRepository ghRepository = mock(GHRepository.class);
+        GHPullRequest pr12 = closedPR(12);
+        GHPullRequest pr9 = closedPR(9);
+        GHPullRequest pr5 = closedPR(5);
+        List<GHPullRequest> closedPulls = asList(closedPR(14), pr12, pr9, closedPR(7), pr5, closedPR(3));
+
+        List<GHPullRequest> resolved = GitHubPRTrigger.getClosedPullRequests(ghRepository, closedPulls,
+                new HashSet<>(asList(5, 9, 12)));
+
+        assertThat(resolved, contains(pr12, pr9, pr5));
+        verify(ghRepository, never()).getPullRequest(anyInt());
+    }
+
+    @Test
+    public void shouldFetchPullsThatClosedWalkPassed() throws Exception {
+        GHRepository ghRepository = mock(GHRepository.class);
+        GHPullRequest pr9 = closedPR(9);
+        GHPullRequest pr2 = closedPR(2);
+        when(ghRepository.getPullRequest(2)).thenReturn(pr2);
+        List<GHPullRequest> closedPulls = asList(pr9, closedPR(8), closedPR(1));
+
+        List<GHPullRequest> resolved = GitHubPRTrigger.getClosedPullRequests(ghRepository, closedPulls,
+                new HashSet<>(asList(2, 9)));
+
+        assertThat(resolved, contains(pr9, pr2));
+        verify(ghRepository, times(1)).getPullRequest(anyInt());
+    }
+
+    @Test
+    public void shouldStopClosedWalkThatSavesNoRequests() throws Exception {
+        GHRepository ghRepository = mock(GHRepository.class);
+        GHPullRequest pr1 = closedPR(1);
+        GHPullRequest pr2 = closedPR(2);
+        when(ghRepository.getPullRequest(1)).thenReturn(pr1);
+        when(ghRepository.getPullRequest(2)).thenReturn(pr2);
+        final List<GHPullRequest> closedPulls = new ArrayList<>();
+        for (int number = 100; number > 2; number--) {
+            closedPulls.add(closedPR(number));
+        }
+        final AtomicInteger walked = new AtomicInteger();
+        Iterable<GHPullRequest> countingPulls = new Iterable<GHPullRequest>() {
+            @Override
+            public Iterator<GHPullRequest> iterator() {
+                final Iterator<GHPullRequest> iterator = closedPulls.iterator();
+                return new Iterator<GHPullRequest>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public GHPullRequest next() {
+                        walked.incrementAndGet();
+                        return iterator.next();
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+
+        List<GHPullRequest> resolved = GitHubPRTrigger.getClosedPullRequests(ghRepository, countingPulls,
+                new HashSet<>(asList(1, 2)));
+
+        assertThat(resolved, contains(pr1, pr2));
+        assertThat(walked.get(), equalTo(30));
+    }
+
+    @Test
+    public void shouldApplyConcurrentChecksInPRNumberOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            GitHubPRTrigger trigger = mockedTrigger(Collections.<GitHubPREvent>singletonList(new SlowEvent()),
+                    executor);
+            GitHubPRRepository localRepository = localRepository();
+            modifiedValidators();
+            GHPullRequest pr1 = openPR(1, new Date(3000));
+            GHPullRequest pr2 = openPR(2, new Date(2000));
+            GHPullRequest pr3 = openPR(3, new Date(1000));
+            when(snapshotService.getOpenPulls(anyString(), eq(ghRepository), anyString()))
+                    .thenReturn(asList(pr3, pr1, pr2));
+            ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+            List<GitHubPRCause> causes = trigger.check(localRepository, new StreamTaskListener(log), null);
+
+            List<Integer> causeNumbers = new ArrayList<>();
+            for (GitHubPRCause cause : causes) {
+                causeNumbers.add(cause.getNumber());
+            }
+            assertThat(causeNumbers, contains(1, 2, 3));
+            assertThat(localRepository.getPulls().keySet(), containsInAnyOrder(1, 2, 3));
+            String output = log.toString();
+            assertTrue(output.indexOf("PR #1 because") < output.indexOf("PR #2 because"));
+            assertTrue(output.indexOf("PR #2 because") < output.indexOf("PR #3 because"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldBuildOnlyPullsOfAllowedBranches() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(Collections.<GitHubPREvent>singletonList(new SlowEvent()), null);
+        trigger.setBranchRestriction(new GitHubPRBranchRestriction("master"));
+        GitHubPRRepository localRepository = localRepository();
+        modifiedValidators();
+        GHPullRequest toMaster = openPR(1, new Date(2000));
+        withBase(toMaster, "master");
+        GHPullRequest toFeature = openPR(2, new Date(2000));
+        withBase(toFeature, "feature");
+        when(snapshotService.getOpenPulls(anyString(), eq(ghRepository), anyString()))
+                .thenReturn(asList(toMaster, toFeature));
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+        List<GitHubPRCause> causes = trigger.check(localRepository, new StreamTaskListener(log), null);
+
+        assertThat(causes, hasSize(1));
+        assertThat(causes.get(0).getNumber(), equalTo(1));
+        assertThat(log.toString(), containsString("Skipping #2"));
+    }
+
+    @Test
+    public void shouldBuildHookOfAllowedBranchFromPayload() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(
+                Collections.<GitHubPREvent>singletonList(new GitHubPROpenEvent()), null);
+        trigger.setBranchRestriction(new GitHubPRBranchRestriction("master"));
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                withMergeable(withLabels(pullRequestHook("opened")), true));
+
+        GitHubPRCause cause = trigger.checkHook(payload, new StreamTaskListener(new ByteArrayOutputStream()));
+
+        assertThat(cause, notNullValue());
+        assertThat(cause.getNumber(), equalTo(1));
+        // only sender of built hook is fetched
+        verify(gitHub).getUser("lanwen");
+        verifyNoMoreInteractions(gitHub);
+    }
+
+    @Test
+    public void shouldSkipHookOfNotAllowedBranchWithoutRequests() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(
+                Collections.<GitHubPREvent>singletonList(new GitHubPROpenEvent()), null);
+        trigger.setBranchRestriction(new GitHubPRBranchRestriction("release"));
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                withLabels(pullRequestHook("opened")));
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+        GitHubPRCause cause = trigger.checkHook(payload, new StreamTaskListener(log));
+
+        assertThat(cause, nullValue());
+        assertThat(log.toString(), containsString("because of branch restriction"));
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void shouldSkipHookOfNotWhitelistedAuthor() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(
+                Collections.<GitHubPREvent>singletonList(new GitHubPROpenEvent()), null);
+        GitHubPRUserRestriction userRestriction = mock(GitHubPRUserRestriction.class);
+        trigger.setUserRestriction(userRestriction);
+        GHUser author = mock(GHUser.class);
+        when(gitHub.getUser("lanwen")).thenReturn(author);
+        when(userRestriction.isWhitelisted(author)).thenReturn(false);
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                withLabels(pullRequestHook("opened")));
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+        GitHubPRCause cause = trigger.checkHook(payload, new StreamTaskListener(log));
+
+        assertThat(cause, nullValue());
+        assertThat(log.toString(), containsString("because of user restriction (user - lanwen)"));
+        verify(gitHub).getUser("lanwen");
+        verifyNoMoreInteractions(gitHub);
+    }
+
+    @Test
+    public void shouldNotBuildHookSkippedByFirstMatchedEvent() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(
+                asList(new GitHubPRNonMergeableEvent(true), new GitHubPROpenEvent()), null);
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                withMergeable(withLabels(pullRequestHook("opened")), false));
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+        GitHubPRCause cause = trigger.checkHook(payload, new StreamTaskListener(log));
+
+        assertThat(cause, nullValue());
+        assertThat(log.toString(), containsString("Skipping PR #1"));
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void shouldQueueCronCheckBehindHookChecksOnce() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(Collections.<GitHubPREvent>emptyList(), null);
+        GitHubPRStripedQueue hookQueue = mock(GitHubPRStripedQueue.class);
+        when(trigger.getDescriptor().getHookQueue()).thenReturn(hookQueue);
+        when(hookQueue.runIfIdle(anyString(), any(Runnable.class))).thenReturn(false);
+
+        // ticks while hook checks keep job busy
+        trigger.run();
+        trigger.run();
+
+        verify(hookQueue, times(2)).runIfIdle(anyString(), any(Runnable.class));
+        verify(hookQueue, times(1)).execute(anyString(), any(Runnable.class));
+    }
+
+    @Test
+    public void shouldSkipCheckWhenNothingModified() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(Collections.<GitHubPREvent>emptyList(), null);
+        GitHubPRRepository localRepository = localRepository();
+        GitHubPRPollingState pollingState = localRepository.getPollingState();
+        pollingState.setPulls("pulls-etag", "pulls-date");
+        pollingState.setEvents("events-etag", "events-date");
+        when(restClient.get(PULLS_PATH, "pulls-etag", "pulls-date"))
+                .thenReturn(new GitHubPRRestClient.Result(304, null, null, null));
+        when(restClient.get(EVENTS_PATH, "events-etag", "events-date"))
+                .thenReturn(new GitHubPRRestClient.Result(304, null, null, null));
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+        List<GitHubPRCause> causes = trigger.check(localRepository, new StreamTaskListener(log), null);
+
+        assertThat(causes, empty());
+        assertThat(log.toString(), containsString("No changes (304)"));
+        verify(gitHub, never()).getRepository(anyString());
+        assertThat(pollingState.getPullsETag(), equalTo("pulls-etag"));
+        assertThat(pollingState.getPullsLastModified(), equalTo("pulls-date"));
+        assertThat(pollingState.getEventsETag(), equalTo("events-etag"));
+        assertThat(pollingState.getEventsLastModified(), equalTo("events-date"));
+    }
+
+    @Test
+    public void shouldCheckAndKeepNotModifiedValidatorsWhenOnlyPullsModified() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(Collections.<GitHubPREvent>emptyList(), null);
+        GitHubPRRepository localRepository = localRepository();
+        GitHubPRPollingState pollingState = localRepository.getPollingState();
+        pollingState.setPulls("pulls-etag", "pulls-date");
+        pollingState.setEvents("events-etag", "events-date");
+        when(restClient.get(PULLS_PATH, "pulls-etag", "pulls-date"))
+                .thenReturn(new GitHubPRRestClient.Result(200, "new-pulls-etag", "new-pulls-date", "[]"));
+        when(restClient.get(EVENTS_PATH, "events-etag", "events-date"))
+                .thenReturn(new GitHubPRRestClient.Result(304, null, null, null));
+        when(snapshotService.getOpenPulls(anyString(), eq(ghRepository), anyString()))
+                .thenReturn(Collections.<GHPullRequest>emptyList());
+
+        trigger.check(localRepository, new StreamTaskListener(new ByteArrayOutputStream()), null);
+
+        verify(snapshotService).getOpenPulls("https://api.github.com", ghRepository, "new-pulls-etag");
+        assertThat(pollingState.getPullsETag(), equalTo("new-pulls-etag"));
+        assertThat(pollingState.getPullsLastModified(), equalTo("new-pulls-date"));
+        assertThat(pollingState.getEventsETag(), equalTo("events-etag"));
+        assertThat(pollingState.getEventsLastModified(), equalTo("events-date"));
+    }
+
+    @Test
+    public void shouldCheckOnlyPullsUpdatedSinceCursor() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(Collections.<GitHubPREvent>emptyList(), null);
+        trigger.setPollingStrategy(GitHubPRPollingStrategy.INCREMENTAL);
+        GitHubPRRepository localRepository = localRepository();
+        GitHubPRPollingState pollingState = localRepository.getPollingState();
+        pollingState.updateCursor(GitHubPRRestClient.parseDate("2015-01-01T10:00:00Z"));
+        pollingState.setLastFullCheck(new Date());
+        modifiedValidators();
+        when(restClient.getPage(startsWith("/repos/owner/repo/issues?"), eq(1))).thenReturn(JSONArray.fromObject(
+                "[{number: 7, state: 'open', updated_at: '2015-01-01T11:00:00Z', pull_request: {url: 'pr7'}},"
+                        + " {number: 8, state: 'open', updated_at: '2015-01-01T09:00:00Z', pull_request: {url: 'pr8'}}]"));
+        GHPullRequest pr7 = openPR(7, GitHubPRRestClient.parseDate("2015-01-01T11:00:00Z"));
+        when(ghRepository.getPullRequest(7)).thenReturn(pr7);
+
+        trigger.check(localRepository, new StreamTaskListener(new ByteArrayOutputStream()), null);
+
+        verify(ghRepository).getPullRequest(7);
+        verify(ghRepository, never()).getPullRequest(8);
+        verify(snapshotService, never()).getOpenPulls(anyString(), any(GHRepository.class), anyString());
+        assertThat(localRepository.getPulls().keySet(), contains(7));
+        assertThat(pollingState.getUpdatedCursor(), equalTo(GitHubPRRestClient.parseDate("2015-01-01T11:00:00Z")));
+    }
+
+    @Test
+    public void shouldListAllOpenPullsWhenFullCheckIsDue() throws Exception {
+        GitHubPRTrigger trigger = mockedTrigger(Collections.<GitHubPREvent>emptyList(), null);
+        trigger.setPollingStrategy(GitHubPRPollingStrategy.INCREMENTAL);
+        GitHubPRRepository localRepository = localRepository();
+        GitHubPRPollingState pollingState = localRepository.getPollingState();
+        pollingState.updateCursor(GitHubPRRestClient.parseDate("2015-01-01T10:00:00Z"));
+        pollingState.setLastFullCheck(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2)));
+        modifiedValidators();
+        GHPullRequest pr7 = openPR(7, GitHubPRRestClient.parseDate("2015-01-01T11:00:00Z"));
+        when(snapshotService.getOpenPulls(anyString(), eq(ghRepository), anyString())).thenReturn(asList(pr7));
+        long started = System.currentTimeMillis();
+
+        trigger.check(localRepository, new StreamTaskListener(new ByteArrayOutputStream()), null);
+
+        verify(restClient, never()).getPage(anyString(), anyInt());
+        assertThat(localRepository.getPulls().keySet(), contains(7));
+        assertTrue(pollingState.getLastFullCheck().getTime() >= started);
+        assertThat(pollingState.getUpdatedCursor(), equalTo(GitHubPRRestClient.parseDate("2015-01-01T11:00:00Z")));
+    }
+
+    /**
+     * Trigger of job with repository "owner/repo" that talks to mocked descriptor and GitHub.
+     */
+    private GitHubPRTrigger mockedTrigger(List<GitHubPREvent> events, @CheckForNull ExecutorService executor)
+            throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.addProperty(new GithubProjectProperty("https://github.com/owner/repo"));
+        GitHubPRTrigger trigger = new GitHubPRTrigger("", GitHubPRTriggerMode.CRON, events);
+        trigger.start(p, false);
+
+        ghRepository = mock(GHRepository.class);
+        gitHub = mock(GitHub.class);
+        when(gitHub.getRepository("owner/repo")).thenReturn(ghRepository);
+        snapshotService = mock(GitHubPRSnapshotService.class);
+        restClient = mock(GitHubPRRestClient.class);
+
+        GitHubPRTrigger.DescriptorImpl descriptor = mock(GitHubPRTrigger.DescriptorImpl.class);
+        when(descriptor.getApiUrl()).thenReturn("https://api.github.com");
+        when(descriptor.getRestClient()).thenReturn(restClient);
+        when(descriptor.getSnapshotService()).thenReturn(snapshotService);
+        when(descriptor.getCheckExecutor()).thenReturn(executor);
+        when(descriptor.getRateLimitTracker()).thenReturn(new GitHubPRRateLimitTracker());
+        when(descriptor.getRateLimitScheduler()).thenReturn(mock(GitHubPRRateLimitScheduler.class));
+
+        GitHubPRTrigger spied = spy(trigger);
+        doReturn(descriptor).when(spied).getDescriptor();
+        doReturn(gitHub).when(spied).getGitHub();
+        return spied;
+    }
+
+    private static GitHubPRRepository localRepository() {
+        return new GitHubPRRepository("owner/repo", "https://github.com/owner/repo",
+                new HashMap<Integer, GitHubPRPullRequest>());
+    }
+
+    private void modifiedValidators() throws IOException {
+        when(restClient.get(eq(PULLS_PATH), anyString(), anyString()))
+                .thenReturn(new GitHubPRRestClient.Result(200, "pulls-etag", null, "[]"));
+        when(restClient.get(eq(EVENTS_PATH), anyString(), anyString()))
+                .thenReturn(new GitHubPRRestClient.Result(200, "events-etag", null, "[]"));
+    }
+
+    /**
+     * Open PR with remote snapshot that check gets from snapshot service.
+     */
+    private GHPullRequest openPR(int number, Date updatedAt) throws IOException {
+        GHPullRequest remotePR = mock(GHPullRequest.class);
+        when(remotePR.getNumber()).thenReturn(number);
+        when(remotePR.getState()).thenReturn(GHIssueState.OPEN);
+        when(remotePR.getUpdatedAt()).thenReturn(updatedAt);
+
+        GitHubPRPullRequest localPR = mock(GitHubPRPullRequest.class);
+        when(localPR.getNumber()).thenReturn(number);
+        GitHubPRSnapshot snapshot = mock(GitHubPRSnapshot.class);
+        when(snapshot.getNumber()).thenReturn(number);
+        when(snapshot.getState()).thenReturn(GHIssueState.OPEN);
+        when(snapshot.getPullRequest(any(GitHubPRPullRequest.class))).thenReturn(localPR);
+        when(snapshotService.getSnapshot(anyString(), anyString(), eq(remotePR), eq(restClient))).thenReturn(snapshot);
+        return remotePR;
+    }
+
+    private static void withBase(GHPullRequest remotePR, String baseRef) {
+        GHCommitPointer base = mock(GHCommitPointer.class);
+        when(base.getRef()).thenReturn(baseRef);
+        when(remotePR.getBase()).thenReturn(base);
+    }
+
+    private static GHPullRequest closedPR(int number) {
+        GHPullRequest remotePR = mock(GHPullRequest.class);
+        when(remotePR.getNumber()).thenReturn(number);
+        when(remotePR.getState()).thenReturn(GHIssueState.CLOSED);
+        return remotePR;
+    }
+
+    private static GHPullRequest remotePR(int number, String sha, Date updatedAt) throws IOException {
+        GHCommitPointer head = mock(GHCommitPointer.class);
+        when(head.getSha()).thenReturn(sha);
+        GHPullRequest remotePR = mock(GHPullRequest.class);
+        when(remotePR.getNumber()).thenReturn(number);
+        when(remotePR.getHead()).thenReturn(head);
+        when(remotePR.getUpdatedAt()).thenReturn(updatedAt);
+        return remotePR;
+    }
+
     private static GitHubPRTrigger defaultGitHubPRTrigger() throws ANTLRException {
         String spec = "";
         List<GitHubPREvent> events = Collections.emptyList();
@@ -109,6 +571,26 @@ public class GitHubPRTriggerTest {
         }
     }
 
+    /**
+     * Triggers every PR, checks of lower PR numbers take longer, so they finish last.
+     */
+    private static class SlowEvent extends GitHubPREvent {
+        @Override
+        public GitHubPRCause check(GitHubPRTrigger gitHubPRTrigger, GitHubPRSnapshot snapshot,
+                                   GitHubPRPullRequest localPR, GitHubPRCommentPipeline comments,
+                                   TaskListener listener) throws IOException {
+            try {
+                Thread.sleep(100 * (4 - snapshot.getNumber()));
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException(e.getMessage());
+            }
+            GitHubPRCause cause = mock(GitHubPRCause.class);
+            when(cause.getNumber()).thenReturn(snapshot.getNumber());
+            when(cause.getReason()).thenReturn("reason");
+            return cause;
+        }
+    }
+
     private class BuildDataBuilder extends TestBuilder {
         @Override
         public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) throws InterruptedException, IOException {
@@ -0,0 +1,99 @@
+package org.jenkinsci.plugins.github.pullrequest.events.impl;
+
+import hudson.model.TaskListener;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
+import org.jenkinsci.plugins.github.pullrequest.restrictions.GitHubPRUserRestriction;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHUser;
+import org.kohsuke.github.GitHub;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.pullRequestHook;
+import static org.jenkinsci.plugins.github.pullrequest.webhook.GHPullRequestSubscriberTest.classpath;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GitHubPRCommentEventTest {
+
+    @Mock private GitHubPRTrigger trigger;
+    @Mock private GitHub gitHub;
+    @Mock private GitHubPRUserRestriction userRestriction;
+    @Mock private TaskListener listener;
+    @Mock private PrintStream logger;
+
+    @Before
+    public void before() throws IOException {
+        when(trigger.getGitHub()).thenReturn(gitHub);
+        when(listener.getLogger()).thenReturn(logger);
+    }
+
+    @Test
+    public void notMatchedCommentIsIgnoredWithoutRequests() throws IOException {
+        GitHubPRCommentEvent instance = new GitHubPRCommentEvent("test this");
+
+        assertNull(instance.checkHook(trigger, commentHook("created"), listener));
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void editedCommentIsIgnoredWithoutRequests() throws IOException {
+        GitHubPRCommentEvent instance = new GitHubPRCommentEvent("comment");
+
+        assertNull(instance.checkHook(trigger, commentHook("edited"), listener));
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void pullRequestHookIsIgnoredWithoutRequests() throws IOException {
+        GitHubPRCommentEvent instance = new GitHubPRCommentEvent(".*");
+
+        assertNull(instance.checkHook(trigger,
+                new GitHubPRHookPayload(GHEvent.PULL_REQUEST, pullRequestHook("opened")), listener));
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void matchedCommentTriggers() throws IOException {
+        GitHubPRCommentEvent instance = new GitHubPRCommentEvent("comment");
+        GitHubPRHookPayload payload = spy(commentHook("created"));
+        GitHubPRCause cause = mock(GitHubPRCause.class);
+        doReturn(cause).when(payload).createCause(gitHub, "PR was triggered by comment", false);
+
+        assertSame(cause, instance.checkHook(trigger, payload, listener));
+    }
+
+    @Test
+    public void matchedCommentOfNotWhitelistedAuthorIsIgnored() throws IOException {
+        GitHubPRCommentEvent instance = new GitHubPRCommentEvent("comment");
+        GHUser author = mock(GHUser.class);
+        when(trigger.getUserRestriction()).thenReturn(userRestriction);
+        when(gitHub.getUser("lanwen")).thenReturn(author);
+        when(userRestriction.isWhitelisted(author)).thenReturn(false);
+
+        assertNull(instance.checkHook(trigger, commentHook("created"), listener));
+        verify(gitHub).getUser("lanwen");
+        verifyNoMoreInteractions(gitHub);
+    }
+
+    private static GitHubPRHookPayload commentHook(String action) throws IOException {
+        return new GitHubPRHookPayload(GHEvent.ISSUE_COMMENT, classpath("payload/issue_comment.json")
+                .replace("\"action\": \"created\"", "\"action\": \"" + action + "\""));
+    }
+}
@@ -0,0 +1,70 @@
+package org.jenkinsci.plugins.github.pullrequest.events.impl;
+
+import hudson.model.TaskListener;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GitHub;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.pullRequestHook;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withLabels;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withMergeable;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GitHubPRCommitEventTest {
+
+    @Mock private GitHubPRTrigger trigger;
+    @Mock private GitHub gitHub;
+    @Mock private TaskListener listener;
+    @Mock private PrintStream logger;
+
+    @Before
+    public void before() throws IOException {
+        when(trigger.getGitHub()).thenReturn(gitHub);
+        when(listener.getLogger()).thenReturn(logger);
+    }
+
+    @Test
+    public void synchronizeHookTriggersWithHeadFromPayload() throws IOException {
+        GitHubPRCommitEvent instance = new GitHubPRCommitEvent();
+
+        GitHubPRCause cause = instance.checkHook(trigger,
+                payload(withMergeable(withLabels(pullRequestHook("synchronize")), true)), listener);
+
+        assertNotNull(cause);
+        assertEquals("07e701909439037266e4b397433f838078a961f5", cause.getHeadSha());
+        // sender is PR author too, it's fetched once for built cause
+        verify(gitHub).getUser("lanwen");
+        verifyNoMoreInteractions(gitHub);
+    }
+
+    @Test
+    public void otherActionsAreIgnoredWithoutRequests() throws IOException {
+        GitHubPRCommitEvent instance = new GitHubPRCommitEvent();
+
+        for (String action : new String[]{"opened", "labeled", "closed"}) {
+            assertNull(action, instance.checkHook(trigger, payload(pullRequestHook(action)), listener));
+        }
+        verifyZeroInteractions(gitHub);
+    }
+
+    private static GitHubPRHookPayload payload(String payload) throws IOException {
+        return new GitHubPRHookPayload(GHEvent.PULL_REQUEST, payload);
+    }
+}
@@ -2,8 +2,10 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRLabel;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -19,6 +21,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import static java.util.Arrays.asList;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.pullRequestHook;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withChangedLabel;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withLabels;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withMergeable;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,6 +48,8 @@ public class GitHubPRLabelAddedEventTest {
     @Mock private GHLabel testLabel;
     @Mock private TaskListener listener;
     @Mock private PrintStream logger;
+    @Mock private GitHubPRTrigger trigger;
+    @Mock private GitHub gitHub;
 
     private Set<String> checkedLabels = new HashSet<String>();
 
@@ -163,6 +172,63 @@ public class GitHubPRLabelAddedEventTest {
         Assert.assertNull(cause);
     }
     
+    /**
+     * Hook of checked label added to PR with other labels, decided by payload only.
+     */
+    @Test
+    public void labeledHookTriggersByPayload() throws IOException {
+        hookExpectations();
+
+        GitHubPRLabelAddedEvent instance = new GitHubPRLabelAddedEvent(new GitHubPRLabel(MERGE));
+        GitHubPRCause cause = instance.checkHook(trigger,
+                labeledHook("labeled", MERGE, MERGE, REVIEWED), listener);
+
+        Assert.assertNotNull(cause);
+        Assert.assertEquals(new HashSet<>(asList(MERGE, REVIEWED)), cause.getLabels());
+        // sender is PR author too, it's fetched once for built cause
+        verify(gitHub).getUser("lanwen");
+        verifyNoMoreInteractions(gitHub);
+    }
+
+    /**
+     * Case when one of two checked labels was added, but other is not set on PR yet.
+     */
+    @Test
+    public void labeledHookWaitsForAllCheckedLabels() throws IOException {
+        hookExpectations();
+
+        GitHubPRLabelAddedEvent instance = new GitHubPRLabelAddedEvent(new GitHubPRLabel(MERGE + "\n" + REVIEWED));
+
+        Assert.assertNull(instance.checkHook(trigger, labeledHook("labeled", MERGE, MERGE), listener));
+        Assert.assertNotNull(instance.checkHook(trigger, labeledHook("labeled", MERGE, MERGE, REVIEWED), listener));
+        // sender is PR author too, it's fetched once for built cause
+        verify(gitHub).getUser("lanwen");
+        verifyNoMoreInteractions(gitHub);
+    }
+
+    @Test
+    public void hooksOfOtherLabelsAndActionsAreIgnoredWithoutRequests() throws IOException {
+        hookExpectations();
+
+        GitHubPRLabelAddedEvent instance = new GitHubPRLabelAddedEvent(new GitHubPRLabel(MERGE));
+
+        Assert.assertNull(instance.checkHook(trigger, labeledHook("labeled", REVIEWED, REVIEWED), listener));
+        Assert.assertNull(instance.checkHook(trigger, labeledHook("unlabeled", MERGE), listener));
+        Assert.assertNull(instance.checkHook(trigger, labeledHook("opened", MERGE, MERGE), listener));
+        verifyZeroInteractions(gitHub);
+    }
+
+    private void hookExpectations() throws IOException {
+        when(trigger.getGitHub()).thenReturn(gitHub);
+        when(listener.getLogger()).thenReturn(logger);
+    }
+
+    private static GitHubPRHookPayload labeledHook(String action, String label, String... labels)
+            throws IOException {
+        return new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                withChangedLabel(withMergeable(withLabels(pullRequestHook(action), labels), true), label));
+    }
+
     private void commonExpectations(Set<String> localLabels) throws IOException {
         when(labels.getLabelsSet()).thenReturn(checkedLabels);
         when(localPR.getLabels()).thenReturn(localLabels);
@@ -2,8 +2,10 @@ package org.jenkinsci.plugins.github.pullrequest.events.impl;
 
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRLabel;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -11,6 +13,10 @@ import org.kohsuke.github.*;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.pullRequestHook;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withChangedLabel;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withLabels;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withMergeable;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
@@ -38,6 +44,8 @@ public class GitHubPRLabelRemovedEventTest {
     @Mock private GHLabel label;
     @Mock private TaskListener listener;
     @Mock private PrintStream logger;
+    @Mock private GitHubPRTrigger trigger;
+    @Mock private GitHub gitHub;
 
     private Set<String> checkedLabels = new HashSet<String>();
     {
@@ -110,6 +118,63 @@ public class GitHubPRLabelRemovedEventTest {
         Assert.assertNull(cause);
     }
     
+    /**
+     * Hook of the last checked label removed from PR, decided by payload only.
+     */
+    @Test
+    public void unlabeledHookTriggersByPayload() throws IOException {
+        hookExpectations();
+
+        GitHubPRLabelRemovedEvent instance = new GitHubPRLabelRemovedEvent(
+                new GitHubPRLabel(TESTS_FAILURE + "\n" + NOT_REVIEWED));
+        GitHubPRCause cause = instance.checkHook(trigger, unlabeledHook("unlabeled", TESTS_FAILURE), listener);
+
+        Assert.assertNotNull(cause);
+        Assert.assertTrue(cause.getLabels().isEmpty());
+        // sender is PR author too, it's fetched once for built cause
+        verify(gitHub).getUser("lanwen");
+        verifyNoMoreInteractions(gitHub);
+    }
+
+    /**
+     * Case when one of two checked labels was removed, but other is still set on PR.
+     */
+    @Test
+    public void unlabeledHookWaitsForAllCheckedLabels() throws IOException {
+        hookExpectations();
+
+        GitHubPRLabelRemovedEvent instance = new GitHubPRLabelRemovedEvent(
+                new GitHubPRLabel(TESTS_FAILURE + "\n" + NOT_REVIEWED));
+
+        Assert.assertNull(instance.checkHook(trigger,
+                unlabeledHook("unlabeled", TESTS_FAILURE, NOT_REVIEWED), listener));
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void hooksOfOtherLabelsAndActionsAreIgnoredWithoutRequests() throws IOException {
+        hookExpectations();
+
+        GitHubPRLabelRemovedEvent instance = new GitHubPRLabelRemovedEvent(new GitHubPRLabel(TESTS_FAILURE));
+
+        Assert.assertNull(instance.checkHook(trigger, unlabeledHook("unlabeled", NOT_REVIEWED), listener));
+        Assert.assertNull(instance.checkHook(trigger,
+                unlabeledHook("labeled", TESTS_FAILURE, TESTS_FAILURE), listener));
+        Assert.assertNull(instance.checkHook(trigger, unlabeledHook("closed", TESTS_FAILURE), listener));
+        verifyZeroInteractions(gitHub);
+    }
+
+    private void hookExpectations() throws IOException {
+        when(trigger.getGitHub()).thenReturn(gitHub);
+        when(listener.getLogger()).thenReturn(logger);
+    }
+
+    private static GitHubPRHookPayload unlabeledHook(String action, String label, String... labels)
+            throws IOException {
+        return new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                withChangedLabel(withMergeable(withLabels(pullRequestHook(action), labels), true), label));
+    }
+
     private void commonExpectations(Set<String> localLabels) throws IOException {
         when(labels.getLabelsSet()).thenReturn(checkedLabels);
         when(localPR.getLabels()).thenReturn(localLabels);
@@ -1,6 +1,8 @@
 package org.jenkinsci.plugins.github.pullrequest.events.impl;
 
 import hudson.model.TaskListener;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRPullRequest;
 import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
 import org.junit.Assert;
@@ -15,6 +17,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.Collections;
 
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.pullRequestHook;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withLabels;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withMergeable;
 import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
 
@@ -33,6 +38,7 @@ public class GitHubPRNonMergeableEventTest {
     @Mock private GHCommitPointer ghCommitPointer;
     @Mock private GHIssue ghIssue;
     @Mock private GHRepository ghRepository;
+    @Mock private GitHub gitHub;
 
     @Before
     public void before() throws IOException {
@@ -90,4 +96,64 @@ public class GitHubPRNonMergeableEventTest {
 
         assertNotNull(instance.check(trigger, remotePr, localPr, listener));
     }
+
+    @Test
+    public void notMergeableHookIsSkippedWithoutRequests() throws IOException {
+        GitHubPRNonMergeableEvent instance = new GitHubPRNonMergeableEvent(true);
+        hookExpectations();
+
+        GitHubPRCause cause = instance.checkHook(trigger, hook("opened", false), listener);
+
+        assertNotNull(cause);
+        assertTrue(cause.isSkip());
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void mergeableHookIsIgnoredWithoutRequests() throws IOException {
+        GitHubPRNonMergeableEvent instance = new GitHubPRNonMergeableEvent(true);
+        hookExpectations();
+
+        assertNull(instance.checkHook(trigger, hook("synchronize", true), listener));
+        verifyZeroInteractions(gitHub);
+    }
+
+    /**
+     * Mergeable doesn't change with labels, so other actions are not checked even when PR is not mergeable.
+     */
+    @Test
+    public void labeledHookIsIgnoredWithoutRequests() throws IOException {
+        GitHubPRNonMergeableEvent instance = new GitHubPRNonMergeableEvent(true);
+        hookExpectations();
+
+        assertNull(instance.checkHook(trigger, hook("labeled", false), listener));
+        assertNull(instance.checkHook(trigger, hook("closed", false), listener));
+        verifyZeroInteractions(gitHub);
+    }
+
+    @Test
+    public void unknownMergeableIsFetchedOnce() throws IOException {
+        GitHubPRNonMergeableEvent instance = new GitHubPRNonMergeableEvent(true);
+        hookExpectations();
+        when(gitHub.getRepository("lanwen/test")).thenReturn(ghRepository);
+        when(ghRepository.getPullRequest(1)).thenReturn(remotePr);
+        when(remotePr.getNumber()).thenReturn(1);
+        when(remotePr.getMergeable()).thenReturn(false);
+        GitHubPRHookPayload payload = new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                withLabels(pullRequestHook("opened")));
+
+        assertNotNull(instance.checkHook(trigger, payload, listener));
+        assertNotNull(instance.checkHook(trigger, payload, listener));
+        verify(gitHub, times(1)).getRepository("lanwen/test");
+    }
+
+    private void hookExpectations() throws IOException {
+        when(trigger.getGitHub()).thenReturn(gitHub);
+        when(listener.getLogger()).thenReturn(logger);
+    }
+
+    private static GitHubPRHookPayload hook(String action, boolean mergeable) throws IOException {
+        return new GitHubPRHookPayload(GHEvent.PULL_REQUEST,
+                withMergeable(withLabels(pullRequestHook(action)), mergeable));
+    }
 }
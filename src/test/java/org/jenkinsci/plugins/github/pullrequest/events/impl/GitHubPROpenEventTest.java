@@ -0,0 +1,103 @@
+package org.jenkinsci.plugins.github.pullrequest.events.impl;
+
+import hudson.model.TaskListener;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRCause;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayload;
+import org.jenkinsci.plugins.github.pullrequest.GitHubPRTrigger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHUser;
+import org.kohsuke.github.GitHub;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.pullRequestHook;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withLabels;
+import static org.jenkinsci.plugins.github.pullrequest.GitHubPRHookPayloadTest.withMergeable;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GitHubPROpenEventTest {
+
+    @Mock private GitHubPRTrigger trigger;
+    @Mock private GitHub gitHub;
+    @Mock private GHRepository repository;
+    @Mock private GHPullRequest remotePR;
+    @Mock private GHUser user;
+    @Mock private TaskListener listener;
+    @Mock private PrintStream logger;
+
+    @Before
+    public void before() throws IOException {
+        when(trigger.getGitHub()).thenReturn(gitHub);
+        when(listener.getLogger()).thenReturn(logger);
+        when(gitHub.getUser("lanwen")).thenReturn(user);
+        when(user.getName()).thenReturn("Kirill");
+        when(user.getEmail()).thenReturn("lanwen@example.com");
+    }
+
+    @Test
+    public void openedAndReopenedHooksTriggerByPayload() throws IOException {
+        GitHubPROpenEvent instance = new GitHubPROpenEvent();
+
+        for (String action : new String[]{"opened", "reopened"}) {
+            GitHubPRCause cause = instance.checkHook(trigger,
+                    payload(withMergeable(withLabels(pullRequestHook(action)), true)), listener);
+            assertNotNull(action, cause);
+            assertEquals(1, cause.getNumber());
+            assertEquals("master", cause.getTargetBranch());
+            assertEquals("merge", cause.getCondRef());
+            assertEquals("Kirill", cause.getTriggerSenderName());
+            assertEquals("lanwen@example.com", cause.getPrAuthorEmail());
+        }
+        // sender is PR author too, it's fetched once per hook
+        verify(gitHub, times(2)).getUser("lanwen");
+        verifyNoMoreInteractions(gitHub);
+    }
+
+    /**
+     * GitHub usually didn't calculate mergeable yet for opened PR, build should still check out merge ref.
+     */
+    @Test
+    public void unknownMergeableIsFetchedForCause() throws IOException {
+        GitHubPROpenEvent instance = new GitHubPROpenEvent();
+        when(gitHub.getRepository("lanwen/test")).thenReturn(repository);
+        when(repository.getPullRequest(1)).thenReturn(remotePR);
+        when(remotePR.getNumber()).thenReturn(1);
+        when(remotePR.getMergeable()).thenReturn(true);
+
+        GitHubPRCause cause = instance.checkHook(trigger, payload(withLabels(pullRequestHook("opened"))), listener);
+
+        assertNotNull(cause);
+        assertEquals("merge", cause.getCondRef());
+        verify(repository, times(1)).getPullRequest(1);
+    }
+
+    @Test
+    public void otherActionsAreIgnoredWithoutRequests() throws IOException {
+        GitHubPROpenEvent instance = new GitHubPROpenEvent();
+
+        for (String action : new String[]{"synchronize", "labeled", "unlabeled", "closed"}) {
+            assertNull(action, instance.checkHook(trigger, payload(pullRequestHook(action)), listener));
+        }
+        verifyZeroInteractions(gitHub);
+    }
+
+    private static GitHubPRHookPayload payload(String payload) throws IOException {
+        return new GitHubPRHookPayload(GHEvent.PULL_REQUEST, payload);
+    }
+}
@@ -19,6 +19,7 @@ import java.io.IOException;
 import static com.google.common.base.Charsets.UTF_8;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +31,10 @@ public class GHPullRequestSubscriberTest {
 
     public static final String REPO_URL_FROM_PAYLOAD = "https://github.com/lanwen/test";
     public static final String REPO_FROM_PAYLOAD = "lanwen/test";
+    /**
+     * Hooks are dispatched out of request thread
+     */
+    private static final int TIMEOUT = 10000;
 
     @Rule
     public JenkinsRule jenkins = new JenkinsRule();
@@ -48,7 +53,7 @@ public class GHPullRequestSubscriberTest {
 
         new GHPullRequestSubscriber().onEvent(GHEvent.PULL_REQUEST, classpath("payload/pull_request.json"));
 
-        verify(trigger).queueRun(eq(job), eq(1));
+        verify(trigger, timeout(TIMEOUT)).queueRun(eq(job), eq(1), eq(GHEvent.PULL_REQUEST));
     }
 
     @Test
@@ -62,7 +67,35 @@ public class GHPullRequestSubscriberTest {
 
         new GHPullRequestSubscriber().onEvent(GHEvent.ISSUE_COMMENT, classpath("payload/issue_comment.json"));
 
-        verify(trigger).queueRun(eq(job), eq(1));
+        verify(trigger, timeout(TIMEOUT)).queueRun(eq(job), eq(1), eq(GHEvent.ISSUE_COMMENT));
+    }
+
+    @Test
+    public void shouldTriggerJobInHooksWithCronMode() throws Exception {
+        when(trigger.getRepoFullName(any(AbstractProject.class))).thenReturn(REPO_FROM_PAYLOAD);
+        when(trigger.getTriggerMode()).thenReturn(GitHubPRTriggerMode.HEAVY_HOOKS_CRON);
+
+        FreeStyleProject job = jenkins.createFreeStyleProject();
+        job.addProperty(new GithubProjectProperty(REPO_URL_FROM_PAYLOAD));
+        job.addTrigger(trigger);
+
+        new GHPullRequestSubscriber().onEvent(GHEvent.PULL_REQUEST, classpath("payload/pull_request.json"));
+
+        verify(trigger, timeout(TIMEOUT)).queueRun(eq(job), eq(1), eq(GHEvent.PULL_REQUEST));
+    }
+
+    @Test
+    public void shouldRecheckPullsOfPushedBranch() throws Exception {
+        when(trigger.getRepoFullName(any(AbstractProject.class))).thenReturn(REPO_FROM_PAYLOAD);
+        when(trigger.getTriggerMode()).thenReturn(GitHubPRTriggerMode.HEAVY_HOOKS);
+
+        FreeStyleProject job = jenkins.createFreeStyleProject();
+        job.addProperty(new GithubProjectProperty(REPO_URL_FROM_PAYLOAD));
+        job.addTrigger(trigger);
+
+        new GHPullRequestSubscriber().onEvent(GHEvent.PUSH, classpath("payload/push.json"));
+
+        verify(trigger, timeout(TIMEOUT)).queueBaseRecheck(eq(job), eq("master"));
     }
 
     public static String classpath(String path) throws IOException {
@@ -0,0 +1,87 @@
+package org.jenkinsci.plugins.github.pullrequest.webhook;
+
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHEventPayload;
+import org.kohsuke.github.GitHub;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import static org.jenkinsci.plugins.github.pullrequest.webhook.GHPullRequestSubscriberTest.classpath;
+
+/**
+ * Microbenchmark of hook payload extraction: streaming {@link PullRequestInfoExtractor}
+ * vs binding with {@link GitHub#parseEventPayload}. Not a test, run manually:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.jenkinsci.plugins.github.pullrequest.webhook.PullRequestInfoExtractorBenchmark
+ * </pre>
+ */
+public final class PullRequestInfoExtractorBenchmark {
+    private static final int WARMUP = 5000;
+    private static final int ITERATIONS = 20000;
+
+    private PullRequestInfoExtractorBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String pullRequest = classpath("payload/pull_request.json");
+        String issueComment = classpath("payload/issue_comment.json");
+
+        for (int round = 0; round < 3; round++) {
+            report("streaming pull_request", streaming(GHEvent.PULL_REQUEST, pullRequest, WARMUP),
+                    streaming(GHEvent.PULL_REQUEST, pullRequest, ITERATIONS));
+            report("binding pull_request", binding(GHEvent.PULL_REQUEST, pullRequest, WARMUP),
+                    binding(GHEvent.PULL_REQUEST, pullRequest, ITERATIONS));
+            report("streaming issue_comment", streaming(GHEvent.ISSUE_COMMENT, issueComment, WARMUP),
+                    streaming(GHEvent.ISSUE_COMMENT, issueComment, ITERATIONS));
+            report("binding issue_comment", binding(GHEvent.ISSUE_COMMENT, issueComment, WARMUP),
+                    binding(GHEvent.ISSUE_COMMENT, issueComment, ITERATIONS));
+        }
+    }
+
+    private static long streaming(GHEvent event, String payload, int iterations) throws IOException {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += PullRequestInfoExtractor.extract(event, payload).getNum();
+        }
+        return elapsed(start, iterations, checksum);
+    }
+
+    /**
+     * Previous implementation: anonymous connection and full payload binding per event
+     */
+    private static long binding(GHEvent event, String payload, int iterations) throws IOException {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            GitHub gh = GitHub.connectAnonymously();
+            if (event == GHEvent.PULL_REQUEST) {
+                GHEventPayload.PullRequest pr = gh.parseEventPayload(new StringReader(payload),
+                        GHEventPayload.PullRequest.class);
+                checksum += pr.getNumber() + pr.getPullRequest().getRepository().getFullName().length();
+            } else {
+                GHEventPayload.IssueComment comment = gh.parseEventPayload(new StringReader(payload),
+                        GHEventPayload.IssueComment.class);
+                checksum += comment.getIssue().getNumber() + comment.getRepository().getFullName().length();
+            }
+        }
+        return elapsed(start, iterations, checksum);
+    }
+
+    private static long elapsed(long start, int iterations, long checksum) {
+        long nanos = (System.nanoTime() - start) / iterations;
+        // keep JIT from dropping loop
+        if (checksum == Long.MIN_VALUE) {
+            System.out.println(checksum);
+        }
+        return nanos;
+    }
+
+    private static void report(String name, long warmupNanos, long nanos) {
+        System.out.println(String.format("%-25s %8d ns/op (warmup %d ns/op, %d us total)",
+                name, nanos, warmupNanos, TimeUnit.NANOSECONDS.toMicros(nanos * ITERATIONS)));
+    }
+}
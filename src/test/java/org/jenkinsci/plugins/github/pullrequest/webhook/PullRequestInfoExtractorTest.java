@@ -0,0 +1,73 @@
+package org.jenkinsci.plugins.github.pullrequest.webhook;
+
+import org.junit.Test;
+import org.kohsuke.github.GHEvent;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.jenkinsci.plugins.github.pullrequest.webhook.GHPullRequestSubscriberTest.classpath;
+import static org.junit.Assert.assertThat;
+
+public class PullRequestInfoExtractorTest {
+
+    @Test
+    public void shouldExtractFromPullRequest() throws Exception {
+        PullRequestInfo info = PullRequestInfoExtractor.extract(GHEvent.PULL_REQUEST,
+                classpath("payload/pull_request.json"));
+
+        assertThat(info.getRepo(), equalTo("lanwen/test"));
+        assertThat(info.getNum(), equalTo(1));
+    }
+
+    @Test
+    public void shouldExtractFromLabelledPullRequest() throws Exception {
+        PullRequestInfo info = PullRequestInfoExtractor.extract(GHEvent.PULL_REQUEST,
+                classpath("payload/pull_request-labelled.json"));
+
+        assertThat(info.getRepo(), equalTo("lanwen/test"));
+        assertThat(info.getNum(), equalTo(1));
+    }
+
+    @Test
+    public void shouldExtractFromIssueComment() throws Exception {
+        PullRequestInfo info = PullRequestInfoExtractor.extract(GHEvent.ISSUE_COMMENT,
+                classpath("payload/issue_comment.json"));
+
+        assertThat(info.getRepo(), equalTo("lanwen/test"));
+        assertThat(info.getNum(), equalTo(1));
+    }
+
+    @Test
+    public void shouldNotTakeNestedNumbers() throws Exception {
+        PullRequestInfo info = PullRequestInfoExtractor.extract(GHEvent.PULL_REQUEST,
+                "{\"pull_request\":{\"number\":5,\"base\":{\"repo\":{\"full_name\":\"fork/test\"}}},"
+                        + "\"number\":2,\"repository\":{\"owner\":{\"id\":3},\"full_name\":\"owner/test\"}}");
+
+        assertThat(info.getRepo(), equalTo("owner/test"));
+        assertThat(info.getNum(), equalTo(2));
+    }
+
+    @Test
+    public void shouldExtractFromPush() throws Exception {
+        PushInfo info = PullRequestInfoExtractor.extractPush(classpath("payload/push.json"));
+
+        assertThat(info.getRepo(), equalTo("lanwen/test"));
+        assertThat(info.getBranch(), equalTo("master"));
+    }
+
+    @Test
+    public void shouldIgnoreTagPushAndBranchRemoval() throws Exception {
+        assertThat(PullRequestInfoExtractor.extractPush(
+                "{\"ref\":\"refs/tags/v1\",\"repository\":{\"full_name\":\"owner/test\"}}"), nullValue());
+        assertThat(PullRequestInfoExtractor.extractPush(
+                "{\"ref\":\"refs/heads/master\",\"deleted\":true,\"repository\":{\"full_name\":\"owner/test\"}}"),
+                nullValue());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldFailWithoutRepository() throws Exception {
+        PullRequestInfoExtractor.extract(GHEvent.PULL_REQUEST, "{\"number\":2}");
+    }
+}